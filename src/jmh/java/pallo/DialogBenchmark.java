@@ -0,0 +1,134 @@
+package pallo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.control.ListView;
+import javafx.scene.image.Image;
+
+/**
+ * Measures how long the GUI takes to add messages to the dialog history, both for
+ * building the dialog boxes alone and for appending messages to the dialog list with
+ * a layout pass after each one, as a frame would run while a script is pasted in.
+ *
+ * <p>Runs JavaFX headless on Monocle, so no display is needed. Laying out text still
+ * needs the host's Pango libraries, which {@code appendMessages} cannot run without.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Dglass.platform=Monocle", "-Dmonocle.platform=Headless", "-Dprism.order=sw"})
+public class DialogBenchmark {
+    private static boolean isPlatformStarted;
+
+    @Param({"10000"})
+    private int messageCount;
+
+    private Image userImage;
+    private Image palloImage;
+    private List<DialogMessage> messages;
+    private ListView<DialogMessage> dialogList;
+    private Scene scene;
+
+    /**
+     * Starts JavaFX and prepares alternating user messages and replies.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        startPlatform();
+        userImage = new Image(DialogBenchmark.class.getResourceAsStream("/images/DaUser.png"));
+        palloImage = new Image(DialogBenchmark.class.getResourceAsStream("/images/DaPallo.png"));
+        messages = new ArrayList<>(messageCount);
+        for (int i = 0; i < messageCount; i += 2) {
+            messages.add(DialogMessage.fromUser("todo task " + i));
+            messages.add(DialogMessage.fromPallo("Got it. I've added this task:\n  [T][ ] task " + i
+                    + "\nNow you have " + (i / 2 + 1) + " tasks in the list."));
+        }
+    }
+
+    /**
+     * Gives every invocation an empty dialog list in a laid-out scene.
+     */
+    @Setup(Level.Invocation)
+    public void setUpDialogList() throws Exception {
+        runOnFxThread(() -> {
+            dialogList = new ListView<>();
+            dialogList.setCellFactory(list -> new DialogCell(userImage, palloImage));
+            scene = new Scene(dialogList, 400, 550);
+            scene.getStylesheets().add(DialogBenchmark.class.getResource("/view/styles.css").toExternalForm());
+            layOut();
+            return null;
+        });
+    }
+
+    @Benchmark
+    public List<DialogBox> createDialogBoxes() throws Exception {
+        return runOnFxThread(() -> {
+            List<DialogBox> boxes = new ArrayList<>(messages.size());
+            for (DialogMessage message : messages) {
+                boxes.add(message.isFromUser()
+                        ? DialogBox.getUserDialog(message.getText(), userImage)
+                        : DialogBox.getPalloDialog(message.getText(), palloImage));
+            }
+            return boxes;
+        });
+    }
+
+    @Benchmark
+    public int appendMessages() throws Exception {
+        return runOnFxThread(() -> {
+            for (DialogMessage message : messages) {
+                dialogList.getItems().add(message);
+                dialogList.scrollTo(dialogList.getItems().size() - 1);
+                layOut();
+            }
+            return dialogList.getItems().size();
+        });
+    }
+
+    private void layOut() {
+        scene.getRoot().applyCss();
+        scene.getRoot().layout();
+    }
+
+    private static synchronized void startPlatform() throws InterruptedException {
+        if (isPlatformStarted) {
+            return;
+        }
+        FutureTask<Void> started = new FutureTask<>(() -> null);
+        Platform.startup(started);
+        try {
+            started.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("JavaFX failed to start", e);
+        }
+        isPlatformStarted = true;
+    }
+
+    private static <T> T runOnFxThread(Callable<T> action) throws Exception {
+        FutureTask<T> task = new FutureTask<>(action);
+        Platform.runLater(task);
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package pallo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures Pallo.getResponse end to end, from parsing the input to rendering the reply,
+ * against a generated task file. Commands that change tasks also pay for persisting.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PalloBenchmark {
+    @Param({"10000", "100000"})
+    private int taskCount;
+
+    @Param({"find standup", "remind", "list", "mark 1"})
+    private String input;
+
+    @Param({"none"})
+    private String durability;
+
+    private Path directory;
+    private Pallo pallo;
+
+    /**
+     * Generates a task file and starts Pallo on it.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("pallo-bench");
+        Path file = directory.resolve("pallo.txt");
+        TaskFileGenerator.writeTaskFile(file, taskCount, TaskFileGenerator.DEFAULT_SEED);
+        System.setProperty("pallo.durability", durability);
+        pallo = new Pallo(file.toString());
+    }
+
+    /**
+     * Removes the files written by Pallo.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public String getResponse() {
+        return pallo.getResponse(input);
+    }
+}
@@ -0,0 +1,142 @@
+package pallo;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Random;
+
+import pallo.task.Deadline;
+import pallo.task.Event;
+import pallo.task.Task;
+import pallo.task.Todo;
+
+/**
+ * Generates reproducible synthetic task lists for benchmarks.
+ * The same count, seed and anchor date always produce the same tasks: about half
+ * todos, 30% deadlines and 20% events, with a fifth of them done. Dates are spread
+ * over a year around the anchor, and one in twenty dated tasks keeps an unparsed
+ * date string, as users sometimes type.
+ *
+ * <p>Usage: {@code TaskFileGenerator <output> <count> [seed]}
+ */
+public final class TaskFileGenerator {
+    public static final long DEFAULT_SEED = 42;
+    public static final LocalDateTime DEFAULT_ANCHOR = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private static final String[] WORDS = {"read", "book", "return", "standup", "review", "PR", "groceries",
+        "meeting", "report", "submit", "call", "mom", "project", "deploy", "fix", "bug", "lunch", "gym",
+        "plan", "sprint", "write", "tests", "email", "team", "pay", "rent", "dentist", "demo", "release"};
+    private static final String[] UNPARSED_DATES = {"next monday", "tomorrow 2pm", "end of sprint", "Mon 4pm"};
+    private static final int DATE_SPREAD_MINUTES = 365 * 24 * 60;
+
+    private TaskFileGenerator() {
+    }
+
+    /**
+     * Generates tasks with dates around the default anchor.
+     *
+     * @param count The number of tasks to generate.
+     * @param seed  The random seed.
+     * @return The generated tasks.
+     */
+    public static ArrayList<Task> generateTasks(int count, long seed) {
+        return generateTasks(count, seed, DEFAULT_ANCHOR);
+    }
+
+    /**
+     * Generates tasks with dates spread over a year centred on the given anchor.
+     *
+     * @param count  The number of tasks to generate.
+     * @param seed   The random seed.
+     * @param anchor The date the generated dates are centred on.
+     * @return The generated tasks.
+     */
+    public static ArrayList<Task> generateTasks(int count, long seed, LocalDateTime anchor) {
+        Random random = new Random(seed);
+        ArrayList<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String description = randomDescription(random);
+            int kind = random.nextInt(10);
+            Task task;
+            if (kind < 5) {
+                task = new Todo(description);
+            } else if (kind < 8) {
+                task = random.nextInt(20) == 0
+                        ? new Deadline(description, UNPARSED_DATES[random.nextInt(UNPARSED_DATES.length)])
+                        : new Deadline(description, randomDate(random, anchor));
+            } else if (random.nextInt(20) == 0) {
+                task = new Event(description, UNPARSED_DATES[random.nextInt(UNPARSED_DATES.length)], "later");
+            } else {
+                LocalDateTime from = randomDate(random, anchor);
+                task = new Event(description, from, from.plusMinutes(30 + random.nextInt(8 * 60)));
+            }
+            if (random.nextInt(5) == 0) {
+                task.markAsDone();
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns the text file content for the given tasks.
+     *
+     * @param tasks The tasks to render.
+     * @return The pipe-delimited file content.
+     */
+    public static String toFileContent(ArrayList<Task> tasks) {
+        StringBuilder content = new StringBuilder(tasks.size() * 40);
+        for (Task task : tasks) {
+            content.append(task.toFileString()).append(System.lineSeparator());
+        }
+        return content.toString();
+    }
+
+    /**
+     * Writes a generated text task file.
+     *
+     * @param path  The file to write.
+     * @param count The number of tasks to generate.
+     * @param seed  The random seed.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void writeTaskFile(Path path, int count, long seed) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Files.writeString(path, toFileContent(generateTasks(count, seed)), StandardCharsets.UTF_8);
+    }
+
+    private static String randomDescription(Random random) {
+        int wordCount = 2 + random.nextInt(4);
+        StringBuilder description = new StringBuilder(WORDS[random.nextInt(WORDS.length)]);
+        for (int i = 1; i < wordCount; i++) {
+            description.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return description.toString();
+    }
+
+    private static LocalDateTime randomDate(Random random, LocalDateTime anchor) {
+        LocalDateTime date = anchor.plusMinutes(random.nextInt(DATE_SPREAD_MINUTES) - DATE_SPREAD_MINUTES / 2);
+        // Round to quarter hours, with a third of the dates at midnight like date-only input
+        return random.nextInt(3) == 0 ? date.toLocalDate().atStartOfDay() : date.withMinute(date.getMinute() / 15 * 15);
+    }
+
+    /**
+     * Writes a generated task file from the command line.
+     *
+     * @param args The output path, task count and optional seed.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: TaskFileGenerator <output> <count> [seed]");
+            System.exit(2);
+        }
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SEED;
+        writeTaskFile(Paths.get(args[0]), Integer.parseInt(args[1]), seed);
+    }
+}
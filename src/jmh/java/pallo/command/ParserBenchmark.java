@@ -0,0 +1,30 @@
+package pallo.command;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import pallo.exception.PalloException;
+
+/**
+ * Measures parsing of typical commands, from the first keyword checked to the last.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParserBenchmark {
+    @Param({"bye", "list", "mark 12", "todo read book", "deadline submit report /by 2024-12-31 1800",
+        "event project meeting /from 2/12/2024 1400 /to 2/12/2024 1600", "find book", "remind"})
+    private String input;
+
+    @Benchmark
+    public Command parseCommand() throws PalloException {
+        return Parser.parseCommand(input);
+    }
+}
@@ -0,0 +1,202 @@
+package pallo.server;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import pallo.Pallo;
+import pallo.TaskFileGenerator;
+
+/**
+ * Measures the JSON API under load from several clients at once, and reports the
+ * throughput and the median, 99th percentile and worst latency of reads and writes.
+ * Each client sends one request at a time: a write adds, marks, unmarks or deletes a
+ * task, and a read lists a page of tasks, fetches one task or searches by keyword.
+ * Without a URL, a server is started in this process on a copy of generated tasks,
+ * saving without fsync so that the numbers measure Pallo rather than the disk.
+ *
+ * <p>Usage: {@code ServerLoadTest [clients] [seconds] [write percentage] [url]}
+ */
+public final class ServerLoadTest {
+    private static final int DEFAULT_CLIENTS = 16;
+    private static final int DEFAULT_SECONDS = 10;
+    private static final int DEFAULT_WRITE_PERCENTAGE = 10;
+    private static final int TASK_COUNT = 10_000;
+    private static final int WARMUP_SECONDS = 3;
+    private static final String[] KEYWORDS = {"book", "meeting", "deploy", "rent", "dentist"};
+
+    private ServerLoadTest() {
+    }
+
+    /**
+     * Latencies recorded by one client, in nanoseconds.
+     */
+    private static class Latencies {
+        private long[] values = new long[1024];
+        private int count;
+
+        void add(long nanos) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = nanos;
+        }
+    }
+
+    /**
+     * Runs the load test.
+     *
+     * @param args The number of clients, seconds to run, percentage of writes and the
+     *             server's base URL, all optional.
+     * @throws Exception If the server cannot be started or a request fails.
+     */
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_CLIENTS;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SECONDS;
+        int writePercentage = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_WRITE_PERCENTAGE;
+
+        PalloServer server = null;
+        String baseUrl;
+        if (args.length > 3) {
+            baseUrl = args[3];
+        } else {
+            System.setProperty("pallo.durability", "none");
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+            Path file = Files.createTempFile("pallo-load", ".txt");
+            file.toFile().deleteOnExit();
+            TaskFileGenerator.writeTaskFile(file, TASK_COUNT, TaskFileGenerator.DEFAULT_SEED);
+            server = new PalloServer(new Pallo(file.toString(), true), 0, Math.max(clients,
+                    PalloServer.DEFAULT_REQUEST_THREADS));
+            server.start();
+            baseUrl = "http://localhost:" + server.getPort();
+        }
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        System.out.printf("Warming up %s for %d s...%n", baseUrl, WARMUP_SECONDS);
+        runClients(client, baseUrl, clients, WARMUP_SECONDS, writePercentage, new Latencies[clients],
+                new Latencies[clients]);
+
+        Latencies[] reads = new Latencies[clients];
+        Latencies[] writes = new Latencies[clients];
+        long elapsed = runClients(client, baseUrl, clients, seconds, writePercentage, reads, writes);
+        System.out.printf("%d clients, %d%% writes, %.1f s%n", clients, writePercentage, elapsed / 1e9);
+        report("reads", reads, elapsed);
+        report("writes", writes, elapsed);
+
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    private static long runClients(HttpClient client, String baseUrl, int clients, int seconds, int writePercentage,
+            Latencies[] reads, Latencies[] writes) throws InterruptedException {
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            Latencies clientReads = new Latencies();
+            Latencies clientWrites = new Latencies();
+            reads[i] = clientReads;
+            writes[i] = clientWrites;
+            Thread thread = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long lastId = 0;
+                while (System.nanoTime() < end) {
+                    boolean isWrite = random.nextInt(100) < writePercentage;
+                    HttpRequest request = isWrite ? nextWrite(baseUrl, random, lastId) : nextRead(baseUrl, random);
+                    long sent = System.nanoTime();
+                    String body = send(client, request);
+                    (isWrite ? clientWrites : clientReads).add(System.nanoTime() - sent);
+                    if (body.startsWith("{\"id\":") && request.method().equals("POST")) {
+                        lastId = Long.parseLong(body.substring("{\"id\":".length(), body.indexOf(',')));
+                    }
+                }
+            }, "load-client-" + i);
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static HttpRequest nextRead(String baseUrl, ThreadLocalRandom random) {
+        switch (random.nextInt(3)) {
+        case 0:
+            int from = 1 + random.nextInt(TASK_COUNT);
+            return get(baseUrl + "/tasks?from=" + from + "&limit=20");
+        case 1:
+            return get(baseUrl + "/tasks/" + (1 + random.nextInt(TASK_COUNT)));
+        default:
+            return get(baseUrl + "/find?keyword=" + KEYWORDS[random.nextInt(KEYWORDS.length)]);
+        }
+    }
+
+    private static HttpRequest nextWrite(String baseUrl, ThreadLocalRandom random, long lastId) {
+        // Delete the task this client added last, so that the list stays about the same size
+        if (lastId > 0 && random.nextBoolean()) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/tasks/" + lastId)).DELETE().build();
+        }
+        if (random.nextBoolean()) {
+            String action = random.nextBoolean() ? "/mark" : "/unmark";
+            return post(baseUrl + "/tasks/" + (1 + random.nextInt(TASK_COUNT)) + action, "");
+        }
+        return post(baseUrl + "/tasks", "{\"type\":\"todo\",\"description\":\"load test " + random.nextInt() + "\"}");
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET().build();
+    }
+
+    private static HttpRequest post(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url)).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private static String send(HttpClient client, HttpRequest request) {
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            // Missing tasks are expected, as other clients delete what they added
+            if (response.statusCode() >= 500) {
+                throw new IllegalStateException(request + " failed: " + response.body());
+            }
+            return response.body();
+        } catch (Exception e) {
+            throw new IllegalStateException(request + " failed", e);
+        }
+    }
+
+    private static void report(String name, Latencies[] latencies, long elapsedNanos) {
+        int count = 0;
+        for (Latencies clientLatencies : latencies) {
+            count += clientLatencies.count;
+        }
+        long[] all = new long[count];
+        int position = 0;
+        for (Latencies clientLatencies : latencies) {
+            System.arraycopy(clientLatencies.values, 0, all, position, clientLatencies.count);
+            position += clientLatencies.count;
+        }
+        if (count == 0) {
+            System.out.printf("%-6s: none%n", name);
+            return;
+        }
+        Arrays.sort(all);
+        System.out.printf("%-6s: %,d requests, %,.0f/s, p50 %.2f ms, p99 %.2f ms, max %.2f ms%n", name, count,
+                count / (elapsedNanos / 1e9), percentile(all, 50) / 1e6, percentile(all, 99) / 1e6,
+                all[count - 1] / 1e6);
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(sorted.length * percentile / 100.0) - 1;
+        return sorted[Math.max(0, index)];
+    }
+}
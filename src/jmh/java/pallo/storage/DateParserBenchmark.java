@@ -0,0 +1,33 @@
+package pallo.storage;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures parsing of each supported user date format, and of an unparseable date.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DateParserBenchmark {
+    @Param({"2019-12-02", "2019-12-02 1800", "2019-12-02 18:00", "2/12/2019 1800", "2/12/2019", "next monday"})
+    private String input;
+
+    @Benchmark
+    public LocalDateTime parseDateTime() {
+        return DateParser.parseDateTime(input);
+    }
+
+    @Benchmark
+    public LocalDateTime parseDateTimeFromFile() {
+        return DateParser.parseDateTimeFromFile("2019-12-02T18:00");
+    }
+}
@@ -0,0 +1,79 @@
+package pallo.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import pallo.TaskFileGenerator;
+import pallo.exception.PalloException;
+import pallo.task.Task;
+
+/**
+ * Measures loading generated task files of several sizes in each format and load mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StorageLoadBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int taskCount;
+
+    @Param({"TEXT", "BINARY"})
+    private String format;
+
+    private Path directory;
+    private Storage storage;
+    private Storage sequentialStorage;
+
+    /**
+     * Writes a generated task file in the requested format.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, PalloException {
+        directory = Files.createTempDirectory("pallo-bench");
+        Path file = directory.resolve("pallo.txt");
+        storage = new Storage(file.toString());
+        storage.setDurability(Durability.NONE);
+        storage.setFormat(StorageFormat.fromName(format, StorageFormat.TEXT));
+        storage.save(TaskFileGenerator.generateTasks(taskCount, TaskFileGenerator.DEFAULT_SEED));
+        sequentialStorage = new Storage(file.toString());
+        sequentialStorage.setParallelLoadThreshold(Long.MAX_VALUE);
+    }
+
+    /**
+     * Removes the generated task file.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(directory.resolve("pallo.txt"));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public List<Task> load() throws PalloException {
+        return storage.load();
+    }
+
+    @Benchmark
+    public List<Task> loadSequential() throws PalloException {
+        return sequentialStorage.load();
+    }
+
+    @Benchmark
+    public List<Task> loadLazily() throws PalloException {
+        return storage.loadLazily();
+    }
+}
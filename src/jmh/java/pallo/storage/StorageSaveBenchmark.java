@@ -0,0 +1,87 @@
+package pallo.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import pallo.TaskFileGenerator;
+import pallo.exception.PalloException;
+import pallo.task.Task;
+
+/**
+ * Compares the cost of a full snapshot save at each durability level, and of
+ * persisting a single mark when only the changed record is rewritten.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StorageSaveBenchmark {
+    @Param({"NONE", "FLUSH", "FSYNC"})
+    private String durability;
+
+    @Param({"1000", "100000", "1000000"})
+    private int taskCount;
+
+    private Path directory;
+    private Storage storage;
+    private Storage incrementalStorage;
+    private ArrayList<Task> tasks;
+
+    /**
+     * Creates a storage in a fresh temp directory and a task list of the requested size,
+     * and writes the tasks to a second file whose changes are saved incrementally.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, PalloException {
+        directory = Files.createTempDirectory("pallo-bench");
+        storage = new Storage(directory.resolve("pallo.txt").toString());
+        storage.setDurability(Durability.fromName(durability, Durability.FSYNC));
+        tasks = TaskFileGenerator.generateTasks(taskCount, TaskFileGenerator.DEFAULT_SEED);
+
+        incrementalStorage = new Storage(directory.resolve("incremental.txt").toString());
+        incrementalStorage.setDurability(Durability.fromName(durability, Durability.FSYNC));
+        incrementalStorage.setIncrementalSaves(true);
+        incrementalStorage.save(tasks);
+    }
+
+    /**
+     * Removes the files written by the benchmark.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(directory.resolve("pallo.txt"));
+        Files.deleteIfExists(directory.resolve("pallo.txt.tmp"));
+        Files.deleteIfExists(directory.resolve("incremental.txt"));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public void save() throws PalloException {
+        storage.save(tasks);
+    }
+
+    @Benchmark
+    public void persistMarkIncrementally() throws PalloException {
+        Task task = tasks.get(tasks.size() / 2);
+        if (task.isDone()) {
+            task.markAsNotDone();
+            incrementalStorage.persist(JournalEntry.unmark(tasks.size() / 2), () -> tasks);
+        } else {
+            task.markAsDone();
+            incrementalStorage.persist(JournalEntry.mark(tasks.size() / 2), () -> tasks);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package pallo.storage;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import pallo.TaskFileGenerator;
+import pallo.task.Deadline;
+import pallo.task.Event;
+import pallo.task.StringPool;
+import pallo.task.Task;
+import pallo.task.Todo;
+
+/**
+ * Measures how much heap a loaded task list keeps with each string pool setting, so
+ * that the shared pool's defaults can be chosen from numbers rather than guesses.
+ * Each setting is loaded in a fresh JVM, which reports the heap retained per task
+ * after a full collection, how long the load took and how often the pool hit.
+ *
+ * <p>The task file is meant to look like a real one rather than the benchmark files
+ * of {@link TaskFileGenerator}: most descriptions are drawn from a few thousand
+ * recurring chores with a Zipf distribution, so a handful of them ("standup",
+ * "review PR") make up much of the list, and the rest are one-off tasks with longer,
+ * unique text. One dated task in ten keeps an unparsed date like "next monday".
+ *
+ * <p>Usage: {@code StringPoolBenchmark [count] [capacity:maxLength ...]}
+ */
+public final class StringPoolBenchmark {
+    private static final int DEFAULT_COUNT = 500_000;
+    private static final String[] DEFAULT_SETTINGS = {"0:0", "1024:48", "4096:48", "16384:48", "65536:48",
+        "16384:24", "16384:96", "4194304:1000"};
+    private static final int RECURRING_COUNT = 5_000;
+    private static final double ZIPF_EXPONENT = 1.0;
+    private static final int ONE_OFF_PERCENTAGE = 30;
+    private static final String[] WORDS = {"read", "book", "return", "standup", "review", "PR", "groceries",
+        "meeting", "report", "submit", "call", "mom", "project", "deploy", "fix", "bug", "lunch", "gym",
+        "plan", "sprint", "write", "tests", "email", "team", "pay", "rent", "dentist", "demo", "release"};
+    private static final String[] UNPARSED_DATES = {"next monday", "tomorrow 2pm", "end of sprint", "Mon 4pm",
+        "friday", "after lunch", "before release", "someday", "next week", "tonight"};
+
+    private StringPoolBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark, or measures one setting when started by the benchmark itself.
+     *
+     * @param args The number of tasks and the pool settings to compare, as capacity:maxLength,
+     *             where a capacity of 0 turns the pool off; or "measure" and a task file.
+     * @throws Exception If the task file cannot be written or a measurement fails.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && args[0].equals("measure")) {
+            measure(args[1]);
+            return;
+        }
+
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_COUNT;
+        String[] settings = args.length > 1 ? Arrays.copyOfRange(args, 1, args.length) : DEFAULT_SETTINGS;
+        Path file = Files.createTempFile("pallo-strings", ".txt");
+        file.toFile().deleteOnExit();
+        writeRealisticTaskFile(file, count, TaskFileGenerator.DEFAULT_SEED);
+
+        System.out.printf("%d tasks, %d KB file%n", count, Files.size(file) / 1024);
+        System.out.printf("%-14s %12s %10s %9s %12s%n", "capacity:max", "bytes/task", "load ms", "hit rate",
+                "saved KB");
+        for (String setting : settings) {
+            String[] parts = setting.split(":");
+            List<String> command = List.of(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-Xms1g", "-Xmx1g", "-XX:+UseSerialGC", "-Dpallo.metrics=false",
+                    "-Dpallo.stringpool=" + parts[0], "-Dpallo.stringpool.maxlength=" + parts[1],
+                    "-cp", System.getProperty("java.class.path"), StringPoolBenchmark.class.getName(),
+                    "measure", file.toString());
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).stripTrailing();
+            process.waitFor();
+            System.out.printf("%-14s %s%n", setting, output);
+        }
+    }
+
+    private static void measure(String file) throws Exception {
+        Storage storage = new Storage(file);
+        long before = usedHeapAfterGc();
+        long start = System.nanoTime();
+        ArrayList<Task> tasks = storage.load();
+        long loadNanos = System.nanoTime() - start;
+        long after = usedHeapAfterGc();
+
+        StringPool pool = StringPool.shared();
+        double hitRate = pool.getLookupCount() == 0 ? 0 : 100.0 * pool.getHitCount() / pool.getLookupCount();
+        System.out.printf("%12.1f %10.1f %8.1f%% %12d%n", (double) (after - before) / tasks.size(),
+                loadNanos / 1e6, hitRate, pool.getBytesSaved() / 1024);
+        // Keeps the tasks reachable until the heap has been measured
+        if (tasks.isEmpty()) {
+            System.out.println("No tasks were loaded.");
+        }
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Writes a task file in which descriptions and unparsed dates recur as they do in real lists.
+     *
+     * @param path  The file to write.
+     * @param count The number of tasks to generate.
+     * @param seed  The random seed.
+     * @throws IOException If the file cannot be written.
+     */
+    static void writeRealisticTaskFile(Path path, int count, long seed) throws IOException {
+        Random random = new Random(seed);
+        String[] recurring = new String[RECURRING_COUNT];
+        for (int i = 0; i < RECURRING_COUNT; i++) {
+            recurring[i] = phrase(random, 1 + random.nextInt(4));
+        }
+        double[] cumulative = zipfCumulative(RECURRING_COUNT, ZIPF_EXPONENT);
+
+        ArrayList<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String description = random.nextInt(100) < ONE_OFF_PERCENTAGE
+                    ? phrase(random, 4 + random.nextInt(6)) + " #" + i
+                    : recurring[pick(cumulative, random.nextDouble())];
+            int kind = random.nextInt(10);
+            Task task;
+            if (kind < 5) {
+                task = new Todo(description);
+            } else if (kind < 8) {
+                task = random.nextInt(10) == 0
+                        ? new Deadline(description, UNPARSED_DATES[random.nextInt(UNPARSED_DATES.length)])
+                        : new Deadline(description, TaskFileGenerator.DEFAULT_ANCHOR.plusHours(random.nextInt(8760)));
+            } else if (random.nextInt(10) == 0) {
+                task = new Event(description, UNPARSED_DATES[random.nextInt(UNPARSED_DATES.length)],
+                        UNPARSED_DATES[random.nextInt(UNPARSED_DATES.length)]);
+            } else {
+                int hours = random.nextInt(8760);
+                task = new Event(description, TaskFileGenerator.DEFAULT_ANCHOR.plusHours(hours),
+                        TaskFileGenerator.DEFAULT_ANCHOR.plusHours(hours + 1));
+            }
+            if (random.nextInt(5) == 0) {
+                task.markAsDone();
+            }
+            tasks.add(task);
+        }
+        Files.writeString(path, TaskFileGenerator.toFileContent(tasks), StandardCharsets.UTF_8);
+    }
+
+    private static String phrase(Random random, int wordCount) {
+        StringBuilder phrase = new StringBuilder(WORDS[random.nextInt(WORDS.length)]);
+        for (int i = 1; i < wordCount; i++) {
+            phrase.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return phrase.toString();
+    }
+
+    private static double[] zipfCumulative(int size, double exponent) {
+        double[] cumulative = new double[size];
+        double total = 0;
+        for (int rank = 1; rank <= size; rank++) {
+            total += 1 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = total;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+
+    private static int pick(double[] cumulative, double point) {
+        int index = Arrays.binarySearch(cumulative, point);
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+}
@@ -0,0 +1,60 @@
+package pallo.task;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import pallo.TaskFileGenerator;
+
+/**
+ * Compares the trigram-indexed find against the linear scan it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FindBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    private int taskCount;
+
+    @Param({"standup", "review PR", "deploy fix"})
+    private String keyword;
+
+    private TaskList tasks;
+    private ArrayList<Task> allTasks;
+
+    /**
+     * Creates a generated task list and warms up its index.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        tasks = new TaskList(TaskFileGenerator.generateTasks(taskCount, TaskFileGenerator.DEFAULT_SEED));
+        allTasks = tasks.getAllTasks();
+        tasks.findTasks(keyword);
+    }
+
+    @Benchmark
+    public ArrayList<Task> indexed() {
+        return tasks.findTasks(keyword);
+    }
+
+    /**
+     * Runs the original lowercase-and-contains scan over every task.
+     */
+    @Benchmark
+    public ArrayList<Task> linearScan() {
+        String lowerKeyword = keyword.toLowerCase();
+        return allTasks.stream()
+                .filter(task -> task.getDescription().toLowerCase().contains(lowerKeyword))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+}
@@ -0,0 +1,45 @@
+package pallo.task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import pallo.TaskFileGenerator;
+
+/**
+ * Measures the remind query on generated task lists with dates spread around today.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RemindBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    private int taskCount;
+
+    private TaskList tasks;
+
+    /**
+     * Generates a task list centred on the current date, so a week ahead has matches.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        tasks = new TaskList(TaskFileGenerator.generateTasks(taskCount, TaskFileGenerator.DEFAULT_SEED,
+                LocalDateTime.now()));
+        tasks.getUpcomingTasks(7);
+    }
+
+    @Benchmark
+    public ArrayList<Task> getUpcomingTasks() {
+        return tasks.getUpcomingTasks(7);
+    }
+}
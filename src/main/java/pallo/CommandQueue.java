@@ -0,0 +1,62 @@
+package pallo;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs commands one at a time on a dedicated background thread, in the order they
+ * were submitted, so that a slow command does not hold up the thread that submitted it.
+ * With a single thread running every command, commands never overlap and each one
+ * sees the effects of all the commands submitted before it.
+ */
+public class CommandQueue {
+    private final ExecutorService executor;
+
+    /**
+     * Constructs a queue whose commands run on a daemon thread with the given name.
+     *
+     * @param threadName The name of the thread that runs the commands.
+     */
+    public CommandQueue(String threadName) {
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a command to run after every command submitted before it.
+     *
+     * @param command The command to run.
+     * @param <T>     The type of the command's result.
+     * @return A future completed with the command's result, or exceptionally if it throws.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> command) {
+        return CompletableFuture.supplyAsync(command, executor);
+    }
+
+    /**
+     * Lets the queued commands finish, but accepts no new ones.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Accepts no new commands and waits for the queued ones to finish, e.g. before the
+     * JVM exits and takes the daemon thread down with whatever is still queued.
+     *
+     * @param timeout The longest time to wait.
+     * @param unit    The unit of the timeout.
+     * @return Whether every queued command finished in time.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public boolean drain(long timeout, TimeUnit unit) throws InterruptedException {
+        executor.shutdown();
+        return executor.awaitTermination(timeout, unit);
+    }
+}
@@ -1,71 +1,135 @@
 package pallo;
 
-import java.io.IOException;
-import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
 import javafx.scene.shape.Circle;
 
 /**
  * Represents a dialog box consisting of an ImageView to represent the speaker's face
  * and a label containing text from the speaker.
+ *
+ * <p>Dialog boxes are built in code rather than loaded from FXML, and every box shows
+ * the same pre-rounded copy of its avatar, so adding a message allocates no loader and
+ * no clip shape.
  */
 public class DialogBox extends HBox {
-    @FXML
-    private Label dialog;
-    @FXML
-    private ImageView displayPicture;
+    private static final double AVATAR_SIZE = 30.0;
+    /** Avatars with everything outside their inscribed circle made transparent, by original image. */
+    private static final Map<Image, Image> ROUND_AVATARS = new WeakHashMap<>();
 
-    private DialogBox(String text, Image img) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(MainWindow.class.getResource("/view/DialogBox.fxml"));
-            fxmlLoader.setController(this);
-            fxmlLoader.setRoot(this);
-            fxmlLoader.load();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    private final Label dialog;
+    private final ImageView displayPicture;
 
-        dialog.setText(text);
-        displayPicture.setImage(img);
+    private DialogBox(String text, Image img, boolean isAvatarFirst) {
+        dialog = new Label(text);
+        dialog.setWrapText(true);
+        dialog.setMinHeight(Region.USE_PREF_SIZE);
+        dialog.setMaxWidth(Double.MAX_VALUE);
+        HBox.setHgrow(dialog, Priority.ALWAYS);
 
-        Circle clip = new Circle(15, 15, 15);
-        displayPicture.setClip(clip);
-    }
+        displayPicture = new ImageView(getRoundAvatar(img));
+        displayPicture.setFitWidth(AVATAR_SIZE);
+        displayPicture.setFitHeight(AVATAR_SIZE);
+        displayPicture.setPickOnBounds(true);
+        displayPicture.setPreserveRatio(true);
+        if (displayPicture.getImage() == img) {
+            // The avatar could not be rounded in advance, so round it on screen instead
+            displayPicture.setClip(new Circle(AVATAR_SIZE / 2, AVATAR_SIZE / 2, AVATAR_SIZE / 2));
+        }
 
-    /**
-     * Flips the dialog box such that the ImageView is on the left and text on the right.
-     */
-    private void flip() {
-        ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
-        Collections.reverse(tmp);
-        getChildren().setAll(tmp);
-        setAlignment(Pos.TOP_LEFT);
+        setSpacing(6.0);
+        setMaxWidth(Double.MAX_VALUE);
+        setPadding(new Insets(2.0, 8.0, 2.0, 8.0));
+        if (isAvatarFirst) {
+            getChildren().addAll(displayPicture, dialog);
+            setAlignment(Pos.TOP_LEFT);
+        } else {
+            getChildren().addAll(dialog, displayPicture);
+            setAlignment(Pos.TOP_RIGHT);
+        }
     }
 
     public static DialogBox getUserDialog(String text, Image img) {
-        var db = new DialogBox(text, img);
+        var db = new DialogBox(text, img, false);
         db.getStyleClass().add("user-dialog");
         return db;
     }
 
     public static DialogBox getPalloDialog(String text, Image img) {
-        var db = new DialogBox(text, img);
-        db.flip();
-        if (text.startsWith("OH NO!!!")) {
-            db.getStyleClass().add("error-dialog");
-        } else {
-            db.getStyleClass().add("pallo-dialog");
-        }
+        var db = new DialogBox(text, img, true);
+        db.getStyleClass().add(getPalloStyleClass(text));
         return db;
     }
+
+    /**
+     * Replaces the text of this dialog box, so that a list cell can reuse it for another message.
+     * A reply from Pallo is restyled as an error or a normal reply to match its new text.
+     *
+     * @param text The new text.
+     */
+    public void setText(String text) {
+        dialog.setText(text);
+        if (getStyleClass().removeAll("error-dialog", "pallo-dialog")) {
+            getStyleClass().add(getPalloStyleClass(text));
+        }
+    }
+
+    private static String getPalloStyleClass(String text) {
+        return text.startsWith("OH NO!!!") ? "error-dialog" : "pallo-dialog";
+    }
+
+    /**
+     * Returns the avatar cut to a circle, rounding each image only the first time it is shown.
+     *
+     * @param img The avatar.
+     * @return The rounded avatar, or the avatar itself if its pixels cannot be read yet.
+     */
+    static Image getRoundAvatar(Image img) {
+        synchronized (ROUND_AVATARS) {
+            Image round = ROUND_AVATARS.get(img);
+            if (round == null) {
+                round = roundAvatar(img);
+                if (round == img) {
+                    return img; // Try again next time, e.g. once a background load has finished
+                }
+                ROUND_AVATARS.put(img, round);
+            }
+            return round;
+        }
+    }
+
+    private static Image roundAvatar(Image img) {
+        PixelReader reader = img.getPixelReader();
+        int width = (int) img.getWidth();
+        int height = (int) img.getHeight();
+        if (reader == null || width == 0 || height == 0) {
+            return img;
+        }
+        WritableImage round = new WritableImage(width, height);
+        PixelWriter writer = round.getPixelWriter();
+        double radius = Math.min(width, height) / 2.0;
+        double centerX = width / 2.0;
+        double centerY = height / 2.0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                double dx = x + 0.5 - centerX;
+                double dy = y + 0.5 - centerY;
+                boolean isInside = dx * dx + dy * dy <= radius * radius;
+                writer.setArgb(x, y, isInside ? reader.getArgb(x, y) : 0);
+            }
+        }
+        return round;
+    }
 }
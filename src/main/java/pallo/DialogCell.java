@@ -0,0 +1,99 @@
+package pallo;
+
+import javafx.geometry.Pos;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.image.Image;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+
+/**
+ * A cell of the dialog history. The ListView only creates enough cells to fill the
+ * screen and hands them new messages as the user scrolls, so each cell builds its
+ * dialog boxes once and afterwards only swaps their text.
+ */
+public class DialogCell extends ListCell<DialogMessage> {
+    private final Image userImage;
+    private final Image palloImage;
+    private DialogBox userDialog;
+    private DialogBox palloDialog;
+    private DialogBox listingDialog;
+    private TaskTable listingTable;
+    private VBox listing;
+    private HBox progress;
+
+    /**
+     * Constructs a cell that shows the given avatars next to messages.
+     *
+     * @param userImage  The avatar for messages from the user.
+     * @param palloImage The avatar for replies from Pallo.
+     */
+    public DialogCell(Image userImage, Image palloImage) {
+        this.userImage = userImage;
+        this.palloImage = palloImage;
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        // Let the cell shrink to the list's width, so long messages wrap instead of scrolling sideways
+        setPrefWidth(0);
+    }
+
+    @Override
+    protected void updateItem(DialogMessage message, boolean isEmpty) {
+        super.updateItem(message, isEmpty);
+        if (isEmpty || message == null) {
+            setGraphic(null);
+        } else if (message.isInProgress()) {
+            setGraphic(getProgress());
+        } else if (message.isPending()) {
+            setGraphic(null);
+        } else if (message.isFromUser()) {
+            setGraphic(getUserDialog(message.getText()));
+        } else if (message.isListing()) {
+            setGraphic(getListing(message));
+        } else {
+            setGraphic(getPalloDialog(message.getText()));
+        }
+    }
+
+    private DialogBox getUserDialog(String text) {
+        if (userDialog == null) {
+            userDialog = DialogBox.getUserDialog(text, userImage);
+        } else {
+            userDialog.setText(text);
+        }
+        return userDialog;
+    }
+
+    private DialogBox getPalloDialog(String text) {
+        if (palloDialog == null) {
+            palloDialog = DialogBox.getPalloDialog(text, palloImage);
+        } else {
+            palloDialog.setText(text);
+        }
+        return palloDialog;
+    }
+
+    private HBox getProgress() {
+        if (progress == null) {
+            ProgressIndicator indicator = new ProgressIndicator();
+            indicator.setPrefSize(24, 24);
+            progress = new HBox(indicator);
+            progress.setAlignment(Pos.CENTER_LEFT);
+            progress.getStyleClass().add("progress");
+        }
+        return progress;
+    }
+
+    private VBox getListing(DialogMessage message) {
+        if (listing == null) {
+            listingDialog = DialogBox.getPalloDialog(message.getText(), palloImage);
+            listingTable = new TaskTable();
+            listing = new VBox(4, listingDialog, listingTable);
+            listing.getStyleClass().add("listing");
+        } else {
+            listingDialog.setText(message.getText());
+        }
+        listingTable.showTasks(message.getTasks(), message.getFirstTaskNumber());
+        return listing;
+    }
+}
@@ -0,0 +1,98 @@
+package pallo;
+
+import java.util.List;
+
+import pallo.task.Task;
+
+/**
+ * One message in the GUI's dialog history, either typed by the user or replied by Pallo.
+ * A reply that lists tasks keeps the tasks themselves rather than their text, so that
+ * its table only formats the rows on screen. A reply that is still being worked out is
+ * held by a pending message, which is replaced once the reply arrives.
+ */
+public class DialogMessage {
+    private static final DialogMessage PENDING = new DialogMessage(false, "", null, 0, false);
+    private static final DialogMessage IN_PROGRESS = new DialogMessage(false, "", null, 0, true);
+
+    private final boolean isFromUser;
+    private final String text;
+    private final List<Task> tasks;
+    private final int firstTaskNumber;
+    private final boolean isInProgress;
+
+    private DialogMessage(boolean isFromUser, String text, List<Task> tasks, int firstTaskNumber,
+            boolean isInProgress) {
+        this.isFromUser = isFromUser;
+        this.text = text;
+        this.tasks = tasks;
+        this.firstTaskNumber = firstTaskNumber;
+        this.isInProgress = isInProgress;
+    }
+
+    public static DialogMessage fromUser(String text) {
+        return new DialogMessage(true, text, null, 0, false);
+    }
+
+    public static DialogMessage fromPallo(String text) {
+        return new DialogMessage(false, text, null, 0, false);
+    }
+
+    /**
+     * Creates a reply from Pallo that shows the given tasks in a table below its text.
+     *
+     * @param text            The text shown above the table.
+     * @param tasks           The tasks to show, which are displayed as they are when drawn.
+     * @param firstTaskNumber The list number of the first task.
+     * @return The reply.
+     */
+    public static DialogMessage listing(String text, List<Task> tasks, int firstTaskNumber) {
+        assert tasks != null : "Listed tasks should not be null";
+        return new DialogMessage(false, text, tasks, firstTaskNumber, false);
+    }
+
+    /**
+     * Returns a placeholder for a reply that has not arrived yet, which shows nothing.
+     *
+     * @return The placeholder.
+     */
+    public static DialogMessage pending() {
+        return PENDING;
+    }
+
+    /**
+     * Returns a placeholder for a reply that is taking a while, which shows a progress indicator.
+     *
+     * @return The placeholder.
+     */
+    public static DialogMessage inProgress() {
+        return IN_PROGRESS;
+    }
+
+    public boolean isFromUser() {
+        return isFromUser;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public boolean isPending() {
+        return this == PENDING || this == IN_PROGRESS;
+    }
+
+    public boolean isInProgress() {
+        return isInProgress;
+    }
+
+    public boolean isListing() {
+        return tasks != null;
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    public int getFirstTaskNumber() {
+        return firstTaskNumber;
+    }
+}
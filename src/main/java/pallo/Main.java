@@ -14,6 +14,7 @@ import javafx.stage.Stage;
 public class Main extends Application {
 
     private Pallo pallo = new Pallo();
+    private MainWindow mainWindow;
 
     @Override
     public void start(Stage stage) {
@@ -26,10 +27,21 @@ public class Main extends Application {
             stage.setScene(scene);
             stage.setMinWidth(300);
             stage.setMinHeight(400);
-            fxmlLoader.<MainWindow>getController().setPallo(pallo);
+            mainWindow = fxmlLoader.<MainWindow>getController();
+            mainWindow.setPallo(pallo);
             stage.show();
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Runs the commands still queued when the window closed, before the application exits.
+     */
+    @Override
+    public void stop() {
+        if (mainWindow != null) {
+            mainWindow.close();
+        }
+    }
 }
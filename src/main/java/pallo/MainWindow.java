@@ -1,34 +1,51 @@
 package pallo;
 
+import java.util.concurrent.TimeUnit;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.VBox;
+import javafx.util.Duration;
 
 /**
  * Controller for the main GUI.
+ * The dialog history is a ListView, which only creates nodes for the messages on
+ * screen, so a long session stays as responsive as a short one.
+ *
+ * <p>Commands run on a background thread, one at a time and in the order they were
+ * typed, so a slow command never freezes the window. Each reply takes the place
+ * reserved for it right after its input, however long it takes to arrive.
  */
 public class MainWindow extends AnchorPane {
+    private static final Duration PROGRESS_DELAY = Duration.millis(200);
+    private static final long DRAIN_TIMEOUT_SECONDS = 30;
+
     @FXML
-    private ScrollPane scrollPane;
-    @FXML
-    private VBox dialogContainer;
+    private ListView<DialogMessage> dialogList;
     @FXML
     private TextField userInput;
     @FXML
     private Button sendButton;
 
     private Pallo pallo;
+    private final ObservableList<DialogMessage> messages = FXCollections.observableArrayList();
+    private final CommandQueue commandQueue = new CommandQueue("pallo-commands");
 
     private Image userImage = new Image(this.getClass().getResourceAsStream("/images/DaUser.png"));
     private Image palloImage = new Image(this.getClass().getResourceAsStream("/images/DaPallo.png"));
 
     @FXML
     public void initialize() {
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
+        dialogList.setItems(messages);
+        dialogList.setCellFactory(list -> new DialogCell(userImage, palloImage));
+        dialogList.setFocusTraversable(false);
     }
 
     /** Injects the Pallo instance. */
@@ -37,18 +54,50 @@ public class MainWindow extends AnchorPane {
     }
 
     /**
-     * Creates two dialog boxes, one echoing user input and the other containing
-     * Pallo's reply and then appends them to the dialog container. Clears the
-     * user input after processing.
+     * Adds two messages to the dialog history, one echoing user input and the other
+     * holding the place of Pallo's reply, and queues the command. The reply replaces the
+     * placeholder when it arrives, and a progress indicator is shown if it takes longer
+     * than {@link #PROGRESS_DELAY}. Clears the user input straight away.
      */
     @FXML
     private void handleUserInput() {
         String input = userInput.getText();
-        String response = pallo.getResponse(input);
-        dialogContainer.getChildren().addAll(
-                DialogBox.getUserDialog(input, userImage),
-                DialogBox.getPalloDialog(response, palloImage)
-        );
+        messages.add(DialogMessage.fromUser(input));
+        int replyIndex = messages.size();
+        messages.add(DialogMessage.pending());
+        dialogList.scrollTo(replyIndex);
         userInput.clear();
+
+        PauseTransition progressDelay = new PauseTransition(PROGRESS_DELAY);
+        progressDelay.setOnFinished(event -> {
+            if (messages.get(replyIndex).isPending()) {
+                messages.set(replyIndex, DialogMessage.inProgress());
+            }
+        });
+        progressDelay.play();
+
+        commandQueue.submit(() -> pallo.getDialogReply(input))
+                .exceptionally(e -> DialogMessage.fromPallo("OH NO!!! Something went wrong: " + e.getMessage()))
+                .thenAccept(reply -> Platform.runLater(() -> {
+                    progressDelay.stop();
+                    messages.set(replyIndex, reply);
+                    if (replyIndex == messages.size() - 1) {
+                        dialogList.scrollTo(replyIndex);
+                    }
+                }));
+    }
+
+    /**
+     * Waits for the commands still queued to run, so that closing the window does not
+     * drop them. Their replies are no longer shown.
+     */
+    public void close() {
+        try {
+            if (!commandQueue.drain(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("Warning: Some commands were still running when Pallo closed.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 }
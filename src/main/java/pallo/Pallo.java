@@ -1,14 +1,30 @@
 package pallo;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.List;
 
 import pallo.command.Command;
 import pallo.command.CommandType;
+import pallo.command.ListRange;
 import pallo.command.Parser;
 import pallo.exception.PalloException;
+import pallo.metrics.CommandEvent;
+import pallo.metrics.Metrics;
+import pallo.server.PalloServer;
+import pallo.storage.BackgroundSaver;
+import pallo.storage.Durability;
+import pallo.storage.JournalEntry;
 import pallo.storage.Storage;
+import pallo.storage.StorageFormat;
+import pallo.task.ConcurrentTaskList;
 import pallo.task.Deadline;
 import pallo.task.Event;
+import pallo.task.StringPool;
 import pallo.task.Task;
 import pallo.task.TaskList;
 import pallo.task.Todo;
@@ -21,9 +37,21 @@ import pallo.ui.Ui;
  */
 public class Pallo {
     private static final String DEFAULT_FILE_PATH = "data/pallo.txt";
+    private static final String PROPERTY_JOURNAL = "pallo.journal";
+    private static final String PROPERTY_DURABILITY = "pallo.durability";
+    private static final String PROPERTY_FORMAT = "pallo.format";
+    private static final String PROPERTY_LAZY_LOAD = "pallo.lazyload";
+    private static final String PROPERTY_SAVE_INTERVAL = "pallo.saveinterval";
+    private static final String PROPERTY_INCREMENTAL = "pallo.incremental";
+    private static final String PROPERTY_COLUMNAR = "pallo.columnar";
+    private static final String PROPERTY_HTTP_NO_DELAY = "sun.net.httpserver.nodelay";
+    private static final String OPTION_BATCH = "--batch";
+    private static final String OPTION_SERVER = "--server";
     private Storage storage;
     private TaskList tasks;
     private Ui ui;
+    private TaskList.Snapshot batchSnapshot;
+    private BackgroundSaver backgroundSaver;
 
     /**
      * Constructs a new Pallo application instance with the default file path.
@@ -35,17 +63,60 @@ public class Pallo {
     /**
      * Constructs a new Pallo application instance.
      * Initializes the UI, storage, and loads existing tasks from the specified file.
+     * Journal mode is enabled with the {@code pallo.journal} system property, and the
+     * {@code pallo.durability} property selects none, flush or fsync saves. The
+     * {@code pallo.format} property selects the text or binary format for saves, and
+     * {@code pallo.lazyload} memory-maps the file and decodes tasks on first access.
+     * Setting {@code pallo.saveinterval} to a number of milliseconds moves saving to a
+     * background thread that writes at most once per interval and flushes on exit.
+     * With {@code pallo.incremental}, each change rewrites only the records it affects,
+     * and {@code pallo.columnar} keeps tasks in compact columns, for very large lists.
+     * Files written before tasks had IDs are saved again straight after loading, so the
+     * IDs given to their tasks stay the same from then on.
      *
      * @param filePath The path to the file where tasks are stored.
      */
     public Pallo(String filePath) {
+        this(filePath, false);
+    }
+
+    /**
+     * Constructs a new Pallo application instance, as {@link #Pallo(String)} does.
+     * A shared instance keeps its tasks in a {@link ConcurrentTaskList}, so that
+     * {@link #readTasks} never waits for commands, e.g. when serving other tools.
+     * Shared instances always load eagerly.
+     *
+     * @param filePath The path to the file where tasks are stored.
+     * @param isShared Whether the tasks will be read by several threads at once.
+     */
+    public Pallo(String filePath, boolean isShared) {
         ui = new Ui();
-        storage = new Storage(filePath);
+        storage = new Storage(filePath, Boolean.getBoolean(PROPERTY_JOURNAL));
+        storage.setDurability(Durability.fromName(System.getProperty(PROPERTY_DURABILITY), Durability.FSYNC));
+        storage.setFormat(StorageFormat.fromName(System.getProperty(PROPERTY_FORMAT), StorageFormat.TEXT));
+        storage.setIncrementalSaves(Boolean.getBoolean(PROPERTY_INCREMENTAL));
         try {
-            tasks = new TaskList(storage.load());
+            if (isShared) {
+                tasks = new ConcurrentTaskList(storage.load());
+            } else if (Boolean.getBoolean(PROPERTY_COLUMNAR)) {
+                tasks = TaskList.columnar(storage.load());
+            } else if (Boolean.getBoolean(PROPERTY_LAZY_LOAD)) {
+                tasks = TaskList.backedBy(storage.loadLazily());
+            } else {
+                tasks = new TaskList(storage.load());
+            }
         } catch (PalloException e) {
             ui.showLoadingError();
-            tasks = new TaskList();
+            tasks = isShared ? new ConcurrentTaskList() : new TaskList();
+        }
+        if (tasks.hasAssignedMissingIds()) {
+            persistTasks();
+        }
+
+        long saveInterval = Long.getLong(PROPERTY_SAVE_INTERVAL, 0);
+        if (saveInterval > 0) {
+            backgroundSaver = new BackgroundSaver(storage, this, this::copyTasks, saveInterval);
+            Runtime.getRuntime().addShutdownHook(new Thread(backgroundSaver::close, "pallo-save-on-exit"));
         }
     }
 
@@ -63,52 +134,77 @@ public class Pallo {
                 Command command = Parser.parseCommand(input);
 
                 if (command.getType() == CommandType.BYE) {
+                    if (isInBatch()) {
+                        ui.showError(discardBatch());
+                    }
                     persistTasks();
                     ui.showGoodbye();
                     break;
                 }
 
+                if (command.getType() == CommandType.LIST) {
+                    showTaskList(command);
+                    continue;
+                }
                 String response = executeCommand(command);
                 ui.showMessage(response);
             } catch (PalloException e) {
-                ui.showError(e.getMessage());
+                ui.showError(abortBatch(e.getMessage()));
             }
         }
 
         ui.close();
     }
 
-    private String executeCommand(Command command) throws PalloException {
-        boolean shouldSave = false;
+    /**
+     * Executes a command, timing it by type. Holds the lock on this Pallo, so that
+     * background saves never snapshot the tasks halfway through a change.
+     */
+    private synchronized String executeCommand(Command command) throws PalloException {
+        long start = Metrics.startTimer();
+        CommandEvent event = new CommandEvent();
+        event.begin();
+        boolean isSuccessful = false;
+        try {
+            String response = dispatchCommand(command);
+            isSuccessful = true;
+            return response;
+        } finally {
+            finishTiming(command, start, event, isSuccessful);
+        }
+    }
+
+    /**
+     * Records how long a command took, in the metrics and for Flight Recorder.
+     */
+    private static void finishTiming(Command command, long startNanos, CommandEvent event, boolean isSuccessful) {
+        Metrics.forCommand(command.getType()).recordSince(startNanos);
+        if (event.shouldCommit()) {
+            event.describe(command, isSuccessful);
+            event.commit();
+        }
+    }
+
+    private String dispatchCommand(Command command) throws PalloException {
         String response;
 
         switch (command.getType()) {
         case LIST:
-            response = handleListCommand();
+            response = handleListCommand(command);
             break;
         case MARK:
             response = handleMarkCommand(command);
-            shouldSave = true;
             break;
         case UNMARK:
             response = handleUnmarkCommand(command);
-            shouldSave = true;
             break;
         case DELETE:
             response = handleDeleteCommand(command);
-            shouldSave = true;
             break;
         case TODO:
-            response = handleTodoCommand(command);
-            shouldSave = true;
-            break;
         case DEADLINE:
-            response = handleDeadlineCommand(command);
-            shouldSave = true;
-            break;
         case EVENT:
-            response = handleEventCommand(command);
-            shouldSave = true;
+            response = handleAddCommand(command);
             break;
         case FIND:
             response = handleFindCommand(command);
@@ -116,74 +212,245 @@ public class Pallo {
         case REMIND:
             response = handleRemindCommand();
             break;
+        case BEGIN:
+            response = handleBeginCommand();
+            break;
+        case COMMIT:
+            response = handleCommitCommand();
+            break;
+        case ROLLBACK:
+            response = handleRollbackCommand();
+            break;
+        case STATS:
+            response = Metrics.report() + "\n" + StringPool.shared().report();
+            break;
         default:
             throw new PalloException("OH NO!!! I'm sorry, but I don't know what that means :-(");
         }
 
-        if (shouldSave) {
-            persistTasks();
-        }
-
         return response;
     }
 
-    private String handleListCommand() throws PalloException {
-        StringBuilder response = new StringBuilder("Here are the tasks in your list:");
+    /**
+     * Writes the requested tasks straight to the console, without building the reply
+     * as a string first.
+     */
+    private synchronized void showTaskList(Command command) throws PalloException {
+        long start = Metrics.startTimer();
+        CommandEvent event = new CommandEvent();
+        event.begin();
+        boolean isSuccessful = false;
+        try {
+            ListRange range = command.getListRangeArgument();
+            checkListRange(range);
+            ui.showTaskList(tasks, range);
+            isSuccessful = true;
+        } finally {
+            finishTiming(command, start, event, isSuccessful);
+        }
+    }
+
+    private String handleListCommand(Command command) throws PalloException {
+        ListRange range = command.getListRangeArgument();
+        checkListRange(range);
         if (tasks.isEmpty()) {
-            response.append("\nNo tasks stored yet.");
-        } else {
-            for (int i = 0; i < tasks.size(); i++) {
-                response.append("\n" + (i + 1) + "." + tasks.getTask(i));
-            }
+            return "Here are the tasks in your list:\nNo tasks stored yet.";
+        }
+
+        int start = range == null ? 0 : range.getFrom() - 1;
+        int end = range == null ? tasks.size() : range.getEndIndex(tasks.size());
+        List<Task> shown = tasks.getTasks(start, end);
+        StringBuilder response = new StringBuilder(32 + shown.size() * 48);
+        response.append(describeListing(range, end));
+        for (int i = 0; i < shown.size(); i++) {
+            response.append('\n').append(start + i + 1).append('.').append(shown.get(i));
         }
         return response.toString();
     }
 
+    /**
+     * Replies to a list command with the listed tasks themselves, for the GUI to draw as rows.
+     * The command is timed like any other.
+     */
+    private synchronized DialogMessage listTasks(Command command) throws PalloException {
+        long startNanos = Metrics.startTimer();
+        CommandEvent event = new CommandEvent();
+        event.begin();
+        boolean isSuccessful = false;
+        try {
+            DialogMessage reply;
+            if (tasks.isEmpty()) {
+                reply = DialogMessage.fromPallo(handleListCommand(command));
+            } else {
+                ListRange range = command.getListRangeArgument();
+                checkListRange(range);
+                int start = range == null ? 0 : range.getFrom() - 1;
+                int end = range == null ? tasks.size() : range.getEndIndex(tasks.size());
+                reply = DialogMessage.listing(describeListing(range, end), tasks.getTasks(start, end), start + 1);
+            }
+            isSuccessful = true;
+            return reply;
+        } finally {
+            finishTiming(command, startNanos, event, isSuccessful);
+        }
+    }
+
+    /**
+     * Returns the line that introduces a listing, which gives the range shown if there is one.
+     */
+    private String describeListing(ListRange range, int end) {
+        if (range == null) {
+            return "Here are the tasks in your list:";
+        }
+        return "Here are tasks " + range.getFrom() + "-" + end + " of " + tasks.size() + " in your list:";
+    }
+
+    private void checkListRange(ListRange range) throws PalloException {
+        if (range != null && !tasks.isEmpty() && range.getFrom() > tasks.size()) {
+            throw new PalloException("OH NO!!! There are only " + tasks.size() + " tasks in the list.");
+        }
+    }
+
     private String handleMarkCommand(Command command) throws PalloException {
-        int taskNumber = Parser.parseTaskNumber(command.getStringArgument());
-        Task task = tasks.getTask(taskNumber - 1);
-        task.markAsDone();
-        return "Nice! I've marked this task as done:\n  " + task;
+        return "Nice! I've marked this task as done:\n  " + markTask(command, true);
     }
 
     private String handleUnmarkCommand(Command command) throws PalloException {
-        int taskNumber = Parser.parseTaskNumber(command.getStringArgument());
-        Task task = tasks.getTask(taskNumber - 1);
-        task.markAsNotDone();
-        return "OK, I've marked this task as not done yet:\n  " + task;
+        return "OK, I've marked this task as not done yet:\n  " + markTask(command, false);
     }
 
     private String handleDeleteCommand(Command command) throws PalloException {
-        int taskNumber = Parser.parseTaskNumber(command.getStringArgument());
-        Task removedTask = tasks.removeTask(taskNumber - 1);
+        Task removedTask = deleteTask(command);
         return "Noted. I've removed this task:\n  " + removedTask
                 + "\nNow you have " + tasks.size() + " tasks in the list.";
     }
 
-    private String handleTodoCommand(Command command) throws PalloException {
-        String description = command.getStringArgument();
-        Task newTask = new Todo(description);
-        tasks.addTask(newTask);
+    private String handleAddCommand(Command command) throws PalloException {
+        Task newTask = addTask(createTask(command));
         return "Got it. I've added this task:\n  " + newTask
                 + "\nNow you have " + tasks.size() + " tasks in the list.";
     }
 
-    private String handleDeadlineCommand(Command command) throws PalloException {
-        String[] parts = command.getStringArrayArgument();
-        assert parts.length == 2 : "Deadline command should have exactly 2 parts";
-        Task newTask = new Deadline(parts[0], parts[1]);
-        tasks.addTask(newTask);
-        return "Got it. I've added this task:\n  " + newTask
-                + "\nNow you have " + tasks.size() + " tasks in the list.";
+    /**
+     * Runs a command that adds, marks, unmarks or deletes one task, and returns that task
+     * instead of a reply, for callers that present tasks themselves.
+     *
+     * @param command The command to run.
+     * @return The task that was added, changed or removed.
+     * @throws PalloException If the command fails, or does not act on a single task.
+     */
+    public synchronized Task executeForTask(Command command) throws PalloException {
+        long start = Metrics.startTimer();
+        CommandEvent event = new CommandEvent();
+        event.begin();
+        boolean isSuccessful = false;
+        try {
+            Task task = dispatchForTask(command);
+            isSuccessful = true;
+            return task;
+        } finally {
+            finishTiming(command, start, event, isSuccessful);
+        }
+    }
+
+    private Task dispatchForTask(Command command) throws PalloException {
+        switch (command.getType()) {
+        case MARK:
+            return markTask(command, true);
+        case UNMARK:
+            return markTask(command, false);
+        case DELETE:
+            return deleteTask(command);
+        case TODO:
+        case DEADLINE:
+        case EVENT:
+            return addTask(createTask(command));
+        default:
+            throw new PalloException("OH NO!!! That command does not act on a single task.");
+        }
+    }
+
+    /**
+     * A read-only query over the task list.
+     *
+     * @param <T> The type of the query's result.
+     */
+    public interface TaskQuery<T> {
+        T apply(TaskList tasks) throws PalloException;
+    }
+
+    /**
+     * Runs a read-only query over the task list. On a shared instance the query runs
+     * without locking, on whichever version of the list is current; otherwise it waits
+     * for any running command to finish. The query must not change the list.
+     *
+     * @param query The query to run.
+     * @param <T>   The type of the query's result.
+     * @return The query's result.
+     * @throws PalloException If the query fails.
+     */
+    public <T> T readTasks(TaskQuery<T> query) throws PalloException {
+        if (tasks instanceof ConcurrentTaskList) {
+            return query.apply(tasks);
+        }
+        synchronized (this) {
+            return query.apply(tasks);
+        }
     }
 
-    private String handleEventCommand(Command command) throws PalloException {
-        String[] parts = command.getStringArrayArgument();
-        assert parts.length == 3 : "Event command should have exactly 3 parts";
-        Task newTask = new Event(parts[0], parts[1], parts[2]);
+    private Task markTask(Command command, boolean isDone) throws PalloException {
+        int index = resolveTaskIndex(command);
+        Task task = tasks.getTask(index);
+        if (isDone) {
+            task.markAsDone();
+            persistChange(JournalEntry.mark(index));
+        } else {
+            task.markAsNotDone();
+            persistChange(JournalEntry.unmark(index));
+        }
+        return task;
+    }
+
+    private Task deleteTask(Command command) throws PalloException {
+        int index = resolveTaskIndex(command);
+        Task removedTask = tasks.removeTask(index);
+        persistChange(JournalEntry.delete(index));
+        return removedTask;
+    }
+
+    private Task addTask(Task newTask) {
         tasks.addTask(newTask);
-        return "Got it. I've added this task:\n  " + newTask
-                + "\nNow you have " + tasks.size() + " tasks in the list.";
+        persistChange(JournalEntry.add(newTask));
+        return newTask;
+    }
+
+    private static Task createTask(Command command) {
+        switch (command.getType()) {
+        case DEADLINE:
+            String[] deadlineParts = command.getStringArrayArgument();
+            assert deadlineParts.length == 2 : "Deadline command should have exactly 2 parts";
+            return new Deadline(deadlineParts[0], deadlineParts[1]);
+        case EVENT:
+            String[] eventParts = command.getStringArrayArgument();
+            assert eventParts.length == 3 : "Event command should have exactly 3 parts";
+            return new Event(eventParts[0], eventParts[1], eventParts[2]);
+        default:
+            assert command.getType() == CommandType.TODO : "Only todo, deadline and event commands create tasks";
+            return new Todo(command.getStringArgument());
+        }
+    }
+
+    /**
+     * Returns the current position of the task a command refers to, either by its
+     * number in the list or, as in {@code mark #12}, by its ID. The journal records
+     * positions, so ID commands are resolved to one before they are applied.
+     */
+    private int resolveTaskIndex(Command command) throws PalloException {
+        String argument = command.getStringArgument();
+        if (Parser.isTaskId(argument)) {
+            return tasks.indexOf(tasks.getTaskById(Parser.parseTaskId(argument)));
+        }
+        return Parser.parseTaskNumber(argument) - 1;
     }
 
     private String handleRemindCommand() {
@@ -213,9 +480,122 @@ public class Pallo {
         return response.toString();
     }
 
+    private String handleBeginCommand() throws PalloException {
+        if (isInBatch()) {
+            throw new PalloException("OH NO!!! A batch is already in progress. Use commit or rollback to end it.");
+        }
+        batchSnapshot = tasks.createSnapshot();
+        return "Batch started. Your changes will be saved together when you commit.";
+    }
+
+    private synchronized String handleCommitCommand() throws PalloException {
+        if (!isInBatch()) {
+            throw new PalloException("OH NO!!! There is no batch to commit. Use begin to start one.");
+        }
+        TaskList.Snapshot snapshot = batchSnapshot;
+        batchSnapshot = null; // So that the save below writes the batch's changes
+        try {
+            saveAllTasks();
+        } catch (PalloException e) {
+            batchSnapshot = snapshot;
+            throw new PalloException("OH NO!!! Failed to save the batch: " + e.getMessage()
+                    + "\nThe batch is still open, so you can commit again or roll back.");
+        }
+        return "Batch committed. All changes have been saved.";
+    }
+
+    private String handleRollbackCommand() throws PalloException {
+        if (!isInBatch()) {
+            throw new PalloException("OH NO!!! There is no batch to roll back.");
+        }
+        return discardBatch();
+    }
+
+    private boolean isInBatch() {
+        return batchSnapshot != null;
+    }
+
+    /**
+     * Restores the tasks to how they were when the batch began and ends the batch.
+     */
+    private synchronized String discardBatch() {
+        tasks.restore(batchSnapshot);
+        batchSnapshot = null;
+        if (backgroundSaver != null) {
+            // Changes made before the batch may still be waiting for their save
+            backgroundSaver.markDirty();
+        }
+        return "The batch was rolled back. None of its changes were saved.";
+    }
+
+    /**
+     * Ends the open batch, if any, after a command in it failed, so a batch is applied all or nothing.
+     *
+     * @param errorMessage The message of the failed command.
+     * @return The message to show, noting the rollback if there was one.
+     */
+    private String abortBatch(String errorMessage) {
+        if (!isInBatch()) {
+            return errorMessage;
+        }
+        return errorMessage + "\n" + discardBatch();
+    }
+
     private void persistTasks() {
         try {
-            storage.save(tasks.getAllTasks());
+            saveAllTasks();
+        } catch (PalloException e) {
+            ui.showError("Failed to save tasks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Saves every task now, through the background saver if there is one so that
+     * saves never overlap.
+     */
+    private void saveAllTasks() throws PalloException {
+        if (backgroundSaver != null) {
+            backgroundSaver.flush();
+        } else {
+            storage.save(tasks.viewAllTasks());
+        }
+    }
+
+    /**
+     * Returns detached copies of the tasks for the background saver. While a batch is
+     * open, these are the tasks as they were when it began, so that no save writes
+     * changes that the batch may still roll back.
+     */
+    private synchronized List<Task> copyTasks() {
+        if (isInBatch()) {
+            return batchSnapshot.copyTasks();
+        }
+        List<Task> copies = new ArrayList<>(tasks.size());
+        for (Task task : tasks.getAllTasks()) {
+            copies.add(task.copy());
+        }
+        return copies;
+    }
+
+    /**
+     * Returns the saver that writes tasks in the background, if background saving is enabled.
+     *
+     * @return The background saver, or null if tasks are saved as each command runs.
+     */
+    public BackgroundSaver getBackgroundSaver() {
+        return backgroundSaver;
+    }
+
+    private void persistChange(JournalEntry change) {
+        if (isInBatch()) {
+            return; // Saved all at once when the batch is committed
+        }
+        if (backgroundSaver != null) {
+            backgroundSaver.markDirty();
+            return;
+        }
+        try {
+            storage.persist(change, tasks::viewAllTasks);
         } catch (PalloException e) {
             ui.showError("Failed to save tasks: " + e.getMessage());
         }
@@ -228,24 +608,131 @@ public class Pallo {
      * @return The response string from Pallo.
      */
     public String getResponse(String input) {
+        try {
+            return respondTo(Parser.parseCommand(input));
+        } catch (PalloException e) {
+            return abortBatch(e.getMessage());
+        }
+    }
+
+    /**
+     * Generates the GUI's reply to the user's chat message. This is the reply of
+     * {@link #getResponse(String)}, except that tasks listed by a list command are kept
+     * as tasks rather than text, so the dialog can show them in a table.
+     *
+     * @param input The user's input string.
+     * @return The reply to show in the dialog.
+     */
+    public DialogMessage getDialogReply(String input) {
         try {
             Command command = Parser.parseCommand(input);
-            if (command.getType() == CommandType.BYE) {
-                persistTasks();
-                return "Bye. I will miss you!";
+            if (command.getType() == CommandType.LIST) {
+                return listTasks(command);
+            }
+            return DialogMessage.fromPallo(respondTo(command));
+        } catch (PalloException e) {
+            return DialogMessage.fromPallo(abortBatch(e.getMessage()));
+        }
+    }
+
+    private String respondTo(Command command) throws PalloException {
+        if (command.getType() == CommandType.BYE) {
+            String discarded = isInBatch() ? discardBatch() + "\n" : "";
+            persistTasks();
+            return discarded + "Bye. I will miss you!";
+        }
+        return executeCommand(command);
+    }
+
+    /**
+     * Runs every command in a script as a single batch, saving once at the end.
+     * Blank lines are skipped and a bye command ends the script early. If any
+     * command fails, every change made by the script is rolled back and nothing is saved.
+     *
+     * @param scriptPath The path of the script, with one command per line.
+     * @return Whether the whole script succeeded and was saved.
+     */
+    public boolean runBatch(Path scriptPath) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(scriptPath, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            ui.showError("OH NO!!! Failed to read the batch file: " + e.getMessage());
+            return false;
+        }
+
+        synchronized (this) {
+            batchSnapshot = tasks.createSnapshot();
+        }
+        for (int i = 0; i < lines.size(); i++) {
+            if (lines.get(i).isBlank()) {
+                continue;
             }
-            return executeCommand(command);
+            try {
+                Command command = Parser.parseCommand(lines.get(i));
+                if (command.getType() == CommandType.BYE) {
+                    break;
+                }
+                if (command.getType() == CommandType.BEGIN || command.getType() == CommandType.COMMIT
+                        || command.getType() == CommandType.ROLLBACK) {
+                    throw new PalloException("OH NO!!! Batch files cannot begin, commit or roll back batches.");
+                }
+                ui.showMessage(executeCommand(command));
+            } catch (PalloException e) {
+                ui.showError("Line " + (i + 1) + ": " + abortBatch(e.getMessage()));
+                return false;
+            }
+        }
+
+        try {
+            ui.showMessage(handleCommitCommand());
+            return true;
         } catch (PalloException e) {
-            return e.getMessage();
+            ui.showError(abortBatch(e.getMessage()));
+            return false;
         }
     }
 
     /**
      * Main entry point for the Pallo application.
+     * With {@code --batch <file>}, runs the commands in the file as one batch and
+     * exits with a non-zero status if it was rolled back. With {@code --server <port>},
+     * serves the tasks as a JSON API on the loopback interface until stopped.
      *
-     * @param args Command line arguments (not used).
+     * @param args Command line arguments: none, {@code --batch <file>} or {@code --server <port>}.
      */
     public static void main(String[] args) {
+        if (args.length == 2 && args[0].equals(OPTION_SERVER)) {
+            runServer(args[1]);
+            return;
+        }
+        if (args.length == 2 && args[0].equals(OPTION_BATCH)) {
+            boolean isSaved = new Pallo(DEFAULT_FILE_PATH).runBatch(Paths.get(args[1]));
+            if (!isSaved) {
+                System.exit(1);
+            }
+            return;
+        }
         new Pallo(DEFAULT_FILE_PATH).run();
     }
+
+    private static void runServer(String portArgument) {
+        // Read once by the JDK's HTTP server, when it creates its first server
+        if (System.getProperty(PROPERTY_HTTP_NO_DELAY) == null) {
+            System.setProperty(PROPERTY_HTTP_NO_DELAY, "true");
+        }
+        try {
+            PalloServer server = new PalloServer(new Pallo(DEFAULT_FILE_PATH, true), Integer.parseInt(portArgument),
+                    PalloServer.DEFAULT_REQUEST_THREADS);
+            Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "pallo-server-stop"));
+            server.start();
+            System.out.println("Pallo is serving your tasks at http://localhost:" + server.getPort() + "/tasks");
+        } catch (NumberFormatException e) {
+            System.err.println("OH NO!!! The port must be a number.");
+            System.exit(1);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("OH NO!!! Pallo could not start serving: " + e.getMessage());
+            System.exit(1);
+        }
+    }
 }
@@ -0,0 +1,71 @@
+package pallo;
+
+import java.util.List;
+
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.FXCollections;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+
+import pallo.task.Task;
+
+/**
+ * A table of tasks in the dialog history. Like any TableView it only creates cells
+ * for the rows on screen, so listing a huge task list costs no more than a short one.
+ */
+public class TaskTable extends TableView<Task> {
+    private static final double ROW_HEIGHT = 24;
+    private static final double HEADER_HEIGHT = 28;
+    private static final int MAX_VISIBLE_ROWS = 12;
+
+    private int firstTaskNumber = 1;
+
+    /**
+     * Constructs an empty table with number, ID and task columns.
+     */
+    public TaskTable() {
+        TableColumn<Task, Void> numberColumn = new TableColumn<>("No.");
+        numberColumn.setSortable(false);
+        numberColumn.setPrefWidth(56);
+        numberColumn.setCellFactory(column -> new TableCell<>() {
+            @Override
+            protected void updateItem(Void item, boolean isEmpty) {
+                super.updateItem(item, isEmpty);
+                setText(isEmpty ? null : Integer.toString(firstTaskNumber + getIndex()));
+            }
+        });
+
+        TableColumn<Task, Long> idColumn = new TableColumn<>("ID");
+        idColumn.setSortable(false);
+        idColumn.setPrefWidth(56);
+        idColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getId()));
+
+        TableColumn<Task, String> taskColumn = new TableColumn<>("Task");
+        taskColumn.setSortable(false);
+        taskColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().toString()));
+
+        getColumns().add(numberColumn);
+        getColumns().add(idColumn);
+        getColumns().add(taskColumn);
+        setColumnResizePolicy(CONSTRAINED_RESIZE_POLICY);
+        setFixedCellSize(ROW_HEIGHT);
+        getStyleClass().add("task-table");
+    }
+
+    /**
+     * Shows the given tasks, numbered from the given list number.
+     *
+     * @param tasks           The tasks to show.
+     * @param firstTaskNumber The list number of the first task.
+     */
+    public void showTasks(List<Task> tasks, int firstTaskNumber) {
+        this.firstTaskNumber = firstTaskNumber;
+        setItems(FXCollections.observableList(tasks));
+        double height = HEADER_HEIGHT + Math.min(tasks.size(), MAX_VISIBLE_ROWS) * ROW_HEIGHT + 2;
+        setMinHeight(height);
+        setPrefHeight(height);
+        setMaxHeight(height);
+        refresh();
+    }
+}
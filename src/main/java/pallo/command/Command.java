@@ -47,6 +47,15 @@ public class Command {
         return (String) argument;
     }
 
+    /**
+     * Returns the argument as a ListRange.
+     *
+     * @return The argument cast to ListRange, or null if the whole list was asked for.
+     */
+    public ListRange getListRangeArgument() {
+        return (ListRange) argument;
+    }
+
     /**
      * Returns the argument as a String array.
      *
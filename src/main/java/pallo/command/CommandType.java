@@ -2,17 +2,32 @@ package pallo.command;
 
 /**
  * Enumeration of all supported command types in the Pallo application.
- * Each command type corresponds to a specific action the user can perform.
+ * Each command type corresponds to a specific action the user can perform,
+ * and is invoked by typing its lowercase keyword as the first word of the input.
  */
 public enum CommandType {
-    BYE,
-    LIST,
-    MARK,
-    UNMARK,
-    DELETE,
-    TODO,
-    DEADLINE,
-    EVENT,
-    FIND,
-    REMIND
+    BYE("bye"),
+    LIST("list"),
+    MARK("mark"),
+    UNMARK("unmark"),
+    DELETE("delete"),
+    TODO("todo"),
+    DEADLINE("deadline"),
+    EVENT("event"),
+    FIND("find"),
+    REMIND("remind"),
+    BEGIN("begin"),
+    COMMIT("commit"),
+    ROLLBACK("rollback"),
+    STATS("stats");
+
+    private final String keyword;
+
+    CommandType(String keyword) {
+        this.keyword = keyword;
+    }
+
+    public String getKeyword() {
+        return keyword;
+    }
 }
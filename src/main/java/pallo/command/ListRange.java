@@ -0,0 +1,56 @@
+package pallo.command;
+
+/**
+ * The part of the task list that a list command asks for, given as the number of
+ * the first task to show and the most tasks to show from there.
+ */
+public class ListRange {
+    /** The number of tasks on each page of {@code list <page>}. */
+    public static final int PAGE_SIZE = 20;
+
+    private final int from;
+    private final int limit;
+
+    /**
+     * Constructs a range of tasks.
+     *
+     * @param from  The number of the first task to show, counting from 1.
+     * @param limit The most tasks to show.
+     */
+    public ListRange(int from, int limit) {
+        assert from > 0 : "First task number should be positive";
+        assert limit > 0 : "Limit should be positive";
+        this.from = from;
+        this.limit = limit;
+    }
+
+    /**
+     * Returns the range of tasks on the given page.
+     *
+     * @param page The page number, counting from 1.
+     * @return The tasks on that page.
+     */
+    public static ListRange ofPage(int page) {
+        assert page > 0 : "Page number should be positive";
+        long from = (long) (page - 1) * PAGE_SIZE + 1;
+        return new ListRange((int) Math.min(from, Integer.MAX_VALUE), PAGE_SIZE);
+    }
+
+    public int getFrom() {
+        return from;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the position just past the last task in range, for a list of the given size.
+     *
+     * @param size The number of tasks in the list.
+     * @return The exclusive zero-based end of the range.
+     */
+    public int getEndIndex(int size) {
+        return (int) Math.min(size, (long) from - 1 + limit);
+    }
+}
@@ -1,125 +1,333 @@
 package pallo.command;
 
+import java.time.DateTimeException;
+import java.util.Arrays;
+
 import pallo.exception.PalloException;
+import pallo.metrics.Metrics;
+import pallo.metrics.ParseEvent;
+import pallo.storage.DateParser;
+import pallo.task.StringPool;
 
 /**
  * Parses user input strings into Command objects.
- * Handles all command formats including simple commands (bye, list) and
- * commands with arguments (todo, deadline, event, mark, unmark, delete).
+ * Handles all command formats including simple commands (bye, list, begin, commit) and
+ * commands with arguments (todo, deadline, event, mark, unmark, delete), including a list
+ * restricted to a page or range of tasks.
  */
 public class Parser {
-    private static final String COMMAND_TODO = "todo";
-    private static final String COMMAND_DEADLINE = "deadline";
-    private static final String COMMAND_EVENT = "event";
-    private static final String COMMAND_MARK = "mark";
-    private static final String COMMAND_UNMARK = "unmark";
-    private static final String COMMAND_DELETE = "delete";
-    private static final String COMMAND_LIST = "list";
-    private static final String COMMAND_BYE = "bye";
-    private static final String COMMAND_FIND = "find";
-    private static final String COMMAND_REMIND = "remind";
-
     private static final String DELIMITER_BY = " /by ";
     private static final String DELIMITER_FROM = " /from ";
     private static final String DELIMITER_TO = " /to ";
+    private static final String TASK_ID_MARKER = "#";
+    private static final String OPTION_FROM = "--from";
+    private static final String OPTION_LIMIT = "--limit";
+    private static final String MESSAGE_LIST_FORMAT =
+            "OH NO!!! Please use the format: list <page> or list --from <number> --limit <count>";
+    private static final String MESSAGE_UNKNOWN = "OH NO!!! I'm sorry, but I don't know what that means :-(";
+    private static final String MESSAGE_EMPTY_TODO = "OH NO!!! The description of a todo cannot be empty.";
+
+    /** Command types grouped by the first letter of their keyword, so a lookup checks one or two keywords. */
+    private static final CommandType[][] COMMANDS_BY_INITIAL = groupByInitial();
+
+    private static CommandType[][] groupByInitial() {
+        CommandType[][] groups = new CommandType['z' - 'a' + 1][0];
+        for (CommandType type : CommandType.values()) {
+            int initial = type.getKeyword().charAt(0) - 'a';
+            CommandType[] group = groups[initial];
+            groups[initial] = Arrays.copyOf(group, group.length + 1);
+            groups[initial][group.length] = type;
+        }
+        return groups;
+    }
 
     /**
      * Parses a user input string into a Command object.
+     * Only the first word is matched, case-insensitively, against the command keywords;
+     * the rest of the input is handed to the argument parsers as offsets, so no part of it
+     * is copied until the arguments themselves are extracted.
      *
      * @param input The raw user input string.
      * @return A Command object representing the parsed command.
      * @throws PalloException If the input is invalid or cannot be parsed.
      */
     public static Command parseCommand(String input) throws PalloException {
-        String trimmedInput = input.trim();
-        String lowerInput = trimmedInput.toLowerCase();
+        long startNanos = Metrics.startTimer();
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        Command command = null;
+        try {
+            command = parse(input);
+            return command;
+        } finally {
+            Metrics.PARSE.recordSince(startNanos);
+            if (event.shouldCommit()) {
+                event.describe(input, command);
+                event.commit();
+            }
+        }
+    }
+
+    private static Command parse(String input) throws PalloException {
+        int start = skipWhitespace(input, 0, input.length());
+        int end = trimEnd(input, start, input.length());
+        if (start == end) {
+            throw new PalloException(MESSAGE_UNKNOWN);
+        }
 
-        if (trimmedInput.isEmpty()) {
-            throw new PalloException("OH NO!!! I'm sorry, but I don't know what that means :-(");
+        int keywordEnd = input.indexOf(' ', start);
+        if (keywordEnd == -1 || keywordEnd > end) {
+            keywordEnd = end;
         }
+        CommandType type = lookUpKeyword(input, start, keywordEnd);
+        if (type == null) {
+            throw new PalloException(MESSAGE_UNKNOWN);
+        }
+        if (keywordEnd == end) {
+            return parseBareCommand(type);
+        }
+
+        int argumentStart = skipWhitespace(input, keywordEnd, end);
+        switch (type) {
+        case MARK:
+        case UNMARK:
+        case DELETE:
+        case FIND:
+            return new Command(type, input.substring(argumentStart, end));
+        case TODO:
+            return new Command(type, StringPool.shared().intern(input.substring(argumentStart, end)));
+        case LIST:
+            return parseList(input.substring(argumentStart, end));
+        case DEADLINE:
+            return parseDeadline(input, argumentStart, end);
+        case EVENT:
+            return parseEvent(input, argumentStart, end);
+        default:
+            throw new PalloException(MESSAGE_UNKNOWN);
+        }
+    }
 
-        if (lowerInput.equals(COMMAND_BYE)) {
-            return new Command(CommandType.BYE, null);
-        } else if (lowerInput.equals(COMMAND_LIST)) {
-            return new Command(CommandType.LIST, null);
-        } else if (lowerInput.equals(COMMAND_MARK)) {
+    private static CommandType lookUpKeyword(String input, int start, int end) {
+        int initial = Character.toLowerCase(input.charAt(start)) - 'a';
+        if (initial < 0 || initial >= COMMANDS_BY_INITIAL.length) {
+            return null;
+        }
+        for (CommandType type : COMMANDS_BY_INITIAL[initial]) {
+            String keyword = type.getKeyword();
+            if (keyword.length() == end - start && input.regionMatches(true, start, keyword, 0, keyword.length())) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Handles a command keyword typed on its own.
+     */
+    private static Command parseBareCommand(CommandType type) throws PalloException {
+        switch (type) {
+        case BYE:
+        case LIST:
+        case REMIND:
+        case STATS:
+        case BEGIN:
+        case COMMIT:
+        case ROLLBACK:
+            return new Command(type, null);
+        case MARK:
             throw new PalloException("OH NO!!! Please provide a task number to mark.");
-        } else if (lowerInput.startsWith(COMMAND_MARK + " ")) {
-            String argument = trimmedInput.substring(COMMAND_MARK.length()).trim();
-            return new Command(CommandType.MARK, argument);
-        } else if (lowerInput.equals(COMMAND_UNMARK)) {
+        case UNMARK:
             throw new PalloException("OH NO!!! Please provide a task number to unmark.");
-        } else if (lowerInput.startsWith(COMMAND_UNMARK + " ")) {
-            String argument = trimmedInput.substring(COMMAND_UNMARK.length()).trim();
-            return new Command(CommandType.UNMARK, argument);
-        } else if (lowerInput.equals(COMMAND_DELETE)) {
+        case DELETE:
             throw new PalloException("OH NO!!! Please provide a task number to delete.");
-        } else if (lowerInput.startsWith(COMMAND_DELETE + " ")) {
-            String argument = trimmedInput.substring(COMMAND_DELETE.length()).trim();
-            return new Command(CommandType.DELETE, argument);
-        } else if (lowerInput.equals(COMMAND_TODO)) {
-            throw new PalloException("OH NO!!! The description of a todo cannot be empty.");
-        } else if (lowerInput.startsWith(COMMAND_TODO + " ")) {
-            String description = trimmedInput.substring(COMMAND_TODO.length()).trim();
-            return new Command(CommandType.TODO, description);
-        } else if (lowerInput.equals(COMMAND_DEADLINE)) {
+        case TODO:
+            throw new PalloException(MESSAGE_EMPTY_TODO);
+        case DEADLINE:
             throw new PalloException("OH NO!!! Please use the format: deadline <description> /by <date>");
-        } else if (lowerInput.startsWith(COMMAND_DEADLINE + " ")) {
-            String rest = trimmedInput.substring(COMMAND_DEADLINE.length()).trim();
-            return parseDeadline(rest);
-        } else if (lowerInput.equals(COMMAND_EVENT)) {
+        case EVENT:
             throw new PalloException(
                     "OH NO!!! Please use the format: event <description> /from <start> /to <end>");
-        } else if (lowerInput.startsWith(COMMAND_EVENT + " ")) {
-            String rest = trimmedInput.substring(COMMAND_EVENT.length()).trim();
-            return parseEvent(rest);
-        } else if (lowerInput.equals(COMMAND_FIND)) {
+        case FIND:
             throw new PalloException("OH NO!!! Please provide a keyword to search for.");
-        } else if (lowerInput.startsWith(COMMAND_FIND + " ")) {
-            String keyword = trimmedInput.substring(COMMAND_FIND.length()).trim();
-            return new Command(CommandType.FIND, keyword);
-        } else if (lowerInput.equals(COMMAND_REMIND)) {
-            return new Command(CommandType.REMIND, null);
-        } else {
-            throw new PalloException("OH NO!!! I'm sorry, but I don't know what that means :-(");
+        default:
+            throw new PalloException(MESSAGE_UNKNOWN);
         }
     }
 
-    private static Command parseDeadline(String rest) throws PalloException {
-        int byIndex = rest.toLowerCase().indexOf(DELIMITER_BY);
+    /**
+     * Parses the arguments of a list command, which are either a page number or
+     * the {@code --from} and {@code --limit} options in any order.
+     */
+    private static Command parseList(String arguments) throws PalloException {
+        String[] words = arguments.split("\\s+");
+        if (words.length == 1 && !words[0].startsWith("--")) {
+            return new Command(CommandType.LIST, ListRange.ofPage(parseListNumber(words[0])));
+        }
+        if (words.length % 2 != 0) {
+            throw new PalloException(MESSAGE_LIST_FORMAT);
+        }
+
+        int from = 0;
+        int limit = 0;
+        for (int i = 0; i < words.length; i += 2) {
+            if (words[i].equalsIgnoreCase(OPTION_FROM) && from == 0) {
+                from = parseListNumber(words[i + 1]);
+            } else if (words[i].equalsIgnoreCase(OPTION_LIMIT) && limit == 0) {
+                limit = parseListNumber(words[i + 1]);
+            } else {
+                throw new PalloException(MESSAGE_LIST_FORMAT);
+            }
+        }
+        ListRange range = new ListRange(from == 0 ? 1 : from, limit == 0 ? Integer.MAX_VALUE : limit);
+        return new Command(CommandType.LIST, range);
+    }
+
+    private static int parseListNumber(String word) throws PalloException {
+        try {
+            int number = Integer.parseInt(word);
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below, like any other invalid number
+        }
+        throw new PalloException(MESSAGE_LIST_FORMAT);
+    }
+
+    private static Command parseDeadline(String input, int start, int end) throws PalloException {
+        int byIndex = indexOfIgnoreCase(input, DELIMITER_BY, start, end);
         if (byIndex == -1) {
             throw new PalloException("OH NO!!! Please use the format: deadline <description> /by <date>");
         }
-        String description = rest.substring(0, byIndex).trim();
-        String by = rest.substring(byIndex + DELIMITER_BY.length()).trim();
+        return createDeadlineCommand(slice(input, start, byIndex), slice(input, byIndex + DELIMITER_BY.length(), end));
+    }
+
+    /**
+     * Creates the command that adds a todo, for callers that have the task's fields
+     * rather than a typed command. Surrounding whitespace is trimmed.
+     *
+     * @param description The description of the todo.
+     * @return The command.
+     * @throws PalloException If the description is empty.
+     */
+    public static Command createTodoCommand(String description) throws PalloException {
+        String trimmed = description.trim();
+        if (trimmed.isEmpty()) {
+            throw new PalloException(MESSAGE_EMPTY_TODO);
+        }
+        return new Command(CommandType.TODO, StringPool.shared().intern(trimmed));
+    }
+
+    /**
+     * Creates the command that adds a deadline, for callers that have the task's fields
+     * rather than a typed command. Surrounding whitespace is trimmed, and a field may
+     * contain what would be a delimiter in a typed command.
+     *
+     * @param description The description of the deadline.
+     * @param by          The due date as the user wrote it.
+     * @return The command.
+     * @throws PalloException If a field is empty or the date names a day that does not exist.
+     */
+    public static Command createDeadlineCommand(String description, String by) throws PalloException {
+        description = description.trim();
+        by = by.trim();
         if (description.isEmpty() || by.isEmpty()) {
             throw new PalloException(
                     "OH NO!!! Description and date cannot be empty. Use: deadline <description> /by <date>");
         }
+        checkDate(by);
         assert !description.isEmpty() : "Deadline description should not be empty after validation";
         assert !by.isEmpty() : "Deadline date should not be empty after validation";
-        return new Command(CommandType.DEADLINE, new String[] { description, by });
+        StringPool pool = StringPool.shared();
+        return new Command(CommandType.DEADLINE, new String[] { pool.intern(description), pool.intern(by) });
     }
 
-    private static Command parseEvent(String rest) throws PalloException {
-        int fromIndex = rest.toLowerCase().indexOf(DELIMITER_FROM);
-        int toIndex = rest.toLowerCase().indexOf(DELIMITER_TO);
+    private static Command parseEvent(String input, int start, int end) throws PalloException {
+        int fromIndex = indexOfIgnoreCase(input, DELIMITER_FROM, start, end);
+        int toIndex = indexOfIgnoreCase(input, DELIMITER_TO, start, end);
         if (fromIndex == -1 || toIndex == -1 || toIndex <= fromIndex) {
             throw new PalloException(
                     "OH NO!!! Please use the format: event <description> /from <start> /to <end>");
         }
-        String description = rest.substring(0, fromIndex).trim();
-        String from = rest.substring(fromIndex + DELIMITER_FROM.length(), toIndex).trim();
-        String to = rest.substring(toIndex + DELIMITER_TO.length()).trim();
+        return createEventCommand(slice(input, start, fromIndex),
+                slice(input, fromIndex + DELIMITER_FROM.length(), toIndex),
+                slice(input, toIndex + DELIMITER_TO.length(), end));
+    }
+
+    /**
+     * Creates the command that adds an event, for callers that have the task's fields
+     * rather than a typed command. Surrounding whitespace is trimmed, and a field may
+     * contain what would be a delimiter in a typed command.
+     *
+     * @param description The description of the event.
+     * @param from        The start as the user wrote it.
+     * @param to          The end as the user wrote it.
+     * @return The command.
+     * @throws PalloException If a field is empty or a date names a day that does not exist.
+     */
+    public static Command createEventCommand(String description, String from, String to) throws PalloException {
+        description = description.trim();
+        from = from.trim();
+        to = to.trim();
         if (description.isEmpty() || from.isEmpty() || to.isEmpty()) {
             throw new PalloException(
                     "OH NO!!! Description, start time, and end time cannot be empty."
                     + " Use: event <description> /from <start> /to <end>");
         }
+        checkDate(from);
+        checkDate(to);
         assert !description.isEmpty() : "Event description should not be empty after validation";
         assert !from.isEmpty() : "Event start should not be empty after validation";
         assert !to.isEmpty() : "Event end should not be empty after validation";
-        return new Command(CommandType.EVENT, new String[] { description, from, to });
+        StringPool pool = StringPool.shared();
+        return new Command(CommandType.EVENT,
+                new String[] { pool.intern(description), pool.intern(from), pool.intern(to) });
+    }
+
+    /**
+     * Checks that a date written in a supported format names a real day and time, e.g. not
+     * 31/4/2023. Text in any other format is kept as typed, so it is not checked.
+     */
+    private static void checkDate(String date) throws PalloException {
+        try {
+            DateParser.parseDateTime(date);
+        } catch (DateTimeException e) {
+            throw new PalloException("OH NO!!! " + date + " is not a real date and time.");
+        }
+    }
+
+    /**
+     * Finds the first case-insensitive occurrence of a delimiter within input[start, end).
+     */
+    private static int indexOfIgnoreCase(String input, String delimiter, int start, int end) {
+        for (int i = start; i + delimiter.length() <= end; i++) {
+            if (input.regionMatches(true, i, delimiter, 0, delimiter.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns input[start, end) with surrounding whitespace removed, as String.trim would.
+     */
+    private static String slice(String input, int start, int end) {
+        int sliceStart = skipWhitespace(input, start, end);
+        return input.substring(sliceStart, trimEnd(input, sliceStart, end));
+    }
+
+    private static int skipWhitespace(String input, int start, int end) {
+        while (start < end && input.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(String input, int start, int end) {
+        while (end > start && input.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
     }
 
     /**
@@ -139,4 +347,37 @@ public class Parser {
             throw new PalloException("OH NO!!! Please provide a valid task number!");
         }
     }
+
+    /**
+     * Returns whether a task argument refers to a task by its ID, as in {@code mark #12},
+     * rather than by its position in the list.
+     *
+     * @param argument The task argument.
+     * @return True if the argument starts with {@code #}.
+     */
+    public static boolean isTaskId(String argument) {
+        return argument != null && argument.trim().startsWith(TASK_ID_MARKER);
+    }
+
+    /**
+     * Parses a task ID, written with a leading {@code #}, from a string argument.
+     *
+     * @param argument The string containing the task ID.
+     * @return The parsed task ID.
+     * @throws PalloException If the argument is not a {@code #} followed by a positive number.
+     */
+    public static long parseTaskId(String argument) throws PalloException {
+        if (!isTaskId(argument)) {
+            throw new PalloException("OH NO!!! Please provide a task ID, like #3.");
+        }
+        try {
+            long id = Long.parseLong(argument.trim().substring(TASK_ID_MARKER.length()));
+            if (id > 0) {
+                return id;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below, like any other invalid ID
+        }
+        throw new PalloException("OH NO!!! Please provide a valid task ID!");
+    }
 }
@@ -0,0 +1,15 @@
+package pallo.exception;
+
+/**
+ * Signals that no task in the list has the ID that was asked for.
+ */
+public class TaskNotFoundException extends PalloException {
+    /**
+     * Constructs a new TaskNotFoundException for the given ID.
+     *
+     * @param id The ID that no task has.
+     */
+    public TaskNotFoundException(long id) {
+        super("OH NO!!! There is no task with ID #" + id + ".");
+    }
+}
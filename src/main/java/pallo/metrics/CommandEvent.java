@@ -0,0 +1,49 @@
+package pallo.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import pallo.command.Command;
+
+/**
+ * A Flight Recorder event for running one parsed command, including any save it causes.
+ */
+@Name("pallo.Command")
+@Label("Execute Command")
+@Category({"Pallo", "Command"})
+@Description("Running one parsed command, including any save it causes")
+@StackTrace(false)
+public class CommandEvent extends Event {
+    @Label("Command Type")
+    private String commandType;
+
+    @Label("Argument Length")
+    @Description("The number of characters in the command's arguments")
+    private int argumentLength;
+
+    @Label("Succeeded")
+    private boolean isSuccessful;
+
+    /**
+     * Fills in the fields that describe the given command.
+     *
+     * @param command      The command that ran.
+     * @param isSuccessful Whether it ran without an error.
+     */
+    public void describe(Command command, boolean isSuccessful) {
+        this.isSuccessful = isSuccessful;
+        commandType = command.getType().getKeyword();
+        Object argument = command.getArgument();
+        if (argument instanceof String) {
+            argumentLength = ((String) argument).length();
+        } else if (argument instanceof String[]) {
+            for (String part : (String[]) argument) {
+                argumentLength += part.length();
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package pallo.metrics;
+
+/**
+ * The latencies of one operation, as published over JMX under {@code pallo:type=Latency}.
+ */
+public interface LatencyMXBean {
+    long getCount();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP99Micros();
+
+    double getMaxMicros();
+}
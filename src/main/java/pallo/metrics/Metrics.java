@@ -0,0 +1,133 @@
+package pallo.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import pallo.command.CommandType;
+
+/**
+ * Times Pallo's hot paths: each command type, parsing, loading and saving, and the
+ * task list's queries. Each operation has a {@link LatencyHistogram}, which the
+ * {@code stats} command prints and JMX publishes as {@code pallo:type=Latency,name=...}.
+ *
+ * <p>Timing is on unless the {@code pallo.metrics} system property is {@code false}.
+ * The switch is read once into a constant, so when it is off the JIT drops the timing
+ * code altogether. Callers time an operation as follows:
+ *
+ * <pre>{@code
+ * long start = Metrics.startTimer();
+ * ...
+ * Metrics.PARSE.recordSince(start);
+ * }</pre>
+ */
+public final class Metrics {
+    private static final String PROPERTY_ENABLED = "pallo.metrics";
+    private static final boolean IS_ENABLED = !"false".equalsIgnoreCase(System.getProperty(PROPERTY_ENABLED));
+
+    public static final LatencyHistogram PARSE = new LatencyHistogram("parse");
+    public static final LatencyHistogram LOAD = new LatencyHistogram("storage.load");
+    public static final LatencyHistogram SAVE = new LatencyHistogram("storage.save");
+    public static final LatencyHistogram FIND = new LatencyHistogram("tasks.find");
+    public static final LatencyHistogram TASKS_BETWEEN = new LatencyHistogram("tasks.between");
+    public static final LatencyHistogram TASK_BY_ID = new LatencyHistogram("tasks.byId");
+
+    private static final Map<CommandType, LatencyHistogram> COMMANDS = new EnumMap<>(CommandType.class);
+    private static final List<LatencyHistogram> ALL = new ArrayList<>();
+
+    static {
+        for (CommandType type : CommandType.values()) {
+            LatencyHistogram histogram = new LatencyHistogram("command." + type.getKeyword());
+            COMMANDS.put(type, histogram);
+            ALL.add(histogram);
+        }
+        ALL.addAll(List.of(PARSE, LOAD, SAVE, FIND, TASKS_BETWEEN, TASK_BY_ID));
+        if (IS_ENABLED) {
+            // Starting JMX takes a few hundred milliseconds, which the first command should not wait for
+            Thread registration = new Thread(Metrics::registerMBeans, "pallo-metrics-jmx");
+            registration.setDaemon(true);
+            registration.start();
+        }
+    }
+
+    private Metrics() {
+    }
+
+    public static boolean isEnabled() {
+        return IS_ENABLED;
+    }
+
+    /**
+     * Returns the time to pass to {@link LatencyHistogram#recordSince} when the timed operation ends.
+     *
+     * @return The current {@link System#nanoTime()}, or 0 without reading the clock if timing is off.
+     */
+    public static long startTimer() {
+        return IS_ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Returns the histogram that times commands of the given type.
+     *
+     * @param type The command type.
+     * @return Its histogram.
+     */
+    public static LatencyHistogram forCommand(CommandType type) {
+        return COMMANDS.get(type);
+    }
+
+    /**
+     * Describes the latencies of every operation that has run, one operation per line.
+     *
+     * @return The report, or a note that timing is off or nothing has run yet.
+     */
+    public static String report() {
+        if (!IS_ENABLED) {
+            return "Statistics are turned off. Start Pallo without -D" + PROPERTY_ENABLED + "=false to collect them.";
+        }
+
+        StringBuilder report = new StringBuilder("Here is where the time went (in ms):");
+        boolean hasRun = false;
+        for (LatencyHistogram histogram : ALL) {
+            long count = histogram.getCount();
+            if (count == 0) {
+                continue;
+            }
+            hasRun = true;
+            report.append(String.format("\n%s: %d run%s, mean %.3f, p50 %.3f, p99 %.3f, max %.3f",
+                    histogram.getName(), count, count == 1 ? "" : "s", histogram.getMeanMicros() / 1000,
+                    histogram.getP50Micros() / 1000, histogram.getP99Micros() / 1000,
+                    histogram.getMaxMicros() / 1000));
+        }
+        return hasRun ? report.toString() : "Nothing has been timed yet.";
+    }
+
+    /**
+     * Forgets every recorded latency.
+     */
+    public static void reset() {
+        for (LatencyHistogram histogram : ALL) {
+            histogram.reset();
+        }
+    }
+
+    private static void registerMBeans() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            for (LatencyHistogram histogram : ALL) {
+                ObjectName name = new ObjectName("pallo:type=Latency,name=" + histogram.getName());
+                if (!server.isRegistered(name)) {
+                    server.registerMBean(histogram, name);
+                }
+            }
+        } catch (JMException | SecurityException e) {
+            // JMX is only a window onto the numbers, which the stats command still shows
+            System.err.println("Warning: Failed to publish metrics over JMX: " + e.getMessage());
+        }
+    }
+}
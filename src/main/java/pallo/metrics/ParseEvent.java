@@ -0,0 +1,38 @@
+package pallo.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import pallo.command.Command;
+
+/**
+ * A Flight Recorder event for parsing one line of input into a command.
+ */
+@Name("pallo.Parse")
+@Label("Parse Command")
+@Category({"Pallo", "Command"})
+@Description("Parsing one line of input into a command")
+@StackTrace(false)
+public class ParseEvent extends Event {
+    @Label("Command Type")
+    @Description("The type of command parsed, or null if the input was invalid")
+    private String commandType;
+
+    @Label("Input Length")
+    private int inputLength;
+
+    /**
+     * Fills in the fields that describe the parse.
+     *
+     * @param input  The line that was parsed.
+     * @param result The command it was parsed into, or null if it was invalid.
+     */
+    public void describe(String input, Command result) {
+        inputLength = input.length();
+        commandType = result != null ? result.getType().getKeyword() : null;
+    }
+}
@@ -0,0 +1,48 @@
+package pallo.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Flight Recorder event for one query over a task list's indexes.
+ */
+@Name("pallo.Query")
+@Label("Task Query")
+@Category({"Pallo", "Tasks"})
+@Description("One query over a task list's indexes")
+@StackTrace(false)
+public class QueryEvent extends Event {
+    @Label("Query")
+    @Description("find, between or byId")
+    private String query;
+
+    @Label("Task Count")
+    @Description("The number of tasks in the list")
+    private int taskCount;
+
+    @Label("Result Count")
+    private int resultCount;
+
+    @Label("Built Index")
+    @Description("Whether the query had to build its index first")
+    private boolean hasBuiltIndex;
+
+    /**
+     * Fills in the fields that describe the query.
+     *
+     * @param query         Which query ran: find, between or byId.
+     * @param taskCount     The number of tasks in the list.
+     * @param resultCount   The number of tasks it returned.
+     * @param hasBuiltIndex Whether it had to build its index first.
+     */
+    public void describe(String query, int taskCount, int resultCount, boolean hasBuiltIndex) {
+        this.query = query;
+        this.taskCount = taskCount;
+        this.resultCount = resultCount;
+        this.hasBuiltIndex = hasBuiltIndex;
+    }
+}
@@ -0,0 +1,59 @@
+package pallo.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Flight Recorder event for loading or saving the whole task file.
+ */
+@Name("pallo.Storage")
+@Label("Load or Save Tasks")
+@Category({"Pallo", "Storage"})
+@Description("Loading or saving the whole task file")
+@StackTrace(false)
+public class StorageEvent extends Event {
+    @Label("Operation")
+    @Description("load, lazy load or save")
+    private String operation;
+
+    @Label("Path")
+    private String path;
+
+    @Label("Bytes")
+    @DataAmount
+    private long bytes;
+
+    @Label("Task Count")
+    private int taskCount;
+
+    @Label("Format")
+    private String format;
+
+    @Label("Durability")
+    private String durability;
+
+    /**
+     * Fills in the fields that describe the load or save.
+     *
+     * @param operation  What was done: load, lazy load or save.
+     * @param path       The task file.
+     * @param bytes      The size of the file read or written.
+     * @param taskCount  The number of tasks loaded or saved.
+     * @param format     The format the file was written in.
+     * @param durability How far saves are forced to the disk.
+     */
+    public void describe(String operation, String path, long bytes, int taskCount, String format,
+            String durability) {
+        this.operation = operation;
+        this.path = path;
+        this.bytes = bytes;
+        this.taskCount = taskCount;
+        this.format = format;
+        this.durability = durability;
+    }
+}
@@ -0,0 +1,278 @@
+package pallo.server;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import pallo.exception.PalloException;
+import pallo.storage.DateParser;
+import pallo.task.Deadline;
+import pallo.task.Event;
+import pallo.task.Task;
+
+/**
+ * Writes tasks as JSON and reads the flat JSON objects that API requests carry.
+ * Only what the API needs is supported, so Pallo does not depend on a JSON library.
+ */
+final class Json {
+    private static final Pattern NUMBER = Pattern.compile("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?");
+
+    private Json() {
+    }
+
+    /**
+     * Appends a task as a JSON object with its ID, type, description, status and dates.
+     * Dates that were understood are written in ISO format, and others exactly as typed.
+     *
+     * @param json The JSON being built.
+     * @param task The task to append.
+     */
+    static void appendTask(StringBuilder json, Task task) {
+        json.append("{\"id\":").append(task.getId());
+        if (task instanceof Deadline) {
+            Deadline deadline = (Deadline) task;
+            json.append(",\"type\":\"deadline\"");
+            appendDescription(json, task);
+            appendField(json, "by", formatDate(deadline.getBy(), deadline.getByString()));
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            json.append(",\"type\":\"event\"");
+            appendDescription(json, task);
+            appendField(json, "from", formatDate(event.getFrom(), event.getFromString()));
+            appendField(json, "to", formatDate(event.getTo(), event.getToString()));
+        } else {
+            json.append(",\"type\":\"todo\"");
+            appendDescription(json, task);
+        }
+        json.append('}');
+    }
+
+    /**
+     * Appends tasks as a JSON array of task objects.
+     *
+     * @param json  The JSON being built.
+     * @param tasks The tasks to append.
+     */
+    static void appendTasks(StringBuilder json, List<Task> tasks) {
+        json.append('[');
+        for (int i = 0; i < tasks.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendTask(json, tasks.get(i));
+        }
+        json.append(']');
+    }
+
+    private static void appendDescription(StringBuilder json, Task task) {
+        appendField(json, "description", task.getDescription());
+        json.append(",\"done\":").append(task.isDone());
+    }
+
+    private static void appendField(StringBuilder json, String name, String value) {
+        json.append(",\"").append(name).append("\":");
+        appendString(json, value);
+    }
+
+    private static String formatDate(LocalDateTime dateTime, String originalString) {
+        return dateTime != null ? DateParser.formatDateTimeForFile(dateTime) : originalString;
+    }
+
+    /**
+     * Appends a string as a JSON string literal, escaping it as needed.
+     *
+     * @param json  The JSON being built.
+     * @param value The string to append, or null for a JSON null.
+     */
+    static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                json.append("\\\"");
+                break;
+            case '\\':
+                json.append("\\\\");
+                break;
+            case '\n':
+                json.append("\\n");
+                break;
+            case '\r':
+                json.append("\\r");
+                break;
+            case '\t':
+                json.append("\\t");
+                break;
+            default:
+                if (c < ' ') {
+                    json.append(String.format("\\u%04x", (int) c));
+                } else {
+                    json.append(c);
+                }
+                break;
+            }
+        }
+        json.append('"');
+    }
+
+    /**
+     * Parses a JSON object whose values are all strings, numbers, booleans or null.
+     * Numbers and booleans are returned as their text, and null values are left out.
+     *
+     * @param text The JSON text.
+     * @return The object's fields in order.
+     * @throws PalloException If the text is not such an object.
+     */
+    static Map<String, String> parseObject(String text) throws PalloException {
+        Reader reader = new Reader(text);
+        Map<String, String> fields = new LinkedHashMap<>();
+        reader.expect('{');
+        if (!reader.consume('}')) {
+            do {
+                String name = reader.readString();
+                reader.expect(':');
+                String value = reader.readValue();
+                if (value != null) {
+                    fields.put(name, value);
+                }
+            } while (reader.consume(','));
+            reader.expect('}');
+        }
+        reader.expectEnd();
+        return fields;
+    }
+
+    /**
+     * Reads JSON tokens from a string.
+     */
+    private static class Reader {
+        private final String text;
+        private int position;
+
+        Reader(String text) {
+            this.text = text;
+        }
+
+        void expect(char expected) throws PalloException {
+            if (!consume(expected)) {
+                throw error("'" + expected + "' expected");
+            }
+        }
+
+        boolean consume(char expected) {
+            skipWhitespace();
+            if (position < text.length() && text.charAt(position) == expected) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        void expectEnd() throws PalloException {
+            skipWhitespace();
+            if (position != text.length()) {
+                throw error("end of input expected");
+            }
+        }
+
+        String readValue() throws PalloException {
+            skipWhitespace();
+            if (position < text.length() && text.charAt(position) == '"') {
+                return readString();
+            }
+            int start = position;
+            while (position < text.length() && isLiteralChar(text.charAt(position))) {
+                position++;
+            }
+            String literal = text.substring(start, position);
+            if (literal.equals("null")) {
+                return null;
+            }
+            if (literal.equals("true") || literal.equals("false") || NUMBER.matcher(literal).matches()) {
+                return literal;
+            }
+            throw error("string, number, boolean or null expected");
+        }
+
+        String readString() throws PalloException {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (position < text.length()) {
+                char c = text.charAt(position++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (position >= text.length()) {
+                    break;
+                }
+                char escaped = text.charAt(position++);
+                switch (escaped) {
+                case '"':
+                case '\\':
+                case '/':
+                    value.append(escaped);
+                    break;
+                case 'b':
+                    value.append('\b');
+                    break;
+                case 'f':
+                    value.append('\f');
+                    break;
+                case 'n':
+                    value.append('\n');
+                    break;
+                case 'r':
+                    value.append('\r');
+                    break;
+                case 't':
+                    value.append('\t');
+                    break;
+                case 'u':
+                    value.append(readUnicodeEscape());
+                    break;
+                default:
+                    throw error("invalid escape");
+                }
+            }
+            throw error("unterminated string");
+        }
+
+        private char readUnicodeEscape() throws PalloException {
+            if (position + 4 > text.length()) {
+                throw error("invalid unicode escape");
+            }
+            try {
+                char c = (char) Integer.parseInt(text.substring(position, position + 4), 16);
+                position += 4;
+                return c;
+            } catch (NumberFormatException e) {
+                throw error("invalid unicode escape");
+            }
+        }
+
+        private void skipWhitespace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        private static boolean isLiteralChar(char c) {
+            return Character.isLetterOrDigit(c) || c == '-' || c == '+' || c == '.';
+        }
+
+        private PalloException error(String problem) {
+            return new PalloException("OH NO!!! Invalid JSON at character " + (position + 1) + ": " + problem + ".");
+        }
+    }
+}
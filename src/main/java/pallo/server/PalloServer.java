@@ -0,0 +1,337 @@
+package pallo.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import pallo.CommandQueue;
+import pallo.Pallo;
+import pallo.command.Command;
+import pallo.command.CommandType;
+import pallo.command.ListRange;
+import pallo.command.Parser;
+import pallo.exception.PalloException;
+import pallo.exception.TaskNotFoundException;
+import pallo.task.Task;
+
+/**
+ * Serves Pallo's tasks as a JSON API on the loopback interface, so that other local
+ * tools can use Pallo without the GUI or the console.
+ *
+ * <ul>
+ * <li>{@code GET /tasks?from=N&limit=M} lists tasks, numbered from 1 like {@code list}.</li>
+ * <li>{@code GET /tasks/<id>} returns one task.</li>
+ * <li>{@code POST /tasks} adds the task described by a JSON object with a {@code type} of
+ *     {@code todo}, {@code deadline} or {@code event}, a {@code description}, and the
+ *     {@code by}, {@code from} and {@code to} dates its type needs.</li>
+ * <li>{@code POST /tasks/<id>/mark} and {@code POST /tasks/<id>/unmark} change its status.</li>
+ * <li>{@code DELETE /tasks/<id>} deletes it.</li>
+ * <li>{@code GET /find?keyword=K} and {@code GET /remind?days=D} search the tasks.</li>
+ * </ul>
+ *
+ * <p>Every change is run on a single writer thread, in the order the requests arrived,
+ * through {@link Pallo#executeForTask}. Reads run on the request threads against the
+ * current version of a shared Pallo's task list, without waiting for the writer.
+ * Failures are answered with an {@code error} field holding the message a user would see.
+ *
+ * <p>Responses are written as headers then body, which Nagle's algorithm holds back until
+ * the client's delayed ACK, adding about 40 ms to every request. The JDK's server only
+ * turns it off if {@code sun.net.httpserver.nodelay} is {@code true} when its first server
+ * is created, so {@code --server} sets it at launch, and other hosts should start the JVM
+ * with {@code -Dsun.net.httpserver.nodelay=true}.
+ */
+public class PalloServer {
+    /** Enough threads that slow clients do not hold up others, as each request blocks one. */
+    public static final int DEFAULT_REQUEST_THREADS = 32;
+
+    private static final String JSON_TYPE = "application/json; charset=utf-8";
+    private static final int DEFAULT_REMIND_DAYS = 7;
+
+    private final Pallo pallo;
+    private final HttpServer server;
+    private final ExecutorService requestExecutor;
+    private final CommandQueue writer = new CommandQueue("pallo-api-writer");
+
+    /**
+     * Constructs a server for the given Pallo, bound to the loopback interface.
+     * The Pallo should be a shared one, so that reads do not wait for changes.
+     *
+     * @param pallo          The Pallo to serve.
+     * @param port           The port to listen on, or 0 for any free port.
+     * @param requestThreads The number of threads that handle requests.
+     * @throws IOException If the port cannot be bound.
+     */
+    public PalloServer(Pallo pallo, int port, int requestThreads) throws IOException {
+        this.pallo = pallo;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.requestExecutor = Executors.newFixedThreadPool(requestThreads, runnable -> {
+            Thread thread = new Thread(runnable, "pallo-api-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(requestExecutor);
+        server.createContext("/tasks", exchange -> handle(exchange, this::routeTasks));
+        server.createContext("/find", exchange -> handle(exchange, this::routeFind));
+        server.createContext("/remind", exchange -> handle(exchange, this::routeRemind));
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests, lets changes already queued finish, and releases the port.
+     */
+    public void stop() {
+        server.stop(0);
+        requestExecutor.shutdown();
+        writer.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * A response to an API request.
+     */
+    private static class Response {
+        private final int status;
+        private final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Routes a request under one path prefix.
+     */
+    private interface Route {
+        Response apply(HttpExchange exchange, String path) throws PalloException, IOException;
+    }
+
+    private void handle(HttpExchange exchange, Route route) throws IOException {
+        Response response;
+        try {
+            response = route.apply(exchange, exchange.getRequestURI().getPath());
+        } catch (TaskNotFoundException e) {
+            response = error(404, e.getMessage());
+        } catch (PalloException e) {
+            response = error(400, e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Warning: Request to " + exchange.getRequestURI().getPath() + " failed: " + e);
+            response = error(500, "OH NO!!! Something went wrong on the server.");
+        }
+
+        byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON_TYPE);
+        exchange.sendResponseHeaders(response.status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private Response routeTasks(HttpExchange exchange, String path) throws PalloException, IOException {
+        String method = exchange.getRequestMethod();
+        String[] segments = path.substring(1).split("/");
+        if (segments.length == 1) {
+            if (method.equals("GET")) {
+                return listTasks(parseQuery(exchange));
+            }
+            if (method.equals("POST")) {
+                return new Response(201, toJson(write(parseNewTask(readBody(exchange)))));
+            }
+            return methodNotAllowed();
+        }
+
+        long id = Parser.parseTaskId("#" + segments[1]);
+        if (segments.length == 2) {
+            if (method.equals("GET")) {
+                return new Response(200, pallo.readTasks(tasks -> toJson(tasks.getTaskById(id))));
+            }
+            if (method.equals("DELETE")) {
+                return new Response(200, toJson(write(new Command(CommandType.DELETE, "#" + id))));
+            }
+            return methodNotAllowed();
+        }
+        if (segments.length == 3 && (segments[2].equals("mark") || segments[2].equals("unmark"))) {
+            if (!method.equals("POST")) {
+                return methodNotAllowed();
+            }
+            CommandType type = segments[2].equals("mark") ? CommandType.MARK : CommandType.UNMARK;
+            return new Response(200, toJson(write(new Command(type, "#" + id))));
+        }
+        return notFound();
+    }
+
+    private Response listTasks(Map<String, String> query) throws PalloException {
+        int from = parsePositive(query, "from", 1);
+        int limit = parsePositive(query, "limit", Integer.MAX_VALUE);
+        ListRange range = new ListRange(from, limit);
+        return new Response(200, pallo.readTasks(tasks -> {
+            // Both the count and the tasks come from the same version of a shared list, which is not copied
+            List<Task> all = tasks.viewAllTasks();
+            int start = Math.min(from - 1, all.size());
+            StringBuilder json = new StringBuilder("{\"total\":").append(all.size()).append(",\"tasks\":");
+            Json.appendTasks(json, all.subList(start, Math.max(start, range.getEndIndex(all.size()))));
+            return json.append('}').toString();
+        }));
+    }
+
+    private Response routeFind(HttpExchange exchange, String path) throws PalloException {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            return methodNotAllowed();
+        }
+        String keyword = parseQuery(exchange).get("keyword");
+        if (keyword == null || keyword.isBlank()) {
+            throw new PalloException("OH NO!!! Please provide a keyword to search for.");
+        }
+        return new Response(200, pallo.readTasks(tasks -> toJson(tasks.findTasks(keyword.trim()))));
+    }
+
+    private Response routeRemind(HttpExchange exchange, String path) throws PalloException {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            return methodNotAllowed();
+        }
+        int days = parsePositive(parseQuery(exchange), "days", DEFAULT_REMIND_DAYS);
+        return new Response(200, pallo.readTasks(tasks -> toJson(tasks.getUpcomingTasks(days))));
+    }
+
+    /**
+     * Builds the command that adds the described task straight from its fields, so that
+     * text in a field is never mistaken for a delimiter. Fields are checked as the
+     * console checks typed commands.
+     */
+    private static Command parseNewTask(String body) throws PalloException {
+        Map<String, String> fields = Json.parseObject(body);
+        String type = fields.getOrDefault("type", "");
+        String description = fields.getOrDefault("description", "");
+        for (String value : fields.values()) {
+            if (value.indexOf('\n') != -1 || value.indexOf('\r') != -1) {
+                throw new PalloException("OH NO!!! Task fields cannot contain line breaks.");
+            }
+        }
+        switch (type) {
+        case "todo":
+            return Parser.createTodoCommand(description);
+        case "deadline":
+            return Parser.createDeadlineCommand(description, fields.getOrDefault("by", ""));
+        case "event":
+            return Parser.createEventCommand(description, fields.getOrDefault("from", ""),
+                    fields.getOrDefault("to", ""));
+        default:
+            throw new PalloException("OH NO!!! The task type must be todo, deadline or event.");
+        }
+    }
+
+    /**
+     * Runs a change on the writer thread and waits for the task it acted on.
+     */
+    private Task write(Command command) throws PalloException {
+        CompletableFuture<Task> result = writer.submit(() -> {
+            try {
+                return pallo.executeForTask(command);
+            } catch (PalloException e) {
+                throw new CompletionException(e);
+            }
+        });
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof PalloException) {
+                throw (PalloException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PalloException("OH NO!!! The request was interrupted.");
+        }
+    }
+
+    private static String toJson(Task task) {
+        StringBuilder json = new StringBuilder();
+        Json.appendTask(json, task);
+        return json.toString();
+    }
+
+    private static String toJson(List<Task> tasks) {
+        StringBuilder json = new StringBuilder("{\"tasks\":");
+        Json.appendTasks(json, tasks);
+        return json.append('}').toString();
+    }
+
+    private static Response error(int status, String message) {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        Json.appendString(json, message);
+        return new Response(status, json.append('}').toString());
+    }
+
+    private static Response notFound() {
+        return error(404, "OH NO!!! There is nothing here.");
+    }
+
+    private static Response methodNotAllowed() {
+        return error(405, "OH NO!!! That method is not allowed here.");
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Map<String, String> parseQuery(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+        for (String parameter : query.split("&")) {
+            int equals = parameter.indexOf('=');
+            String name = equals == -1 ? parameter : parameter.substring(0, equals);
+            String value = equals == -1 ? "" : parameter.substring(equals + 1);
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private static int parsePositive(Map<String, String> query, String name, int defaultValue)
+            throws PalloException {
+        String value = query.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int number = Integer.parseInt(value);
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below, like any other invalid number
+        }
+        throw new PalloException("OH NO!!! The " + name + " parameter must be a positive number.");
+    }
+}
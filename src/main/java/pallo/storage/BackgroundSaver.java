@@ -0,0 +1,188 @@
+package pallo.storage;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import pallo.exception.PalloException;
+import pallo.task.Task;
+
+/**
+ * Saves the task list on a background thread, so slow disks do not hold up commands.
+ * Changes are coalesced: the first change after a save schedules the next save one
+ * interval later, and every change made before it runs is covered by that one save,
+ * so the file is written at most once per interval.
+ *
+ * <p>Each save writes a snapshot taken while holding the given lock, which the owner
+ * must also hold while changing tasks. Snapshots are numbered by the changes they
+ * include, and an older snapshot is never written over a newer one, so a background
+ * save that finishes after a {@link #flush()} cannot undo it.
+ */
+public class BackgroundSaver {
+    private final Storage storage;
+    private final Object lock;
+    private final Supplier<List<Task>> snapshotter;
+    private final long intervalMillis;
+    private final ScheduledExecutorService executor;
+    private final Object writeLock = new Object();
+
+    private long changeCount; // Guarded by lock
+    private boolean isScheduled; // Guarded by lock
+    private boolean isClosed; // Guarded by lock
+    private volatile long savedChangeCount;
+
+    private final AtomicLong saveCount = new AtomicLong();
+    private final AtomicLong totalSaveNanos = new AtomicLong();
+    private final AtomicLong maxSaveNanos = new AtomicLong();
+    private volatile long lastSaveNanos;
+
+    /**
+     * Constructs a saver that writes to the given storage.
+     *
+     * @param storage        The storage to save to.
+     * @param lock           The lock held while tasks are changed.
+     * @param snapshotter    Returns detached copies of the tasks; called while holding the lock.
+     * @param intervalMillis The minimum time between background saves.
+     */
+    public BackgroundSaver(Storage storage, Object lock, Supplier<List<Task>> snapshotter, long intervalMillis) {
+        assert intervalMillis > 0 : "Save interval should be positive";
+        this.storage = storage;
+        this.lock = lock;
+        this.snapshotter = snapshotter;
+        this.intervalMillis = intervalMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pallo-background-save");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Records that the tasks have changed, scheduling a save if none is pending.
+     */
+    public void markDirty() {
+        synchronized (lock) {
+            changeCount++;
+            scheduleSave();
+        }
+    }
+
+    /**
+     * Saves the current tasks on the calling thread, and waits until they are written.
+     *
+     * @throws PalloException If the tasks cannot be saved.
+     */
+    public void flush() throws PalloException {
+        List<Task> snapshot;
+        long version;
+        synchronized (lock) {
+            version = changeCount;
+            snapshot = snapshotter.get();
+        }
+        write(snapshot, version);
+    }
+
+    /**
+     * Saves any unsaved changes and stops the background thread. Later changes are
+     * no longer saved in the background. Failures are reported as warnings, since
+     * this also runs from shutdown hooks.
+     */
+    public void close() {
+        synchronized (lock) {
+            if (isClosed) {
+                return;
+            }
+            isClosed = true;
+        }
+        executor.shutdown();
+        if (savedChangeCount < changeCountSnapshot()) {
+            try {
+                flush();
+            } catch (PalloException e) {
+                System.err.println("Warning: Failed to save tasks on exit: " + e.getMessage());
+            }
+        }
+    }
+
+    public long getSaveCount() {
+        return saveCount.get();
+    }
+
+    public long getLastSaveNanos() {
+        return lastSaveNanos;
+    }
+
+    public long getMaxSaveNanos() {
+        return maxSaveNanos.get();
+    }
+
+    /**
+     * Returns the mean time taken by a save, including ones run by {@link #flush()}.
+     *
+     * @return The mean save latency in nanoseconds, or 0 if nothing was saved yet.
+     */
+    public long getAverageSaveNanos() {
+        long count = saveCount.get();
+        return count == 0 ? 0 : totalSaveNanos.get() / count;
+    }
+
+    private long changeCountSnapshot() {
+        synchronized (lock) {
+            return changeCount;
+        }
+    }
+
+    private void scheduleSave() {
+        assert Thread.holdsLock(lock) : "Saves should be scheduled while holding the lock";
+        if (isScheduled || isClosed) {
+            return;
+        }
+        isScheduled = true;
+        executor.schedule(this::saveInBackground, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void saveInBackground() {
+        List<Task> snapshot;
+        long version;
+        synchronized (lock) {
+            isScheduled = false;
+            version = changeCount;
+            if (version <= savedChangeCount) {
+                return;
+            }
+            snapshot = snapshotter.get();
+        }
+
+        try {
+            write(snapshot, version);
+        } catch (PalloException e) {
+            System.err.println("Warning: Background save failed, retrying: " + e.getMessage());
+            synchronized (lock) {
+                scheduleSave();
+            }
+        }
+    }
+
+    private void write(List<Task> snapshot, long version) throws PalloException {
+        synchronized (writeLock) {
+            if (version < savedChangeCount) {
+                return; // A newer snapshot has already been written
+            }
+            long start = System.nanoTime();
+            storage.save(snapshot);
+            recordSave(System.nanoTime() - start);
+            savedChangeCount = version;
+        }
+    }
+
+    private void recordSave(long nanos) {
+        // Count the save last, so that a reader who sees the new count also sees its latency
+        totalSaveNanos.addAndGet(nanos);
+        maxSaveNanos.accumulateAndGet(nanos, Math::max);
+        lastSaveNanos = nanos;
+        saveCount.incrementAndGet();
+    }
+}
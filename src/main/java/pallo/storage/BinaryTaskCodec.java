@@ -0,0 +1,244 @@
+package pallo.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import pallo.exception.PalloException;
+import pallo.task.Deadline;
+import pallo.task.Event;
+import pallo.task.StringPool;
+import pallo.task.Task;
+import pallo.task.Todo;
+
+/**
+ * Encodes and decodes tasks in the compact binary snapshot format.
+ * A file starts with a 4-byte magic number, a version byte and the task count.
+ * Each task is then stored as a type tag byte, a flags byte, its ID as a long, the
+ * length-prefixed UTF-8 description, and its dates as epoch-second longs (UTC).
+ * Version 1 files, written before tasks had IDs, have no ID field and are still read.
+ *
+ * <p>Dates that were never parsed, or that carry sub-second precision, are stored
+ * as length-prefixed strings instead, exactly as the text format would write them.
+ * Decoding such a task follows the text loader, so converting between the two
+ * formats is lossless.
+ */
+final class BinaryTaskCodec {
+    static final byte VERSION = 2;
+
+    private static final byte VERSION_WITHOUT_IDS = 1;
+
+    private static final byte[] MAGIC = {(byte) 0x89, 'P', 'A', 'L'};
+    private static final byte TYPE_TODO = 'T';
+    private static final byte TYPE_DEADLINE = 'D';
+    private static final byte TYPE_EVENT = 'E';
+    private static final int FLAG_DONE = 1;
+    private static final int FLAG_TEXT_DATES = 1 << 1;
+
+    private BinaryTaskCodec() {
+    }
+
+    /**
+     * Returns whether the given file content starts with the binary format's magic number.
+     *
+     * @param content The file content.
+     * @return True if the content is in the binary format.
+     */
+    static boolean hasMagic(byte[] content) {
+        if (content.length < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (content[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Encodes the given tasks into a complete binary snapshot.
+     *
+     * @param tasks The tasks to encode.
+     * @return The snapshot bytes, including the header.
+     */
+    static byte[] encode(List<Task> tasks) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + tasks.size() * 32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.write(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(tasks.size());
+            for (Task task : tasks) {
+                writeTask(out, task);
+            }
+        } catch (IOException e) {
+            throw new AssertionError("Writing to memory should not fail", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeTask(DataOutputStream out, Task task) throws IOException {
+        int flags = task.isDone() ? FLAG_DONE : 0;
+        if (task instanceof Deadline) {
+            Deadline deadline = (Deadline) task;
+            LocalDateTime by = deadline.getBy();
+            boolean hasTextDates = !isEncodable(by);
+            out.writeByte(TYPE_DEADLINE);
+            out.writeByte(hasTextDates ? flags | FLAG_TEXT_DATES : flags);
+            out.writeLong(task.getId());
+            writeString(out, task.getDescription());
+            if (hasTextDates) {
+                writeString(out, toFileText(by, deadline.getByString()));
+            } else {
+                out.writeLong(toEpochSecond(by));
+            }
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            LocalDateTime from = event.getFrom();
+            LocalDateTime to = event.getTo();
+            boolean hasTextDates = !isEncodable(from) || !isEncodable(to);
+            out.writeByte(TYPE_EVENT);
+            out.writeByte(hasTextDates ? flags | FLAG_TEXT_DATES : flags);
+            out.writeLong(task.getId());
+            writeString(out, task.getDescription());
+            if (hasTextDates) {
+                writeString(out, toFileText(from, event.getFromString()));
+                writeString(out, toFileText(to, event.getToString()));
+            } else {
+                out.writeLong(toEpochSecond(from));
+                out.writeLong(toEpochSecond(to));
+            }
+        } else {
+            out.writeByte(TYPE_TODO);
+            out.writeByte(flags);
+            out.writeLong(task.getId());
+            writeString(out, task.getDescription());
+        }
+    }
+
+    /**
+     * Decodes a binary snapshot.
+     * If the snapshot is truncated, the complete tasks before the damage are returned
+     * and a warning is printed, mirroring how the text loader skips corrupted lines.
+     *
+     * @param buffer The snapshot content, positioned at the magic number.
+     * @return The decoded tasks.
+     * @throws PalloException If the header is invalid or the version is unsupported.
+     */
+    static ArrayList<Task> decode(ByteBuffer buffer) throws PalloException {
+        try {
+            for (byte expected : MAGIC) {
+                if (buffer.get() != expected) {
+                    throw new PalloException("OH NO!!! Not a binary task file.");
+                }
+            }
+            byte version = buffer.get();
+            if (version != VERSION && version != VERSION_WITHOUT_IDS) {
+                throw new PalloException("OH NO!!! Unsupported binary task file version: " + version);
+            }
+            int count = buffer.getInt();
+            ArrayList<Task> tasks = new ArrayList<>(Math.max(0, Math.min(count, buffer.remaining() / 6)));
+            for (int i = 0; i < count; i++) {
+                try {
+                    tasks.add(readTask(buffer, version != VERSION_WITHOUT_IDS));
+                } catch (BufferUnderflowException | PalloException e) {
+                    System.err.println("Warning: Skipping corrupted binary records from task " + (i + 1));
+                    break;
+                }
+            }
+            return tasks;
+        } catch (BufferUnderflowException e) {
+            throw new PalloException("OH NO!!! Binary task file header is truncated.");
+        }
+    }
+
+    private static Task readTask(ByteBuffer buffer, boolean hasId) throws PalloException {
+        byte type = buffer.get();
+        int flags = buffer.get();
+        long id = hasId ? buffer.getLong() : 0;
+        if (id < 0) {
+            throw new PalloException("Invalid task ID: " + id);
+        }
+        String description = StringPool.shared().intern(readString(buffer));
+        boolean hasTextDates = (flags & FLAG_TEXT_DATES) != 0;
+
+        Task task;
+        switch (type) {
+        case TYPE_TODO:
+            task = new Todo(description);
+            break;
+        case TYPE_DEADLINE:
+            if (hasTextDates) {
+                task = Storage.createDeadline(description, readString(buffer));
+            } else {
+                task = new Deadline(description, fromEpochSecond(buffer.getLong()));
+            }
+            break;
+        case TYPE_EVENT:
+            if (hasTextDates) {
+                String from = readString(buffer);
+                String to = readString(buffer);
+                task = Storage.createEvent(description, from, to);
+            } else {
+                LocalDateTime from = fromEpochSecond(buffer.getLong());
+                task = new Event(description, from, fromEpochSecond(buffer.getLong()));
+            }
+            break;
+        default:
+            throw new PalloException("Unknown task type tag: " + type);
+        }
+
+        if ((flags & FLAG_DONE) != 0) {
+            task.markAsDone();
+        }
+        if (id > 0) {
+            task.setId(id);
+        }
+        return task;
+    }
+
+    private static boolean isEncodable(LocalDateTime dateTime) {
+        return dateTime != null && dateTime.getNano() == 0;
+    }
+
+    private static String toFileText(LocalDateTime dateTime, String originalString) {
+        return dateTime != null ? DateParser.formatDateTimeForFile(dateTime) : originalString;
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime fromEpochSecond(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) throws PalloException {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new PalloException("Invalid string length: " + length);
+        }
+        if (buffer.hasArray()) {
+            String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                    StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
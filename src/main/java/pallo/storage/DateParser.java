@@ -3,6 +3,8 @@ package pallo.storage;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.Month;
+import java.time.Year;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 
@@ -12,7 +14,6 @@ import java.time.format.DateTimeParseException;
  * and file storage formatting.
  */
 public class DateParser {
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private static final DateTimeFormatter DISPLAY_DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM dd yyyy");
     private static final DateTimeFormatter DISPLAY_DATETIME_FORMATTER = DateTimeFormatter
             .ofPattern("MMM dd yyyy HH:mm");
@@ -26,71 +27,146 @@ public class DateParser {
      * - d/M/yyyy HHmm (e.g., 2/12/2019 1800)
      * - d/M/yyyy (e.g., 2/12/2019)
      *
-     * If parsing fails, returns null to indicate the string should be kept as-is.
+     * The input is classified and parsed in a single pass over its characters.
+     * ISO dates follow DateTimeFormatter's smart resolving, so a day past the end of
+     * its month is clamped to the last day. If parsing fails, returns null to indicate
+     * the string should be kept as-is.
      */
     public static LocalDateTime parseDateTime(String dateTimeStr) {
-        if (dateTimeStr == null || dateTimeStr.trim().isEmpty()) {
+        if (dateTimeStr == null) {
             return null;
         }
 
-        String trimmed = dateTimeStr.trim();
+        // Trim the same characters as String.trim, without copying
+        int start = 0;
+        int end = dateTimeStr.length();
+        while (start < end && dateTimeStr.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && dateTimeStr.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return null;
+        }
 
-        try {
-            // Try parsing as date only (yyyy-MM-dd)
-            if (trimmed.matches("\\d{4}-\\d{2}-\\d{2}")) {
-                LocalDate date = LocalDate.parse(trimmed, DATE_FORMATTER);
-                return date.atStartOfDay();
-            }
+        if (isIsoDateAt(dateTimeStr, start, end)) {
+            return parseIsoDateTime(dateTimeStr, start, end);
+        }
+        return parseSlashDateTime(dateTimeStr, start, end);
+    }
 
-            // Try parsing as date with time (yyyy-MM-dd HHmm)
-            if (trimmed.matches("\\d{4}-\\d{2}-\\d{2} \\d{4}")) {
-                String[] parts = trimmed.split(" ");
-                LocalDate date = LocalDate.parse(parts[0], DATE_FORMATTER);
-                String timeStr = parts[1];
-                int hour = Integer.parseInt(timeStr.substring(0, 2));
-                int minute = Integer.parseInt(timeStr.substring(2, 4));
-                LocalTime time = LocalTime.of(hour, minute);
-                return LocalDateTime.of(date, time);
-            }
+    private static boolean isIsoDateAt(String s, int start, int end) {
+        return end - start >= 10 && areDigits(s, start, 4) && s.charAt(start + 4) == '-'
+                && areDigits(s, start + 5, 2) && s.charAt(start + 7) == '-' && areDigits(s, start + 8, 2);
+    }
 
-            // Try parsing as date with time (yyyy-MM-dd HH:mm)
-            if (trimmed.matches("\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}")) {
-                String[] parts = trimmed.split(" ");
-                LocalDate date = LocalDate.parse(parts[0], DATE_FORMATTER);
-                LocalTime time = LocalTime.parse(parts[1]);
-                return LocalDateTime.of(date, time);
-            }
+    /**
+     * Parses yyyy-MM-dd, optionally followed by HHmm or HH:mm.
+     */
+    private static LocalDateTime parseIsoDateTime(String s, int start, int end) {
+        int length = end - start;
+        boolean hasCompactTime = length == 15 && s.charAt(start + 10) == ' ' && areDigits(s, start + 11, 4);
+        boolean hasColonTime = length == 16 && s.charAt(start + 10) == ' ' && areDigits(s, start + 11, 2)
+                && s.charAt(start + 13) == ':' && areDigits(s, start + 14, 2);
+        if (length != 10 && !hasCompactTime && !hasColonTime) {
+            return null;
+        }
 
-            // Try parsing as d/M/yyyy HHmm (e.g., 2/12/2019 1800)
-            if (trimmed.matches("\\d{1,2}/\\d{1,2}/\\d{4} \\d{4}")) {
-                String[] parts = trimmed.split(" ");
-                String[] dateParts = parts[0].split("/");
-                int day = Integer.parseInt(dateParts[0]);
-                int month = Integer.parseInt(dateParts[1]);
-                int year = Integer.parseInt(dateParts[2]);
-                LocalDate date = LocalDate.of(year, month, day);
-                String timeStr = parts[1];
-                int hour = Integer.parseInt(timeStr.substring(0, 2));
-                int minute = Integer.parseInt(timeStr.substring(2, 4));
-                LocalTime time = LocalTime.of(hour, minute);
-                return LocalDateTime.of(date, time);
-            }
+        LocalDate date = resolveIsoDate(readNumber(s, start, 4), readNumber(s, start + 5, 2),
+                readNumber(s, start + 8, 2));
+        if (date == null) {
+            return null;
+        }
+        if (length == 10) {
+            return date.atStartOfDay();
+        }
 
-            // Try parsing as d/M/yyyy (e.g., 2/12/2019)
-            if (trimmed.matches("\\d{1,2}/\\d{1,2}/\\d{4}")) {
-                String[] dateParts = trimmed.split("/");
-                int day = Integer.parseInt(dateParts[0]);
-                int month = Integer.parseInt(dateParts[1]);
-                int year = Integer.parseInt(dateParts[2]);
-                LocalDate date = LocalDate.of(year, month, day);
-                return date.atStartOfDay();
-            }
-        } catch (DateTimeParseException | NumberFormatException | ArrayIndexOutOfBoundsException e) {
-            // If parsing fails, return null to keep as string
+        int hour = readNumber(s, start + 11, 2);
+        int minute = readNumber(s, start + (hasCompactTime ? 13 : 14), 2);
+        if (hasColonTime && (hour > 23 || minute > 59)) {
+            return null;
+        }
+        return LocalDateTime.of(date, LocalTime.of(hour, minute));
+    }
+
+    /**
+     * Resolves a yyyy-MM-dd date the way a smart yyyy-MM-dd formatter does, returning null where it would fail.
+     */
+    private static LocalDate resolveIsoDate(int year, int month, int day) {
+        if (year == 0 || month < 1 || month > 12 || day < 1 || day > 31) {
             return null;
         }
+        int lastDay = Month.of(month).length(Year.isLeap(year));
+        return LocalDate.of(year, month, Math.min(day, lastDay));
+    }
+
+    /**
+     * Parses d/M/yyyy, optionally followed by HHmm.
+     */
+    private static LocalDateTime parseSlashDateTime(String s, int start, int end) {
+        int position = start;
+        int dayDigits = countDigits(s, position, end, 2);
+        if (dayDigits == 0 || position + dayDigits >= end || s.charAt(position + dayDigits) != '/') {
+            return null;
+        }
+        int day = readNumber(s, position, dayDigits);
+        position += dayDigits + 1;
 
-        return null;
+        int monthDigits = countDigits(s, position, end, 2);
+        if (monthDigits == 0 || position + monthDigits >= end || s.charAt(position + monthDigits) != '/') {
+            return null;
+        }
+        int month = readNumber(s, position, monthDigits);
+        position += monthDigits + 1;
+
+        if (countDigits(s, position, end, 4) != 4) {
+            return null;
+        }
+        int year = readNumber(s, position, 4);
+        position += 4;
+
+        if (position == end) {
+            return LocalDate.of(year, month, day).atStartOfDay();
+        }
+        if (end - position != 5 || s.charAt(position) != ' ' || !areDigits(s, position + 1, 4)) {
+            return null;
+        }
+        LocalDate date = LocalDate.of(year, month, day);
+        LocalTime time = LocalTime.of(readNumber(s, position + 1, 2), readNumber(s, position + 3, 2));
+        return LocalDateTime.of(date, time);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean areDigits(String s, int start, int count) {
+        for (int i = start; i < start + count; i++) {
+            if (!isDigit(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Counts the digits starting at the given index, stopping at the end or after max digits.
+     */
+    private static int countDigits(String s, int start, int end, int max) {
+        int count = 0;
+        while (count < max && start + count < end && isDigit(s.charAt(start + count))) {
+            count++;
+        }
+        return count;
+    }
+
+    private static int readNumber(String s, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            value = value * 10 + (s.charAt(i) - '0');
+        }
+        return value;
     }
 
     /**
@@ -0,0 +1,34 @@
+package pallo.storage;
+
+/**
+ * Controls how hard Storage works to make a save survive crashes.
+ * Stronger levels are slower, so throughput-sensitive deployments can trade
+ * durability for speed.
+ */
+public enum Durability {
+    /** Overwrites the file in place. A crash mid-write can lose the task list. */
+    NONE,
+    /** Writes a temp file and atomically renames it. Survives process crashes. */
+    FLUSH,
+    /** Like FLUSH, but also forces the data to disk. Survives power loss. */
+    FSYNC;
+
+    /**
+     * Returns the durability level with the given name, ignoring case.
+     *
+     * @param name         The name of the level, e.g. "fsync".
+     * @param defaultLevel The level to use if the name is null or unknown.
+     * @return The matching durability level.
+     */
+    public static Durability fromName(String name, Durability defaultLevel) {
+        if (name == null) {
+            return defaultLevel;
+        }
+        for (Durability level : values()) {
+            if (level.name().equalsIgnoreCase(name.trim())) {
+                return level;
+            }
+        }
+        return defaultLevel;
+    }
+}
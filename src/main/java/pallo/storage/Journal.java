@@ -0,0 +1,191 @@
+package pallo.storage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import pallo.exception.PalloException;
+import pallo.task.Task;
+
+/**
+ * An append-only log of task list mutations stored next to the snapshot file.
+ * The first line records the checksum of the snapshot the journal applies on top of,
+ * and every following line is one {@link JournalEntry} record.
+ */
+class Journal {
+    private static final String BASE_PREFIX = "S | ";
+    private static final long NO_BASE = -1;
+
+    private final Path path;
+    private FileChannel channel;
+    private Durability durability = Durability.FSYNC;
+    private long sizeInBytes;
+
+    /**
+     * Constructs a Journal backed by the given file.
+     *
+     * @param path The path of the journal file.
+     */
+    Journal(Path path) {
+        this.path = path;
+    }
+
+    boolean exists() {
+        return Files.exists(path);
+    }
+
+    boolean isOpen() {
+        return channel != null;
+    }
+
+    void setDurability(Durability durability) {
+        this.durability = durability;
+    }
+
+    long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    /**
+     * Reads the snapshot checksum this journal was started on.
+     *
+     * @return The base checksum, or -1 if the journal has no valid base line.
+     * @throws IOException If the journal cannot be read.
+     */
+    long readBase() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String firstLine = reader.readLine();
+            if (firstLine == null || !firstLine.startsWith(BASE_PREFIX)) {
+                return NO_BASE;
+            }
+            try {
+                return Long.parseLong(firstLine.substring(BASE_PREFIX.length()).trim());
+            } catch (NumberFormatException e) {
+                return NO_BASE;
+            }
+        }
+    }
+
+    /**
+     * Replays every record of this journal onto the given tasks.
+     * Corrupted records, such as a partially written last line, are skipped with a warning.
+     *
+     * @param tasks The tasks loaded from the snapshot.
+     * @return The number of records applied.
+     * @throws IOException If the journal cannot be read.
+     */
+    int replay(List<Task> tasks) throws IOException {
+        int applied = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            int lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 || line.trim().isEmpty()) {
+                    continue;
+                }
+                try {
+                    JournalEntry.parse(line).applyTo(tasks);
+                    applied++;
+                } catch (PalloException | RuntimeException e) {
+                    System.err.println("Warning: Skipping corrupted journal record " + lineNumber + ": " + line);
+                }
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Starts a fresh, empty journal on top of the snapshot with the given checksum.
+     * Any existing journal content at this path is discarded.
+     *
+     * @param baseChecksum The checksum of the snapshot this journal applies to.
+     * @throws IOException If the journal cannot be created.
+     */
+    void start(long baseChecksum) throws IOException {
+        close();
+        channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        sizeInBytes = 0;
+        writeLine(BASE_PREFIX + baseChecksum);
+    }
+
+    /**
+     * Reopens an existing journal for appending.
+     *
+     * @throws IOException If the journal cannot be opened.
+     */
+    void open() throws IOException {
+        close();
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        sizeInBytes = channel.size();
+    }
+
+    /**
+     * Appends one record to the journal.
+     * The record is always handed to the operating system, and is also forced
+     * to disk when the durability level is {@link Durability#FSYNC}.
+     *
+     * @param entry The entry to append.
+     * @throws IOException If the record cannot be written.
+     */
+    void append(JournalEntry entry) throws IOException {
+        assert channel != null : "Journal should be open before appending";
+        writeLine(entry.toRecordString());
+    }
+
+    private void writeLine(String line) throws IOException {
+        byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        if (durability == Durability.FSYNC) {
+            channel.force(false);
+        }
+        sizeInBytes += bytes.length;
+    }
+
+    /**
+     * Closes the journal and renames its file to the given path, replacing any file there.
+     * This journal must be started again before further appends.
+     *
+     * @param target The new path of the journal file.
+     * @throws IOException If the journal cannot be renamed.
+     */
+    void moveTo(Path target) throws IOException {
+        close();
+        Files.move(path, target, StandardCopyOption.REPLACE_EXISTING);
+        sizeInBytes = 0;
+    }
+
+    /**
+     * Closes and deletes the journal file if it exists.
+     *
+     * @throws IOException If the journal cannot be deleted.
+     */
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+        sizeInBytes = 0;
+    }
+
+    /**
+     * Closes the journal file if it is open.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+}
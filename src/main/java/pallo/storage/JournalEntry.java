@@ -0,0 +1,164 @@
+package pallo.storage;
+
+import java.util.List;
+
+import pallo.exception.PalloException;
+import pallo.task.Task;
+
+/**
+ * Represents a single mutation of the task list recorded in the journal.
+ * Each entry is stored as one pipe-delimited line, e.g. {@code A | T | 0 | read book}
+ * for an added task or {@code M | 3} for marking the task at index 3 as done.
+ */
+public class JournalEntry {
+    /**
+     * The kinds of mutations that can be recorded in the journal.
+     */
+    public enum Operation {
+        ADD('A'),
+        DELETE('D'),
+        MARK('M'),
+        UNMARK('U');
+
+        private final char code;
+
+        Operation(char code) {
+            this.code = code;
+        }
+
+        private static Operation fromCode(char code) throws PalloException {
+            for (Operation operation : values()) {
+                if (operation.code == code) {
+                    return operation;
+                }
+            }
+            throw new PalloException("Unknown journal operation: " + code);
+        }
+    }
+
+    private static final String SEPARATOR = " | ";
+
+    private final Operation operation;
+    private final String payload;
+
+    private JournalEntry(Operation operation, String payload) {
+        this.operation = operation;
+        this.payload = payload;
+    }
+
+    /**
+     * Creates an entry recording that a task was appended to the list.
+     *
+     * @param task The task that was added.
+     * @return The journal entry.
+     */
+    public static JournalEntry add(Task task) {
+        assert task != null : "Added task should not be null";
+        return new JournalEntry(Operation.ADD, task.toFileString());
+    }
+
+    /**
+     * Creates an entry recording that the task at the given index was deleted.
+     *
+     * @param index The zero-based index of the deleted task.
+     * @return The journal entry.
+     */
+    public static JournalEntry delete(int index) {
+        return new JournalEntry(Operation.DELETE, String.valueOf(index));
+    }
+
+    /**
+     * Creates an entry recording that the task at the given index was marked as done.
+     *
+     * @param index The zero-based index of the marked task.
+     * @return The journal entry.
+     */
+    public static JournalEntry mark(int index) {
+        return new JournalEntry(Operation.MARK, String.valueOf(index));
+    }
+
+    /**
+     * Creates an entry recording that the task at the given index was marked as not done.
+     *
+     * @param index The zero-based index of the unmarked task.
+     * @return The journal entry.
+     */
+    public static JournalEntry unmark(int index) {
+        return new JournalEntry(Operation.UNMARK, String.valueOf(index));
+    }
+
+    /**
+     * Parses a journal entry from its record line.
+     *
+     * @param record The record line as written by {@link #toRecordString()}.
+     * @return The parsed journal entry.
+     * @throws PalloException If the record is malformed.
+     */
+    public static JournalEntry parse(String record) throws PalloException {
+        if (record.length() <= SEPARATOR.length() || !record.startsWith(SEPARATOR, 1)) {
+            throw new PalloException("Invalid journal record");
+        }
+        Operation operation = Operation.fromCode(record.charAt(0));
+        return new JournalEntry(operation, record.substring(1 + SEPARATOR.length()));
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    /**
+     * Returns the index of the task that this entry deletes, marks or unmarks.
+     *
+     * @return The zero-based task index.
+     * @throws PalloException If the entry does not hold a valid index.
+     */
+    int getTaskIndex() throws PalloException {
+        assert operation != Operation.ADD : "Added tasks are recorded by content, not index";
+        try {
+            return Integer.parseInt(payload.trim());
+        } catch (NumberFormatException e) {
+            throw new PalloException("Invalid journal task index: " + payload);
+        }
+    }
+
+    /**
+     * Returns the record line for this entry, without a line terminator.
+     *
+     * @return The record string.
+     */
+    public String toRecordString() {
+        return operation.code + SEPARATOR + payload;
+    }
+
+    /**
+     * Applies this entry to the given list of tasks.
+     *
+     * @param tasks The tasks to mutate.
+     * @throws PalloException If the entry cannot be applied to the list.
+     */
+    public void applyTo(List<Task> tasks) throws PalloException {
+        if (operation == Operation.ADD) {
+            tasks.add(Storage.parseTaskFromFile(payload));
+            return;
+        }
+
+        int index = getTaskIndex();
+        if (index < 0 || index >= tasks.size()) {
+            throw new PalloException("Journal task index out of range: " + index);
+        }
+
+        switch (operation) {
+        case DELETE:
+            tasks.remove(index);
+            break;
+        case MARK:
+            tasks.get(index).markAsDone();
+            break;
+        case UNMARK:
+            tasks.get(index).markAsNotDone();
+            break;
+        default:
+            throw new PalloException("Unsupported journal operation: " + operation);
+        }
+    }
+}
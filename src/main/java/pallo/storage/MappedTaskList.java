@@ -0,0 +1,319 @@
+package pallo.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+import pallo.exception.PalloException;
+import pallo.task.Task;
+import pallo.task.TaskIdSequence;
+
+/**
+ * A list of tasks backed by a memory-mapped text task file.
+ * Only the byte range of each record is indexed up front; a Task is decoded the
+ * first time it is accessed and cached from then on, so that changes to it stick.
+ * Tasks added after loading are simply stored in decoded form.
+ *
+ * <p>Records are validated while building the index, so corrupted lines are
+ * reported with their line numbers at load time, exactly as the eager loader does.
+ * Task IDs are read at the same time, so a TaskList can continue the numbering
+ * without decoding any task.
+ */
+class MappedTaskList extends AbstractList<Task> implements RandomAccess, TaskIdSequence {
+    private static final byte[] SEPARATOR = {' ', '|', ' '};
+    private static final int NOT_MAPPED = -1;
+    private static final int MAX_ID_DIGITS = 18;
+
+    private final ByteBuffer content;
+    private int[] starts;
+    private int[] ends;
+    private Task[] decoded;
+    private int size;
+    private long maxTaskId;
+    private int tasksWithoutIds;
+
+    private MappedTaskList(ByteBuffer content, int capacity) {
+        this.content = content;
+        this.starts = new int[capacity];
+        this.ends = new int[capacity];
+        this.decoded = new Task[capacity];
+    }
+
+    /**
+     * Maps the given text task file and indexes its records.
+     *
+     * @param filePath The path of the task file, which must be smaller than 2 GiB.
+     * @return The lazily decoded task list.
+     * @throws IOException If the file cannot be mapped.
+     */
+    static MappedTaskList map(Path filePath) throws IOException {
+        MappedByteBuffer content;
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("File is too large to map: " + channel.size() + " bytes");
+            }
+            content = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        MappedTaskList tasks = new MappedTaskList(content, 16);
+        tasks.buildIndex();
+        return tasks;
+    }
+
+    private void buildIndex() {
+        int limit = content.limit();
+        int lineNumber = 0;
+        int lineStart = 0;
+        while (lineStart < limit) {
+            lineNumber++;
+            int lineEnd = lineStart;
+            while (lineEnd < limit && content.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            indexLine(lineStart, lineEnd, lineNumber);
+            lineStart = lineEnd + 1;
+        }
+    }
+
+    private void indexLine(int lineStart, int lineEnd, int lineNumber) {
+        // Trim exactly like String.trim(), which only removes single-byte characters
+        int start = lineStart;
+        int end = lineEnd;
+        while (start < end && (content.get(start) & 0xFF) <= ' ') {
+            start++;
+        }
+        while (end > start && (content.get(end - 1) & 0xFF) <= ' ') {
+            end--;
+        }
+
+        // Skip empty lines
+        if (start == end) {
+            return;
+        }
+
+        long id = 0;
+        int recordStart = start;
+        if (content.get(start) == '#') {
+            int idEnd = indexOfSeparator(start, end);
+            id = idEnd == NOT_MAPPED ? -1 : readId(start + 1, idEnd);
+            recordStart = idEnd + SEPARATOR.length;
+        }
+
+        if (id < 0 || !isWellFormed(recordStart, end)) {
+            // Handle corrupted lines gracefully - skip them and continue
+            System.err.println("Warning: Skipping corrupted line " + lineNumber + ": " + decodeString(start, end));
+            return;
+        }
+        ensureCapacity(size + 1);
+        starts[size] = start;
+        ends[size] = end;
+        size++;
+        recordId(id);
+    }
+
+    /**
+     * Reads the ID between the {@code #} marker and the first separator, following
+     * {@link Storage#parseTaskId} after trimming.
+     *
+     * @return The ID, or -1 if it is not valid.
+     */
+    private long readId(int start, int end) {
+        while (start < end && (content.get(start) & 0xFF) <= ' ') {
+            start++;
+        }
+        while (end > start && (content.get(end - 1) & 0xFF) <= ' ') {
+            end--;
+        }
+        if (start == end || end - start > MAX_ID_DIGITS) {
+            return -1;
+        }
+        long id = 0;
+        for (int position = start; position < end; position++) {
+            byte digit = content.get(position);
+            if (digit < '0' || digit > '9') {
+                return -1;
+            }
+            id = id * 10 + (digit - '0');
+        }
+        return id == 0 ? -1 : id;
+    }
+
+    private int indexOfSeparator(int start, int end) {
+        for (int position = start; position <= end - SEPARATOR.length; position++) {
+            if (isSeparatorAt(position)) {
+                return position;
+            }
+        }
+        return NOT_MAPPED;
+    }
+
+    private void recordId(long id) {
+        if (id == 0) {
+            tasksWithoutIds++;
+        }
+        maxTaskId = Math.max(maxTaskId, id);
+    }
+
+    /**
+     * Returns the largest ID of any task that has been in the list. Removed tasks
+     * still count, which only means a TaskList will not reuse their IDs.
+     *
+     * @return The largest task ID, or 0 if no task has had one.
+     */
+    @Override
+    public long getMaxTaskId() {
+        return maxTaskId;
+    }
+
+    @Override
+    public boolean hasAllTaskIds() {
+        return tasksWithoutIds == 0;
+    }
+
+    /**
+     * Checks the record has a known type tag and the matching number of fields,
+     * which are the only ways {@link Storage#parseTaskFromFile} can reject a line.
+     */
+    private boolean isWellFormed(int start, int end) {
+        int separators = 0;
+        int firstSeparator = NOT_MAPPED;
+        int position = start;
+        while (position <= end - SEPARATOR.length) {
+            if (isSeparatorAt(position)) {
+                if (firstSeparator == NOT_MAPPED) {
+                    firstSeparator = position;
+                }
+                separators++;
+                position += SEPARATOR.length;
+            } else {
+                position++;
+            }
+        }
+        if (separators < 2) {
+            return false;
+        }
+
+        int typeStart = start;
+        int typeEnd = firstSeparator;
+        while (typeStart < typeEnd && (content.get(typeStart) & 0xFF) <= ' ') {
+            typeStart++;
+        }
+        while (typeEnd > typeStart && (content.get(typeEnd - 1) & 0xFF) <= ' ') {
+            typeEnd--;
+        }
+        if (typeEnd - typeStart != 1) {
+            return false;
+        }
+        switch (content.get(typeStart)) {
+        case 'T':
+            return separators == 2;
+        case 'D':
+            return separators == 3;
+        case 'E':
+            return separators == 4;
+        default:
+            return false;
+        }
+    }
+
+    private boolean isSeparatorAt(int position) {
+        for (int i = 0; i < SEPARATOR.length; i++) {
+            if (content.get(position + i) != SEPARATOR[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String decodeString(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        content.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > starts.length) {
+            int newCapacity = Math.max(capacity, starts.length + (starts.length >> 1));
+            starts = Arrays.copyOf(starts, newCapacity);
+            ends = Arrays.copyOf(ends, newCapacity);
+            decoded = Arrays.copyOf(decoded, newCapacity);
+        }
+    }
+
+    /**
+     * Returns the number of records that have not been decoded yet.
+     *
+     * @return The count of tasks still only present in the mapped file.
+     */
+    int countUndecoded() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (decoded[i] == null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public Task get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        Task task = decoded[index];
+        if (task == null) {
+            String line = decodeString(starts[index], ends[index]);
+            try {
+                task = Storage.parseTaskFromFile(line);
+            } catch (PalloException e) {
+                throw new IllegalStateException("Record was validated when indexing: " + line, e);
+            }
+            decoded[index] = task;
+        }
+        return task;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        ensureCapacity(size + 1);
+        System.arraycopy(starts, index, starts, index + 1, size - index);
+        System.arraycopy(ends, index, ends, index + 1, size - index);
+        System.arraycopy(decoded, index, decoded, index + 1, size - index);
+        starts[index] = NOT_MAPPED;
+        ends[index] = NOT_MAPPED;
+        decoded[index] = task;
+        size++;
+        modCount++;
+        recordId(task.getId());
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task task = get(index);
+        if (task.getId() == 0) {
+            tasksWithoutIds--;
+        }
+        int moved = size - index - 1;
+        System.arraycopy(starts, index + 1, starts, index, moved);
+        System.arraycopy(ends, index + 1, ends, index, moved);
+        System.arraycopy(decoded, index + 1, decoded, index, moved);
+        size--;
+        decoded[size] = null;
+        modCount++;
+        return task;
+    }
+}
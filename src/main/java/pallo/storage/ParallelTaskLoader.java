@@ -0,0 +1,143 @@
+package pallo.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import pallo.task.Task;
+
+/**
+ * Loads large text task files by decoding newline-aligned chunks in parallel.
+ * Each chunk is parsed on the common fork-join pool with the same rules as the
+ * sequential loader, and the results are stitched back together in file order.
+ * Warnings for corrupted lines are printed after stitching, in order and with
+ * their line numbers in the whole file.
+ */
+class ParallelTaskLoader {
+    private static final int MIN_CHUNK_SIZE = 256 * 1024;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private ParallelTaskLoader() {
+    }
+
+    /**
+     * Loads every task in the given text file.
+     *
+     * @param filePath The path of the task file, which must be smaller than 2 GiB.
+     * @return The tasks in file order.
+     * @throws IOException If the file cannot be read.
+     */
+    static ArrayList<Task> load(Path filePath) throws IOException {
+        ByteBuffer content;
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("File is too large to map: " + channel.size() + " bytes");
+            }
+            content = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        List<ChunkParser> chunks = splitIntoChunks(content);
+        ForkJoinTask.invokeAll(chunks);
+
+        ArrayList<Task> tasks = new ArrayList<>();
+        int baseLineNumber = 0;
+        for (ChunkParser chunk : chunks) {
+            ChunkResult result = chunk.join();
+            for (int i = 0; i < result.corruptedLineNumbers.size(); i++) {
+                System.err.println("Warning: Skipping corrupted line "
+                        + (baseLineNumber + result.corruptedLineNumbers.get(i)) + ": "
+                        + result.corruptedLines.get(i));
+            }
+            tasks.addAll(result.tasks);
+            baseLineNumber += result.lineCount;
+        }
+        return tasks;
+    }
+
+    private static List<ChunkParser> splitIntoChunks(ByteBuffer content) {
+        int limit = content.limit();
+        int targetChunks = ForkJoinPool.getCommonPoolParallelism() * CHUNKS_PER_THREAD;
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, limit / Math.max(1, targetChunks));
+
+        List<ChunkParser> chunks = new ArrayList<>();
+        int start = 0;
+        while (start < limit) {
+            int end = (int) Math.min((long) start + chunkSize, limit);
+            // Extend the chunk to just past the next newline so no line is split
+            while (end < limit && content.get(end - 1) != '\n') {
+                end++;
+            }
+            chunks.add(new ChunkParser(content, start, end));
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * The tasks and corrupted lines found in one chunk, with chunk-relative line numbers.
+     */
+    private static class ChunkResult {
+        private final ArrayList<Task> tasks = new ArrayList<>();
+        private final ArrayList<Integer> corruptedLineNumbers = new ArrayList<>();
+        private final ArrayList<String> corruptedLines = new ArrayList<>();
+        private int lineCount;
+    }
+
+    /**
+     * Parses the lines in one byte range of the file.
+     */
+    private static class ChunkParser extends RecursiveTask<ChunkResult> {
+        private final ByteBuffer content;
+        private final int start;
+        private final int end;
+
+        ChunkParser(ByteBuffer content, int start, int end) {
+            this.content = content;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected ChunkResult compute() {
+            ChunkResult result = new ChunkResult();
+            int lineStart = start;
+            while (lineStart < end) {
+                int lineEnd = lineStart;
+                while (lineEnd < end && content.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                result.lineCount++;
+                parseLine(lineStart, lineEnd, result);
+                lineStart = lineEnd + 1;
+            }
+            return result;
+        }
+
+        private void parseLine(int lineStart, int lineEnd, ChunkResult result) {
+            byte[] bytes = new byte[lineEnd - lineStart];
+            content.get(lineStart, bytes);
+            String line = new String(bytes, StandardCharsets.UTF_8).trim();
+
+            // Skip empty lines
+            if (line.isEmpty()) {
+                return;
+            }
+
+            try {
+                result.tasks.add(Storage.parseTaskFromFile(line));
+            } catch (Exception e) {
+                // Handle corrupted lines gracefully - report them once the chunks are stitched
+                result.corruptedLineNumbers.add(result.lineCount);
+                result.corruptedLines.add(line);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package pallo.storage;
+
+import java.util.Arrays;
+
+/**
+ * Remembers where each task record sits in a text storage file, so that a change to a
+ * few tasks can be written over just their records instead of rewriting the file.
+ * Each record is one line, and the line separator is not counted in its length.
+ */
+class RecordLayout {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int separatorLength;
+    private long[] starts;
+    private int[] lengths;
+    private int size;
+    private long fileLength;
+
+    private RecordLayout(int separatorLength) {
+        this.separatorLength = separatorLength;
+        this.starts = new long[INITIAL_CAPACITY];
+        this.lengths = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Indexes the records of a text snapshot in which every record ends with a line separator.
+     *
+     * @param content         The snapshot, as written to the file.
+     * @param separatorLength The length in bytes of the line separator after each record.
+     * @return The layout of the snapshot.
+     */
+    static RecordLayout scan(byte[] content, int separatorLength) {
+        assert content.length == 0 || content[content.length - 1] == '\n' : "Snapshot should end with a line break";
+        RecordLayout layout = new RecordLayout(separatorLength);
+        int lineStart = 0;
+        for (int i = 0; i < content.length; i++) {
+            if (content[i] == '\n') {
+                layout.append(lineStart, i + 1 - lineStart - separatorLength);
+                lineStart = i + 1;
+            }
+        }
+        layout.fileLength = content.length;
+        return layout;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long getFileLength() {
+        return fileLength;
+    }
+
+    /**
+     * Returns the offset of the given record in the file.
+     *
+     * @param index The index of the record, or the record count for the end of the file.
+     * @return The offset in bytes.
+     */
+    long getStart(int index) {
+        assert index >= 0 && index <= size : "Record index should be within the layout";
+        return index == size ? fileLength : starts[index];
+    }
+
+    int getLength(int index) {
+        return lengths[index];
+    }
+
+    /**
+     * Replaces every record from the given index onwards, after they were rewritten
+     * back to back from that record's offset to the new end of the file.
+     *
+     * @param index         The index of the first rewritten record.
+     * @param recordLengths The lengths of the rewritten records, without line separators.
+     */
+    void replaceTail(int index, int[] recordLengths) {
+        long position = getStart(index);
+        size = index;
+        for (int length : recordLengths) {
+            append(position, length);
+            position += length + separatorLength;
+        }
+        fileLength = position;
+    }
+
+    private void append(long start, int length) {
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            lengths = Arrays.copyOf(lengths, size * 2);
+        }
+        starts[size] = start;
+        lengths[size] = length;
+        size++;
+    }
+}
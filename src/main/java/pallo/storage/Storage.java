@@ -1,18 +1,36 @@
 package pallo.storage;
 
+import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
 
 import pallo.exception.PalloException;
+import pallo.metrics.Metrics;
+import pallo.metrics.StorageEvent;
 import pallo.task.Deadline;
 import pallo.task.Event;
+import pallo.task.StringPool;
 import pallo.task.Task;
 import pallo.task.TaskStatus;
 import pallo.task.Todo;
@@ -21,9 +39,49 @@ import pallo.task.Todo;
  * Handles loading and saving of tasks to a file.
  * Tasks are persisted in a pipe-delimited text format that includes
  * task type, status, description, and any date/time fields.
+ *
+ * <p>In journal mode, each mutation is appended to a small log file next to the
+ * snapshot instead of rewriting the whole file. The log is replayed on top of the
+ * snapshot when loading, and is folded into a new snapshot in the background once
+ * it grows past the compaction threshold.
+ *
+ * <p>Snapshots are written according to the configured {@link Durability} level.
+ * By default, a snapshot is written to a temp file, forced to disk, and atomically
+ * renamed over the storage file, so a crash mid-save never loses the task list.
+ *
+ * <p>With incremental saves, a text file that still holds exactly what was last loaded
+ * or saved is not rewritten for each change. Marking a task overwrites only its record
+ * when the record keeps its length, and adding or deleting a task rewrites only the
+ * records after it. These writes go straight into the storage file rather than through
+ * a temp file, so a crash can leave the rewritten records torn; changes that would
+ * rewrite more than half of the file are saved whole instead.
  */
 public class Storage {
+    private static final long DEFAULT_COMPACTION_THRESHOLD = 1024 * 1024;
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String OLD_JOURNAL_SUFFIX = ".journal.old";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final long DEFAULT_PARALLEL_LOAD_THRESHOLD = 8 * 1024 * 1024;
+    private static final String ID_MARKER = "#";
+    private static final String FIELD_SEPARATOR = " | ";
+    private static final int MAX_ID_DIGITS = 18;
+    private static final double MAX_INCREMENTAL_FRACTION = 0.5;
+
     private final Path filePath;
+    private final boolean isJournalEnabled;
+    private final Journal journal;
+    private final Journal oldJournal;
+    private final Path oldJournalPath;
+    private ExecutorService compactionExecutor;
+    private Future<?> pendingCompaction;
+    private long compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+    private Durability durability = Durability.FSYNC;
+    private StorageFormat format = StorageFormat.TEXT;
+    private long parallelLoadThreshold = DEFAULT_PARALLEL_LOAD_THRESHOLD;
+    private boolean isIncrementalSaveEnabled;
+    /** Where each record of the file is, or null if the next change must save the whole file. */
+    private RecordLayout layout;
 
     /**
      * Constructs a Storage instance with the specified file path.
@@ -31,32 +89,231 @@ public class Storage {
      * @param filePath The path to the file where tasks will be stored.
      */
     public Storage(String filePath) {
+        this(filePath, false);
+    }
+
+    /**
+     * Constructs a Storage instance with the specified file path and journal mode.
+     *
+     * @param filePath         The path to the file where tasks will be stored.
+     * @param isJournalEnabled True to append mutations to a journal instead of rewriting the file.
+     */
+    public Storage(String filePath, boolean isJournalEnabled) {
         this.filePath = Paths.get(filePath);
+        this.isJournalEnabled = isJournalEnabled;
+        this.journal = new Journal(Paths.get(filePath + JOURNAL_SUFFIX));
+        this.oldJournalPath = Paths.get(filePath + OLD_JOURNAL_SUFFIX);
+        this.oldJournal = new Journal(oldJournalPath);
+    }
+
+    public boolean isJournalEnabled() {
+        return isJournalEnabled;
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    /**
+     * Sets how hard saves work to survive crashes.
+     *
+     * @param durability The durability level for snapshots and journal appends.
+     */
+    public void setDurability(Durability durability) {
+        assert durability != null : "Durability should not be null";
+        this.durability = durability;
+        journal.setDurability(durability);
+    }
+
+    public StorageFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Sets the format that snapshots are written in.
+     * Loading always detects the format of the existing file.
+     *
+     * @param format The format for subsequent saves.
+     */
+    public void setFormat(StorageFormat format) {
+        assert format != null : "Storage format should not be null";
+        this.format = format;
+    }
+
+    /**
+     * Sets whether changes persisted outside journal mode rewrite only the records they
+     * affect, when the file is in the text format. Takes effect from the next load or save.
+     *
+     * @param isEnabled True to write changes incrementally.
+     */
+    public void setIncrementalSaves(boolean isEnabled) {
+        this.isIncrementalSaveEnabled = isEnabled;
+        if (!isEnabled) {
+            layout = null;
+        }
+    }
+
+    /**
+     * Sets the text file size from which {@link #load()} decodes the file in parallel chunks.
+     *
+     * @param bytes The minimum file size in bytes for parallel loading.
+     */
+    public void setParallelLoadThreshold(long bytes) {
+        this.parallelLoadThreshold = bytes;
+    }
+
+    /**
+     * Sets the journal size after which the journal is folded into a new snapshot.
+     *
+     * @param bytes The compaction threshold in bytes.
+     */
+    public void setCompactionThreshold(long bytes) {
+        assert bytes > 0 : "Compaction threshold should be positive";
+        this.compactionThreshold = bytes;
     }
 
     /**
      * Loads tasks from the storage file.
      * Creates the directory if it doesn't exist. Returns an empty list if
      * the file doesn't exist. Skips corrupted lines gracefully.
+     * Any journal left next to the file is replayed on top of the loaded tasks.
      *
      * @return An ArrayList of tasks loaded from the file.
      * @throws PalloException If there is an error reading the file.
      */
     public ArrayList<Task> load() throws PalloException {
-        ArrayList<Task> tasks = new ArrayList<>();
+        long start = Metrics.startTimer();
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        createDataDirectory();
 
-        // Create directory if it doesn't exist
+        ArrayList<Task> tasks = loadSnapshot();
+        layout = isIncrementalSaveEnabled ? readLayout(tasks) : null;
+        replayAndOpenJournal(tasks);
+        Metrics.LOAD.recordSince(start);
+        if (event.shouldCommit()) {
+            describeEvent(event, "load", fileSize(), tasks.size());
+            event.commit();
+        }
+        return tasks;
+    }
+
+    /**
+     * Reads the tasks of an existing storage file, with the changes in any journal left
+     * next to it, without changing anything on disk: unlike {@link #load()}, it creates
+     * no directory, neither opens, folds nor deletes a journal, and never saves the file.
+     * This suits tools that only read a file another Pallo owns, such as the converter.
+     *
+     * @return The tasks in the file.
+     * @throws PalloException If the file does not exist or cannot be read.
+     */
+    public ArrayList<Task> read() throws PalloException {
+        if (!Files.exists(filePath)) {
+            throw new PalloException("OH NO!!! There is no task file at " + filePath + ".");
+        }
+        ArrayList<Task> tasks = loadSnapshot();
         try {
-            Files.createDirectories(filePath.getParent());
+            replayJournals(tasks, false);
         } catch (IOException e) {
-            throw new PalloException("OH NO!!! Failed to create data directory: " + e.getMessage());
+            throw new PalloException("OH NO!!! Error reading journal: " + e.getMessage());
+        }
+        return tasks;
+    }
+
+    /**
+     * Loads tasks from the storage file without decoding them up front.
+     * A text file is memory-mapped and only the position of each record is indexed;
+     * each task is decoded the first time it is accessed. Binary files, and files
+     * too large to map, are loaded eagerly as by {@link #load()}.
+     *
+     * @return A list of tasks backed by the storage file.
+     * @throws PalloException If there is an error reading the file.
+     */
+    public List<Task> loadLazily() throws PalloException {
+        long start = Metrics.startTimer();
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        createDataDirectory();
+
+        if (!Files.exists(filePath) || isBinaryFile()) {
+            return load();
         }
+        // Mapped tasks are decoded from the file, so it is only written in place once a save has decoded them all
+        layout = null;
+
+        List<Task> tasks;
+        try {
+            tasks = MappedTaskList.map(filePath);
+        } catch (IOException e) {
+            System.err.println("Warning: Cannot map " + filePath + ", loading eagerly: " + e.getMessage());
+            return load();
+        }
+        replayAndOpenJournal(tasks);
+        Metrics.LOAD.recordSince(start);
+        if (event.shouldCommit()) {
+            describeEvent(event, "lazy load", fileSize(), tasks.size());
+            event.commit();
+        }
+        return tasks;
+    }
+
+    private void describeEvent(StorageEvent event, String operation, long bytes, int taskCount) {
+        event.describe(operation, filePath.toString(), bytes, taskCount, format.name(), durability.name());
+    }
+
+    private long fileSize() {
+        try {
+            return Files.exists(filePath) ? Files.size(filePath) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private void replayAndOpenJournal(List<Task> tasks) throws PalloException {
+        boolean hasReplayedJournal = false;
+        try {
+            if (journal.exists() || oldJournal.exists()) {
+                hasReplayedJournal = replayJournals(tasks, true);
+            }
+            if (isJournalEnabled && !journal.isOpen()) {
+                openJournal();
+            }
+        } catch (IOException e) {
+            throw new PalloException("OH NO!!! Error reading journal: " + e.getMessage());
+        }
+
+        // Fold leftover journal records into the snapshot when journal mode is off
+        if (hasReplayedJournal && !isJournalEnabled) {
+            save(tasks);
+        }
+    }
+
+    private ArrayList<Task> loadSnapshot() throws PalloException {
+        ArrayList<Task> tasks = new ArrayList<>();
 
         // If file doesn't exist, return empty list
         if (!Files.exists(filePath)) {
             return tasks;
         }
 
+        if (isBinaryFile()) {
+            try {
+                return BinaryTaskCodec.decode(ByteBuffer.wrap(Files.readAllBytes(filePath)));
+            } catch (IOException e) {
+                throw new PalloException("OH NO!!! Error reading file: " + e.getMessage());
+            }
+        }
+
+        // Decode large files in parallel chunks
+        try {
+            long size = Files.size(filePath);
+            if (size >= parallelLoadThreshold && size <= Integer.MAX_VALUE) {
+                return ParallelTaskLoader.load(filePath);
+            }
+        } catch (IOException e) {
+            throw new PalloException("OH NO!!! Error reading file: " + e.getMessage());
+        }
+
         // Read and parse file
         try (Scanner scanner = new Scanner(filePath)) {
             int lineNumber = 0;
@@ -89,32 +346,402 @@ public class Storage {
         return tasks;
     }
 
+    private boolean isBinaryFile() throws PalloException {
+        try (InputStream in = Files.newInputStream(filePath)) {
+            return BinaryTaskCodec.hasMagic(in.readNBytes(4));
+        } catch (IOException e) {
+            throw new PalloException("OH NO!!! Error reading file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replays the journals onto the tasks loaded from the snapshot.
+     * A journal is only replayed if it was started on the snapshot currently on disk,
+     * or if it directly follows an older journal that was replayed; any other journal is
+     * ignored, and deleted if allowed.
+     *
+     * @param canDeleteStale Whether a journal that does not match the snapshot may be deleted.
+     * @return True if any journal was replayed.
+     */
+    private boolean replayJournals(List<Task> tasks, boolean canDeleteStale) throws IOException {
+        long snapshotChecksum = checksum(Files.exists(filePath) ? Files.readAllBytes(filePath) : new byte[0]);
+        boolean hasReplayedOld = false;
+        if (oldJournal.exists() && oldJournal.readBase() == snapshotChecksum) {
+            oldJournal.replay(tasks);
+            hasReplayedOld = true;
+        }
+        boolean hasReplayedCurrent = false;
+        if (journal.exists()) {
+            if (hasReplayedOld || journal.readBase() == snapshotChecksum) {
+                journal.replay(tasks);
+                hasReplayedCurrent = true;
+            } else {
+                System.err.println("Warning: Ignoring journal that does not match " + filePath);
+                if (canDeleteStale) {
+                    journal.delete();
+                }
+            }
+        }
+        return hasReplayedOld || hasReplayedCurrent;
+    }
+
+    private void openJournal() throws IOException {
+        if (journal.exists()) {
+            journal.open();
+        } else {
+            journal.start(checksum(Files.exists(filePath) ? Files.readAllBytes(filePath) : new byte[0]));
+        }
+    }
+
     /**
      * Saves the given tasks to the storage file.
-     * Creates the directory if it doesn't exist.
+     * Creates the directory if it doesn't exist. In journal mode, the journal is
+     * folded into the new snapshot and restarted empty.
      *
      * @param tasks The list of tasks to save.
      * @throws PalloException If there is an error writing to the file.
      */
-    public void save(ArrayList<Task> tasks) throws PalloException {
+    public void save(List<Task> tasks) throws PalloException {
+        long start = Metrics.startTimer();
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        awaitPendingCompaction();
+        createDataDirectory();
+
+        byte[] snapshot = renderSnapshot(tasks);
+        try {
+            writeSnapshot(snapshot);
+            // Journals started on the previous snapshot no longer match and are dropped
+            oldJournal.delete();
+            if (isJournalEnabled) {
+                journal.start(checksum(snapshot));
+            } else {
+                journal.delete();
+            }
+        } catch (IOException e) {
+            throw new PalloException("OH NO!!! Error saving file: " + e.getMessage());
+        }
+        boolean canWriteInPlace = isIncrementalSaveEnabled && !isJournalEnabled && format == StorageFormat.TEXT;
+        layout = canWriteInPlace ? RecordLayout.scan(snapshot, System.lineSeparator().length()) : null;
+        Metrics.SAVE.recordSince(start);
+        if (event.shouldCommit()) {
+            describeEvent(event, "save", snapshot.length, tasks.size());
+            event.commit();
+        }
+    }
+
+    /**
+     * Persists a single mutation of the task list.
+     * In journal mode, only the given change is appended to the journal, and the
+     * journal is compacted in the background once it crosses the threshold.
+     * Otherwise, only the records affected by the change are written if incremental
+     * saves are enabled, and the whole task list is saved if not.
+     *
+     * @param change       The mutation that was applied to the task list.
+     * @param currentTasks Supplies the full task list after the change.
+     * @throws PalloException If there is an error writing the change.
+     */
+    public void persist(JournalEntry change, Supplier<? extends List<Task>> currentTasks) throws PalloException {
+        if (!isJournalEnabled) {
+            List<Task> tasks = currentTasks.get();
+            if (!saveChange(change, tasks)) {
+                save(tasks);
+            }
+            return;
+        }
+
+        try {
+            if (!journal.isOpen()) {
+                createDataDirectory();
+                openJournal();
+            }
+            journal.append(change);
+        } catch (IOException e) {
+            throw new PalloException("OH NO!!! Error writing journal: " + e.getMessage());
+        }
+
+        if (journal.getSizeInBytes() >= compactionThreshold) {
+            compact(currentTasks.get());
+        }
+    }
+
+    /**
+     * Writes the records affected by a change over the storage file, if the file still
+     * has the layout of the last load or save.
+     *
+     * @return True if the change was written, or false if the whole file should be saved instead.
+     */
+    private boolean saveChange(JournalEntry change, List<Task> tasks) throws PalloException {
+        if (layout == null || format != StorageFormat.TEXT) {
+            return false;
+        }
+        long start = Metrics.startTimer();
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        long bytesWritten;
+        try {
+            // A file that is gone or has another size was changed behind our back
+            boolean hasLayout = Files.exists(filePath) && Files.size(filePath) == layout.getFileLength();
+            bytesWritten = hasLayout ? writeChange(change, tasks) : -1;
+        } catch (IOException e) {
+            layout = null;
+            throw new PalloException("OH NO!!! Error saving file: " + e.getMessage());
+        }
+        if (bytesWritten < 0) {
+            layout = null;
+            return false;
+        }
+        Metrics.SAVE.recordSince(start);
+        if (event.shouldCommit()) {
+            describeEvent(event, "incremental save", bytesWritten, tasks.size());
+            event.commit();
+        }
+        return true;
+    }
+
+    /**
+     * Writes a change over the records it affects: a marked task's record in place if its
+     * length is unchanged, and otherwise every record from the changed one to the end.
+     *
+     * @return The number of bytes written, or -1 if the change should not be written in place.
+     */
+    private long writeChange(JournalEntry change, List<Task> tasks) throws IOException, PalloException {
+        JournalEntry.Operation operation = change.getOperation();
+        int index;
+        int recordCountBefore;
+        if (operation == JournalEntry.Operation.ADD) {
+            index = tasks.size() - 1;
+            recordCountBefore = tasks.size() - 1;
+        } else if (operation == JournalEntry.Operation.DELETE) {
+            index = change.getTaskIndex();
+            recordCountBefore = tasks.size() + 1;
+        } else {
+            index = change.getTaskIndex();
+            recordCountBefore = tasks.size();
+        }
+        if (layout.size() != recordCountBefore || index < 0 || index >= Math.max(recordCountBefore, tasks.size())) {
+            return -1;
+        }
+
+        boolean isStatusChange = operation == JournalEntry.Operation.MARK
+                || operation == JournalEntry.Operation.UNMARK;
+        if (isStatusChange) {
+            byte[] record = tasks.get(index).toFileString().getBytes(StandardCharsets.UTF_8);
+            if (record.length == layout.getLength(index)) {
+                writeInPlace(layout.getStart(index), record, false);
+                return record.length;
+            }
+        }
+
+        long tailStart = layout.getStart(index);
+        if (layout.getFileLength() - tailStart > layout.getFileLength() * MAX_INCREMENTAL_FRACTION) {
+            return -1;
+        }
+        List<Task> tail = tasks.subList(index, tasks.size());
+        int[] recordLengths = new int[tail.size()];
+        byte[] separator = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (int i = 0; i < recordLengths.length; i++) {
+            byte[] record = tail.get(i).toFileString().getBytes(StandardCharsets.UTF_8);
+            recordLengths[i] = record.length;
+            content.writeBytes(record);
+            content.writeBytes(separator);
+        }
+        byte[] bytes = content.toByteArray();
+        writeInPlace(tailStart, bytes, true);
+        layout.replaceTail(index, recordLengths);
+        return bytes.length;
+    }
+
+    /**
+     * Writes bytes into the storage file at the given offset, without a temp file.
+     *
+     * @param isTail True to cut the file off after the written bytes.
+     */
+    private void writeInPlace(long position, byte[] content, boolean isTail) throws IOException {
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, position + buffer.position());
+            }
+            if (isTail) {
+                channel.truncate(position + content.length);
+            }
+            if (durability == Durability.FSYNC) {
+                channel.force(isTail);
+            }
+        }
+    }
+
+    /**
+     * Returns the layout of the storage file if it holds exactly the snapshot that saving
+     * the given tasks would write, so that later changes can be written in place.
+     */
+    private RecordLayout readLayout(List<Task> tasks) throws PalloException {
+        if (isJournalEnabled || format != StorageFormat.TEXT || !Files.exists(filePath)) {
+            return null;
+        }
+        byte[] snapshot = renderSnapshot(tasks);
+        try {
+            if (!Arrays.equals(snapshot, Files.readAllBytes(filePath))) {
+                return null;
+            }
+        } catch (IOException e) {
+            throw new PalloException("OH NO!!! Error reading file: " + e.getMessage());
+        }
+        return RecordLayout.scan(snapshot, System.lineSeparator().length());
+    }
+
+    /**
+     * Starts folding the journal into a new snapshot of the given tasks.
+     * The journal is rotated synchronously so that new changes go to a fresh journal
+     * started on the new snapshot, while the snapshot itself is written in the background.
+     */
+    private void compact(List<Task> tasks) throws PalloException {
+        if (pendingCompaction != null && !pendingCompaction.isDone()) {
+            return;
+        }
+        if (oldJournal.exists()) {
+            // A previous compaction did not finish, so fold everything synchronously
+            save(tasks);
+            return;
+        }
+
+        byte[] snapshot = renderSnapshot(tasks);
+        try {
+            journal.moveTo(oldJournalPath);
+            journal.start(checksum(snapshot));
+        } catch (IOException e) {
+            throw new PalloException("OH NO!!! Error rotating journal: " + e.getMessage());
+        }
+
+        if (compactionExecutor == null) {
+            compactionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "pallo-journal-compaction");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        pendingCompaction = compactionExecutor.submit(() -> {
+            try {
+                writeSnapshot(snapshot);
+                oldJournal.delete();
+            } catch (IOException e) {
+                System.err.println("Warning: Journal compaction failed: " + e.getMessage());
+            }
+        });
+    }
+
+    private void awaitPendingCompaction() {
+        if (pendingCompaction == null) {
+            return;
+        }
+        try {
+            pendingCompaction.get();
+        } catch (ExecutionException e) {
+            System.err.println("Warning: Journal compaction failed: " + e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        pendingCompaction = null;
+    }
+
+    private void createDataDirectory() throws PalloException {
         // Create directory if it doesn't exist
         try {
             Files.createDirectories(filePath.getParent());
         } catch (IOException e) {
             throw new PalloException("OH NO!!! Failed to create data directory: " + e.getMessage());
         }
+    }
+
+    private byte[] renderSnapshot(List<Task> tasks) {
+        if (format == StorageFormat.BINARY) {
+            return BinaryTaskCodec.encode(tasks);
+        }
+        StringBuilder content = new StringBuilder();
+        for (Task task : tasks) {
+            content.append(task.toFileString()).append(System.lineSeparator());
+        }
+        return content.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a rendered snapshot to the storage file.
+     * Rendering decodes every task, so a memory-mapped view of the old file is no
+     * longer read by the time the file is replaced or overwritten here.
+     */
+    private void writeSnapshot(byte[] snapshot) throws IOException {
+        if (durability == Durability.NONE) {
+            writeFully(filePath, snapshot, false);
+            return;
+        }
+
+        Path tempPath = Paths.get(filePath + TEMP_SUFFIX);
+        boolean shouldForce = durability == Durability.FSYNC;
+        writeFully(tempPath, snapshot, shouldForce);
+        try {
+            Files.move(tempPath, filePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempPath, filePath, StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (shouldForce) {
+            forceDirectory(filePath.toAbsolutePath().getParent());
+        }
+    }
 
-        // Write tasks to file
-        try (FileWriter writer = new FileWriter(filePath.toFile())) {
-            for (Task task : tasks) {
-                writer.write(task.toFileString() + System.lineSeparator());
+    private static void writeFully(Path path, byte[] content, boolean shouldForce) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (int offset = 0; offset < content.length; offset += WRITE_BUFFER_SIZE) {
+                int length = Math.min(WRITE_BUFFER_SIZE, content.length - offset);
+                ByteBuffer buffer = ByteBuffer.wrap(content, offset, length);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            if (shouldForce) {
+                channel.force(true);
             }
+        }
+    }
+
+    /**
+     * Forces the directory entry of a renamed file to disk.
+     * Some platforms cannot open directories, in which case this is a no-op.
+     */
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
         } catch (IOException e) {
-            throw new PalloException("OH NO!!! Error saving file: " + e.getMessage());
+            // Not supported on this platform; the rename itself is still atomic
         }
     }
 
-    private Task parseTaskFromFile(String line) throws PalloException {
+    private static long checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    /**
+     * Parses a single line of the pipe-delimited file format into a Task.
+     *
+     * @param line The trimmed line to parse.
+     * @return The parsed task.
+     * @throws PalloException If the line is not a valid task record.
+     */
+    static Task parseTaskFromFile(String line) throws PalloException {
+        long id = 0;
+        if (line.startsWith(ID_MARKER)) {
+            int idEnd = line.indexOf(FIELD_SEPARATOR);
+            id = idEnd == -1 ? -1 : parseTaskId(line.substring(ID_MARKER.length(), idEnd).trim());
+            if (id <= 0) {
+                throw new PalloException("Invalid task ID");
+            }
+            line = line.substring(idEnd + FIELD_SEPARATOR.length());
+        }
+
         String[] parts = line.split(" \\| ", -1); // -1 to keep empty strings
 
         if (parts.length < 3) {
@@ -124,7 +751,7 @@ public class Storage {
         assert parts.length >= 3 : "File line should have at least 3 pipe-delimited parts";
         String taskType = parts[0].trim();
         String statusStr = parts[1].trim();
-        String description = parts[2].trim();
+        String description = StringPool.shared().intern(parts[2].trim());
 
         // Parse status (1 = done, 0 = not done)
         TaskStatus status = statusStr.equals("1") ? TaskStatus.DONE : TaskStatus.NOT_DONE;
@@ -141,29 +768,13 @@ public class Storage {
             if (parts.length != 4) {
                 throw new PalloException("Invalid Deadline format");
             }
-            String by = parts[3].trim();
-            // Try to parse as LocalDateTime first, fall back to string
-            LocalDateTime byDateTime = DateParser.parseDateTimeFromFile(by);
-            if (byDateTime != null) {
-                task = new Deadline(description, byDateTime);
-            } else {
-                task = new Deadline(description, by);
-            }
+            task = createDeadline(description, parts[3].trim());
             break;
         case "E":
             if (parts.length != 5) {
                 throw new PalloException("Invalid Event format");
             }
-            String from = parts[3].trim();
-            String to = parts[4].trim();
-            // Try to parse as LocalDateTime first, fall back to string
-            LocalDateTime fromDateTime = DateParser.parseDateTimeFromFile(from);
-            LocalDateTime toDateTime = DateParser.parseDateTimeFromFile(to);
-            if (fromDateTime != null && toDateTime != null) {
-                task = new Event(description, fromDateTime, toDateTime);
-            } else {
-                task = new Event(description, from, to);
-            }
+            task = createEvent(description, parts[3].trim(), parts[4].trim());
             break;
         default:
             throw new PalloException("Unknown task type: " + taskType);
@@ -174,7 +785,66 @@ public class Storage {
         if (status == TaskStatus.DONE) {
             task.markAsDone();
         }
+        if (id > 0) {
+            task.setId(id);
+        }
 
         return task;
     }
+
+    /**
+     * Parses the digits of a task ID field, as written after the {@code #} marker.
+     *
+     * @param digits The ID text.
+     * @return The ID, or -1 if the text is not 1 to 18 ASCII digits or is zero.
+     */
+    static long parseTaskId(CharSequence digits) {
+        if (digits.length() == 0 || digits.length() > MAX_ID_DIGITS) {
+            return -1;
+        }
+        long id = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            char c = digits.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            id = id * 10 + (c - '0');
+        }
+        return id == 0 ? -1 : id;
+    }
+
+    /**
+     * Creates a Deadline from its date as written in a file.
+     *
+     * @param description The description of the deadline.
+     * @param by          The due date/time in file format, or the original string if it was never parsed.
+     * @return The deadline task.
+     */
+    static Deadline createDeadline(String description, String by) {
+        // Try to parse as LocalDateTime first, fall back to string
+        LocalDateTime byDateTime = DateParser.parseDateTimeFromFile(by);
+        if (byDateTime != null) {
+            return new Deadline(description, byDateTime);
+        }
+        return new Deadline(description, StringPool.shared().intern(by));
+    }
+
+    /**
+     * Creates an Event from its dates as written in a file.
+     *
+     * @param description The description of the event.
+     * @param from        The start date/time in file format, or the original string.
+     * @param to          The end date/time in file format, or the original string.
+     * @return The event task.
+     */
+    static Event createEvent(String description, String from, String to) {
+        // Try to parse as LocalDateTime first, fall back to string
+        LocalDateTime fromDateTime = DateParser.parseDateTimeFromFile(from);
+        LocalDateTime toDateTime = DateParser.parseDateTimeFromFile(to);
+        if (fromDateTime != null && toDateTime != null) {
+            return new Event(description, fromDateTime, toDateTime);
+        }
+        StringPool pool = StringPool.shared();
+        return new Event(description, pool.intern(from), pool.intern(to));
+    }
 }
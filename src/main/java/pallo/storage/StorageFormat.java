@@ -0,0 +1,32 @@
+package pallo.storage;
+
+/**
+ * The on-disk formats Storage can write task snapshots in.
+ * Loading detects the format automatically, so a file can be switched between
+ * formats simply by saving it again.
+ */
+public enum StorageFormat {
+    /** The human-readable pipe-delimited format, one task per line. */
+    TEXT,
+    /** The compact versioned binary format written by {@link BinaryTaskCodec}. */
+    BINARY;
+
+    /**
+     * Returns the format with the given name, ignoring case.
+     *
+     * @param name          The name of the format, e.g. "binary".
+     * @param defaultFormat The format to use if the name is null or unknown.
+     * @return The matching storage format.
+     */
+    public static StorageFormat fromName(String name, StorageFormat defaultFormat) {
+        if (name == null) {
+            return defaultFormat;
+        }
+        for (StorageFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name.trim())) {
+                return format;
+            }
+        }
+        return defaultFormat;
+    }
+}
@@ -0,0 +1,61 @@
+package pallo.storage;
+
+import java.util.ArrayList;
+
+import pallo.exception.PalloException;
+import pallo.task.Task;
+
+/**
+ * Converts a task file between the text and binary storage formats.
+ * The input format is detected automatically. The input is only read: changes in a
+ * journal left next to it are included in the output, but the input and its journal
+ * are left as they are.
+ *
+ * <p>Usage: {@code TaskFileConverter <input> <output> <text|binary>}
+ */
+public class TaskFileConverter {
+    private TaskFileConverter() {
+    }
+
+    /**
+     * Loads the tasks from the input file and saves them to the output file in the target format.
+     *
+     * @param inputPath  The path of the file to convert.
+     * @param outputPath The path to write the converted file to.
+     * @param target     The format to write.
+     * @return The number of tasks converted.
+     * @throws PalloException If the input does not exist or cannot be read, or the output cannot be written.
+     */
+    public static int convert(String inputPath, String outputPath, StorageFormat target) throws PalloException {
+        Storage source = new Storage(inputPath);
+        Storage destination = new Storage(outputPath);
+        destination.setFormat(target);
+        ArrayList<Task> tasks = source.read();
+        destination.save(tasks);
+        return tasks.size();
+    }
+
+    /**
+     * Runs the converter from the command line.
+     *
+     * @param args The input path, output path and target format.
+     */
+    public static void main(String[] args) {
+        if (args.length != 3) {
+            System.err.println("Usage: TaskFileConverter <input> <output> <text|binary>");
+            System.exit(2);
+        }
+        StorageFormat target = StorageFormat.fromName(args[2], null);
+        if (target == null) {
+            System.err.println("Unknown format: " + args[2]);
+            System.exit(2);
+        }
+        try {
+            int count = convert(args[0], args[1], target);
+            System.out.println("Converted " + count + " tasks to " + target.name().toLowerCase() + ".");
+        } catch (PalloException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package pallo.task;
+
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import pallo.exception.PalloException;
+import pallo.exception.TaskNotFoundException;
+import pallo.metrics.Metrics;
+import pallo.metrics.QueryEvent;
+
+/**
+ * A TaskList that can be shared by several clients, such as the GUI, the CLI and a
+ * scripting client, without external locking.
+ *
+ * <p>The tasks and their indexes are kept in an immutable state that is
+ * replaced on every change. Reads work on whichever state is current, so they never
+ * block and always see a consistent list. Writes build a new state and install it with
+ * a compare-and-set, retrying if another write got there first, so every change is
+ * atomic and no change is lost. Task statuses are volatile, so marks are visible to
+ * every reader.
+ *
+ * <p>A state holds the tasks in {@link PersistentTreap}s keyed by a sequence number
+ * that grows in list order, and by ID. A new state shares all but O(log n) nodes with
+ * the old one, so adds, removes, ID lookups and positions all take O(log n) time
+ * however large the list is. The find and remind indexes are built by the first query
+ * that needs them and are then kept in step with every change in the same way.
+ *
+ * <p>Positions shift when other clients delete tasks. Clients that must act on a
+ * particular task should look it up once with {@link #getTask(int)} and then use
+ * the task itself, e.g. with {@link #removeTask(Task)}, which can never hit a
+ * different task.
+ */
+public class ConcurrentTaskList extends TaskList {
+    private final AtomicReference<State> state;
+    private final AtomicLong nextId = new AtomicLong(1);
+    private boolean hasAssignedMissingIds;
+
+    /**
+     * Constructs an empty ConcurrentTaskList.
+     */
+    public ConcurrentTaskList() {
+        this.state = new AtomicReference<>(State.of(List.of()));
+    }
+
+    /**
+     * Constructs a ConcurrentTaskList with the given tasks.
+     * Tasks without an ID, or whose ID is already taken, are given a new one.
+     *
+     * @param tasks The initial list of tasks.
+     */
+    public ConcurrentTaskList(List<Task> tasks) {
+        long maxId = 0;
+        for (Task task : tasks) {
+            maxId = Math.max(maxId, task.getId());
+        }
+        nextId.set(maxId + 1);
+        HashSet<Long> seenIds = new HashSet<>();
+        for (Task task : tasks) {
+            if (task.getId() == 0 || !seenIds.add(task.getId())) {
+                task.setId(nextId.getAndIncrement());
+                seenIds.add(task.getId());
+                hasAssignedMissingIds = true;
+            }
+        }
+        this.state = new AtomicReference<>(State.of(tasks));
+    }
+
+    @Override
+    public boolean hasAssignedMissingIds() {
+        return hasAssignedMissingIds;
+    }
+
+    /**
+     * Adds a task to the list. A task without an ID, or whose ID is already taken,
+     * is given a new one, and later IDs are assigned past the task's ID.
+     *
+     * @param task The task to add.
+     */
+    @Override
+    public void addTask(Task task) {
+        assert task != null : "Task to add should not be null";
+        State current;
+        State next;
+        do {
+            current = state.get();
+            if (task.getId() == 0 || current.sequencesById.get(task.getId()) != null) {
+                task.setId(nextId.getAndIncrement());
+            }
+            next = current.with(task);
+        } while (!state.compareAndSet(current, next));
+        nextId.accumulateAndGet(task.getId() + 1, Math::max);
+    }
+
+    @Override
+    public Task removeTask(int index) throws PalloException {
+        State current;
+        State next;
+        Task task;
+        do {
+            current = state.get();
+            checkIndex(index, current.size());
+            long sequence = current.tasksBySequence.keyAt(index);
+            task = current.tasksBySequence.get(sequence);
+            next = current.without(sequence, task);
+        } while (!state.compareAndSet(current, next));
+        return task;
+    }
+
+    /**
+     * Removes the given task, wherever it is in the list when the removal takes effect.
+     *
+     * @param task The task to remove.
+     * @return True if this call removed the task, or false if it was not in the list.
+     */
+    public boolean removeTask(Task task) {
+        State current;
+        State next;
+        do {
+            current = state.get();
+            Long sequence = current.sequenceOf(task);
+            if (sequence == null) {
+                return false;
+            }
+            next = current.without(sequence, task);
+        } while (!state.compareAndSet(current, next));
+        return true;
+    }
+
+    @Override
+    public Task getTask(int index) throws PalloException {
+        State current = state.get();
+        checkIndex(index, current.size());
+        return current.tasksBySequence.valueAt(index);
+    }
+
+    @Override
+    public Task getTaskById(long id) throws PalloException {
+        long start = Metrics.startTimer();
+        QueryEvent event = new QueryEvent();
+        event.begin();
+        State current = state.get();
+        Long sequence = current.sequencesById.get(id);
+        Task task = sequence == null ? null : current.tasksBySequence.get(sequence);
+        Metrics.TASK_BY_ID.recordSince(start);
+        commitQueryEvent(event, "byId", current.size(), task == null ? 0 : 1, false);
+        if (task == null) {
+            throw new TaskNotFoundException(id);
+        }
+        return task;
+    }
+
+    @Override
+    public int indexOf(Task task) {
+        State current = state.get();
+        Long sequence = current.sequenceOf(task);
+        return sequence == null ? -1 : current.tasksBySequence.rank(sequence);
+    }
+
+    @Override
+    public int size() {
+        return state.get().size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return state.get().size() == 0;
+    }
+
+    @Override
+    public ArrayList<Task> getAllTasks() {
+        return state.get().copyTasks();
+    }
+
+    /**
+     * Returns the tasks of the current version of the list without copying them.
+     * Getting a task from the view takes O(log n) time, and the view never changes.
+     *
+     * @return A read-only view of the tasks.
+     */
+    @Override
+    public List<Task> viewAllTasks() {
+        PersistentTreap<Long, Task> tasks = state.get().tasksBySequence;
+        return new AbstractList<>() {
+            @Override
+            public Task get(int index) {
+                Objects.checkIndex(index, tasks.size());
+                return tasks.valueAt(index);
+            }
+
+            @Override
+            public int size() {
+                return tasks.size();
+            }
+        };
+    }
+
+    @Override
+    public ArrayList<Task> getTasks(int fromIndex, int toIndex) {
+        PersistentTreap<Long, Task> tasks = state.get().tasksBySequence;
+        Objects.checkFromToIndex(fromIndex, toIndex, tasks.size());
+        ArrayList<Task> range = new ArrayList<>(toIndex - fromIndex);
+        if (fromIndex < toIndex) {
+            tasks.forEach(tasks.keyAt(fromIndex), tasks.keyAt(toIndex - 1), (sequence, task) -> range.add(task));
+        }
+        return range;
+    }
+
+    @Override
+    public Snapshot createSnapshot() {
+        return new Snapshot(getAllTasks());
+    }
+
+    @Override
+    public void restore(Snapshot snapshot) {
+        assert snapshot != null : "Snapshot to restore should not be null";
+        for (int i = 0; i < snapshot.tasks.length; i++) {
+            if (snapshot.statuses[i] == TaskStatus.DONE) {
+                snapshot.tasks[i].markAsDone();
+            } else {
+                snapshot.tasks[i].markAsNotDone();
+            }
+        }
+        state.set(State.of(Arrays.asList(snapshot.tasks)));
+    }
+
+    @Override
+    public ArrayList<Task> tasksBetween(LocalDateTime from, LocalDateTime to) {
+        assert from != null && to != null : "Window bounds should not be null";
+        long start = Metrics.startTimer();
+        QueryEvent event = new QueryEvent();
+        event.begin();
+        State current = state.get();
+        boolean hasBuiltIndex = current.timeIndex == null;
+        if (hasBuiltIndex) {
+            current = publish(current, current.withTimeIndex());
+        }
+        ArrayList<Task> matches = current.timeIndex.between(from, to);
+        Metrics.TASKS_BETWEEN.recordSince(start);
+        commitQueryEvent(event, "between", current.size(), matches.size(), hasBuiltIndex);
+        return matches;
+    }
+
+    @Override
+    public ArrayList<Task> findTasks(String keyword) {
+        assert keyword != null : "Search keyword should not be null";
+        long start = Metrics.startTimer();
+        QueryEvent event = new QueryEvent();
+        event.begin();
+        String lowerKeyword = keyword.toLowerCase();
+        State current = state.get();
+        ArrayList<Task> matches;
+        boolean hasBuiltIndex = false;
+        if (lowerKeyword.length() < KeywordIndex.GRAM_LENGTH) {
+            matches = new ArrayList<>();
+            current.tasksBySequence.forEach((sequence, task) -> {
+                if (task.getDescription().toLowerCase().contains(lowerKeyword)) {
+                    matches.add(task);
+                }
+            });
+        } else {
+            if (current.keywordIndex == null) {
+                current = publish(current, current.withKeywordIndex());
+                hasBuiltIndex = true;
+            }
+            matches = current.keywordIndex.find(lowerKeyword, current.tasksBySequence);
+        }
+        Metrics.FIND.recordSince(start);
+        commitQueryEvent(event, "find", current.size(), matches.size(), hasBuiltIndex);
+        return matches;
+    }
+
+    /**
+     * Installs a state that only adds an index to the current one, unless a write has
+     * replaced the current state meanwhile; the next query then builds the index again.
+     *
+     * @return The indexed state, which the calling query can use either way.
+     */
+    private State publish(State current, State indexed) {
+        state.compareAndSet(current, indexed);
+        return indexed;
+    }
+
+    private static void checkIndex(int index, int size) throws PalloException {
+        if (index < 0 || index >= size) {
+            throw new PalloException(
+                    "OH NO!!! Invalid task number! Please choose a number between 1 and " + size + ".");
+        }
+    }
+
+    /**
+     * One version of the list: its tasks in list order, an ID index and, once a query
+     * has needed them, the find and remind indexes. A state is never changed; every
+     * write makes a new one.
+     */
+    private static final class State {
+        private final PersistentTreap<Long, Task> tasksBySequence;
+        private final PersistentTreap<Long, Long> sequencesById;
+        private final PersistentKeywordIndex keywordIndex; // Null until the first find that needs it
+        private final PersistentTimeIndex timeIndex; // Null until the first remind
+        private final long nextSequence;
+
+        private State(PersistentTreap<Long, Task> tasksBySequence, PersistentTreap<Long, Long> sequencesById,
+                PersistentKeywordIndex keywordIndex, PersistentTimeIndex timeIndex, long nextSequence) {
+            this.tasksBySequence = tasksBySequence;
+            this.sequencesById = sequencesById;
+            this.keywordIndex = keywordIndex;
+            this.timeIndex = timeIndex;
+            this.nextSequence = nextSequence;
+        }
+
+        /**
+         * Builds the state of a list holding the given tasks, which have distinct IDs.
+         */
+        static State of(List<Task> tasks) {
+            int size = tasks.size();
+            List<Long> sequences = new ArrayList<>(size);
+            for (long sequence = 0; sequence < size; sequence++) {
+                sequences.add(sequence);
+            }
+            Long[] sequencesInIdOrder = sequences.toArray(new Long[0]);
+            Arrays.sort(sequencesInIdOrder,
+                    Comparator.comparingLong(sequence -> tasks.get(sequence.intValue()).getId()));
+            List<Long> ids = new ArrayList<>(size);
+            for (Long sequence : sequencesInIdOrder) {
+                ids.add(tasks.get(sequence.intValue()).getId());
+            }
+            return new State(PersistentTreap.ofSorted(sequences, tasks),
+                    PersistentTreap.ofSorted(ids, Arrays.asList(sequencesInIdOrder)), null, null, size);
+        }
+
+        int size() {
+            return tasksBySequence.size();
+        }
+
+        /**
+         * Returns the sequence number of the given task, or null if it is not in this version of the list.
+         */
+        Long sequenceOf(Task task) {
+            Long sequence = sequencesById.get(task.getId());
+            return sequence != null && tasksBySequence.get(sequence) == task ? sequence : null;
+        }
+
+        State with(Task task) {
+            long sequence = nextSequence;
+            return new State(tasksBySequence.put(sequence, task), sequencesById.put(task.getId(), sequence),
+                    keywordIndex == null ? null : keywordIndex.add(sequence, task),
+                    timeIndex == null ? null : timeIndex.add(sequence, task), sequence + 1);
+        }
+
+        State without(long sequence, Task task) {
+            return new State(tasksBySequence.remove(sequence), sequencesById.remove(task.getId()),
+                    keywordIndex == null ? null : keywordIndex.remove(sequence, task),
+                    timeIndex == null ? null : timeIndex.remove(sequence, task), nextSequence);
+        }
+
+        State withKeywordIndex() {
+            return new State(tasksBySequence, sequencesById, PersistentKeywordIndex.of(tasksBySequence), timeIndex,
+                    nextSequence);
+        }
+
+        State withTimeIndex() {
+            return new State(tasksBySequence, sequencesById, keywordIndex, PersistentTimeIndex.of(tasksBySequence),
+                    nextSequence);
+        }
+
+        ArrayList<Task> copyTasks() {
+            ArrayList<Task> copy = new ArrayList<>(size());
+            tasksBySequence.forEach((sequence, task) -> copy.add(task));
+            return copy;
+        }
+    }
+}
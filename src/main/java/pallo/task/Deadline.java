@@ -39,17 +39,43 @@ public class Deadline extends Task {
         this.byString = null;
     }
 
+    /**
+     * Constructs a Deadline from a due date that was parsed before, e.g. when it is read
+     * back from a compact store, without parsing it again.
+     *
+     * @param description The description of the deadline task.
+     * @param by          The due date/time, or null if it could not be parsed.
+     * @param byString    The due date/time as the user typed it, or null if there was no such string.
+     */
+    protected Deadline(String description, LocalDateTime by, String byString) {
+        super(description);
+        assert by != null || byString != null : "Deadline should have a date or a date string";
+        this.by = by;
+        this.byString = byString;
+    }
+
+    private Deadline(Deadline other) {
+        super(other);
+        this.by = other.by;
+        this.byString = other.byString;
+    }
+
     @Override
-    public String toString() {
+    public Deadline copy() {
+        return new Deadline(this);
+    }
+
+    @Override
+    protected String render(TaskStatus status) {
         String formattedDate = DateParser.formatDateTime(by, byString);
-        return "[D]" + super.toString() + " (by: " + formattedDate + ")";
+        return "[D]" + super.render(status) + " (by: " + formattedDate + ")";
     }
 
     @Override
-    public String toFileString() {
-        int statusValue = (getStatus() == TaskStatus.DONE) ? 1 : 0;
+    protected String renderForFile(TaskStatus status, long id) {
+        int statusValue = (status == TaskStatus.DONE) ? 1 : 0;
         String dateStr = (by != null) ? DateParser.formatDateTimeForFile(by) : byString;
-        return "D | " + statusValue + " | " + getDescription() + " | " + dateStr;
+        return getIdPrefix(id) + "D | " + statusValue + " | " + getDescription() + " | " + dateStr;
     }
 
     /**
@@ -60,4 +86,13 @@ public class Deadline extends Task {
     public LocalDateTime getBy() {
         return by;
     }
+
+    /**
+     * Returns the due date/time exactly as the user typed it.
+     *
+     * @return The original date string, or null if this deadline was created from a LocalDateTime.
+     */
+    public String getByString() {
+        return byString;
+    }
 }
@@ -49,19 +49,52 @@ public class Event extends Task {
         this.toString = null;
     }
 
+    /**
+     * Constructs an Event from dates that were parsed before, e.g. when it is read back
+     * from a compact store, without parsing them again.
+     *
+     * @param description The description of the event.
+     * @param from        The start date/time, or null if it could not be parsed.
+     * @param to          The end date/time, or null if it could not be parsed.
+     * @param fromString  The start as the user typed it, or null if there was no such string.
+     * @param toString    The end as the user typed it, or null if there was no such string.
+     */
+    protected Event(String description, LocalDateTime from, LocalDateTime to, String fromString, String toString) {
+        super(description);
+        assert from != null || fromString != null : "Event should have a start date or a start string";
+        assert to != null || toString != null : "Event should have an end date or an end string";
+        this.from = from;
+        this.to = to;
+        this.fromString = fromString;
+        this.toString = toString;
+    }
+
+    private Event(Event other) {
+        super(other);
+        this.from = other.from;
+        this.to = other.to;
+        this.fromString = other.fromString;
+        this.toString = other.toString;
+    }
+
+    @Override
+    public Event copy() {
+        return new Event(this);
+    }
+
     @Override
-    public String toString() {
+    protected String render(TaskStatus status) {
         String formattedFrom = DateParser.formatDateTime(from, fromString);
         String formattedTo = DateParser.formatDateTime(to, toString);
-        return "[E]" + super.toString() + " (from: " + formattedFrom + " to: " + formattedTo + ")";
+        return "[E]" + super.render(status) + " (from: " + formattedFrom + " to: " + formattedTo + ")";
     }
 
     @Override
-    public String toFileString() {
-        int statusValue = (getStatus() == TaskStatus.DONE) ? 1 : 0;
+    protected String renderForFile(TaskStatus status, long id) {
+        int statusValue = (status == TaskStatus.DONE) ? 1 : 0;
         String fromStr = (from != null) ? DateParser.formatDateTimeForFile(from) : fromString;
         String toStr = (to != null) ? DateParser.formatDateTimeForFile(to) : toString;
-        return "E | " + statusValue + " | " + getDescription() + " | " + fromStr + " | " + toStr;
+        return getIdPrefix(id) + "E | " + statusValue + " | " + getDescription() + " | " + fromStr + " | " + toStr;
     }
 
     /**
@@ -81,4 +114,22 @@ public class Event extends Task {
     public LocalDateTime getTo() {
         return to;
     }
+
+    /**
+     * Returns the start date/time exactly as the user typed it.
+     *
+     * @return The original start string, or null if this event was created from LocalDateTimes.
+     */
+    public String getFromString() {
+        return fromString;
+    }
+
+    /**
+     * Returns the end date/time exactly as the user typed it.
+     *
+     * @return The original end string, or null if this event was created from LocalDateTimes.
+     */
+    public String getToString() {
+        return toString;
+    }
 }
@@ -0,0 +1,189 @@
+package pallo.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * An inverted trigram index over task descriptions, used to answer find queries.
+ * Every lowercased description is broken into overlapping three-character
+ * trigrams, and each trigram maps to the tasks containing it. A query only
+ * verifies the tasks that contain all of its trigrams, so the usual
+ * case-insensitive substring semantics are kept while most tasks are never looked at.
+ *
+ * <p>Tasks are numbered in the order they were indexed. Since tasks are only ever
+ * appended to a TaskList, this order is also list order, which lets query results
+ * come out in list order without sorting.
+ */
+class KeywordIndex {
+    static final int GRAM_LENGTH = 3;
+
+    private final HashMap<Long, PostingList> postings = new HashMap<>();
+    private final IdentityHashMap<Task, Integer> sequenceNumbers = new IdentityHashMap<>();
+    private Task[] tasksBySequence = new Task[16];
+    private int nextSequence;
+
+    /**
+     * Builds an index over the given tasks, in list order.
+     *
+     * @param tasks The tasks to index.
+     */
+    KeywordIndex(List<Task> tasks) {
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    /**
+     * Adds a task to the index. It must come after all indexed tasks in list order.
+     *
+     * @param task The task to add.
+     */
+    void add(Task task) {
+        if (nextSequence == tasksBySequence.length) {
+            compactOrGrow();
+        }
+        int sequence = nextSequence++;
+        tasksBySequence[sequence] = task;
+        sequenceNumbers.put(task, sequence);
+
+        String text = task.getDescription().toLowerCase();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            PostingList list = postings.computeIfAbsent(trigramAt(text, i), key -> new PostingList());
+            list.append(sequence);
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task The task to remove.
+     */
+    void remove(Task task) {
+        Integer sequence = sequenceNumbers.remove(task);
+        if (sequence == null) {
+            return;
+        }
+        tasksBySequence[sequence] = null;
+
+        String text = task.getDescription().toLowerCase();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            Long trigram = trigramAt(text, i);
+            PostingList list = postings.get(trigram);
+            if (list != null) {
+                list.remove(sequence);
+                if (list.size == 0) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the tasks whose lowercased description contains the lowercased keyword.
+     *
+     * @param lowerKeyword The lowercased keyword, at least {@link #GRAM_LENGTH} characters long.
+     * @return The matching tasks, in list order.
+     */
+    ArrayList<Task> find(String lowerKeyword) {
+        assert lowerKeyword.length() >= GRAM_LENGTH : "Keyword is too short for the trigram index";
+        ArrayList<Task> matches = new ArrayList<>();
+
+        int gramCount = lowerKeyword.length() - GRAM_LENGTH + 1;
+        PostingList[] lists = new PostingList[gramCount];
+        for (int i = 0; i < gramCount; i++) {
+            lists[i] = postings.get(trigramAt(lowerKeyword, i));
+            if (lists[i] == null) {
+                return matches;
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+
+        PostingList smallest = lists[0];
+        for (int i = 0; i < smallest.size; i++) {
+            int sequence = smallest.sequences[i];
+            if (isInAll(lists, sequence)) {
+                Task task = tasksBySequence[sequence];
+                // Trigrams only narrow down longer keywords; confirm the actual substring
+                if (gramCount == 1 || task.getDescription().toLowerCase().contains(lowerKeyword)) {
+                    matches.add(task);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static boolean isInAll(PostingList[] lists, int sequence) {
+        for (int i = 1; i < lists.length; i++) {
+            if (!lists[i].contains(sequence)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static Long trigramAt(String text, int index) {
+        return ((long) text.charAt(index) << 32) | ((long) text.charAt(index + 1) << 16) | text.charAt(index + 2);
+    }
+
+    /**
+     * Makes room for the next sequence number, renumbering the live tasks if
+     * enough have been removed, or growing the table otherwise.
+     */
+    private void compactOrGrow() {
+        int live = sequenceNumbers.size();
+        if (live > tasksBySequence.length / 2) {
+            tasksBySequence = Arrays.copyOf(tasksBySequence, tasksBySequence.length * 2);
+            return;
+        }
+
+        Task[] liveTasks = new Task[live];
+        int count = 0;
+        for (int i = 0; i < nextSequence; i++) {
+            if (tasksBySequence[i] != null) {
+                liveTasks[count++] = tasksBySequence[i];
+            }
+        }
+        postings.clear();
+        sequenceNumbers.clear();
+        Arrays.fill(tasksBySequence, null);
+        nextSequence = 0;
+        for (Task task : liveTasks) {
+            add(task);
+        }
+    }
+
+    /**
+     * The ascending sequence numbers of the tasks containing one trigram.
+     */
+    private static class PostingList {
+        private int[] sequences = new int[2];
+        private int size;
+
+        void append(int sequence) {
+            // A trigram repeated within one description is only recorded once
+            if (size > 0 && sequences[size - 1] == sequence) {
+                return;
+            }
+            if (size == sequences.length) {
+                sequences = Arrays.copyOf(sequences, size * 2);
+            }
+            sequences[size++] = sequence;
+        }
+
+        void remove(int sequence) {
+            int position = Arrays.binarySearch(sequences, 0, size, sequence);
+            if (position >= 0) {
+                System.arraycopy(sequences, position + 1, sequences, position, size - position - 1);
+                size--;
+            }
+        }
+
+        boolean contains(int sequence) {
+            return Arrays.binarySearch(sequences, 0, size, sequence) >= 0;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package pallo.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * The trigram index of {@link KeywordIndex}, made immutable for a {@link ConcurrentTaskList}:
+ * adding or removing a task returns a new version of the index that shares all the
+ * posting lists the task does not touch, so each change costs time in the length of
+ * its description rather than in the size of the list.
+ *
+ * <p>Tasks are identified by the sequence number their list gave them, which grows
+ * in list order. Each posting list keeps its sequence numbers in short sorted chunks
+ * held in a {@link PersistentTreap}, so a change copies one chunk and not the list.
+ */
+final class PersistentKeywordIndex {
+    private static final int CHUNK_SIZE = 32;
+
+    private final PersistentTreap<Long, Posting> postings;
+
+    private PersistentKeywordIndex(PersistentTreap<Long, Posting> postings) {
+        this.postings = postings;
+    }
+
+    /**
+     * Builds an index over the given tasks.
+     *
+     * @param tasksBySequence The tasks, keyed by their sequence numbers.
+     * @return The index.
+     */
+    static PersistentKeywordIndex of(PersistentTreap<Long, Task> tasksBySequence) {
+        HashMap<Long, SequenceBuffer> sequencesByTrigram = new HashMap<>();
+        tasksBySequence.forEach((sequence, task) -> {
+            for (long trigram : trigramsOf(task.getDescription().toLowerCase())) {
+                sequencesByTrigram.computeIfAbsent(trigram, key -> new SequenceBuffer()).add(sequence);
+            }
+        });
+
+        List<Long> trigrams = new ArrayList<>(sequencesByTrigram.keySet());
+        trigrams.sort(null);
+        List<Posting> lists = new ArrayList<>(trigrams.size());
+        for (Long trigram : trigrams) {
+            SequenceBuffer buffer = sequencesByTrigram.get(trigram);
+            lists.add(Posting.ofSorted(buffer.sequences, buffer.size));
+        }
+        return new PersistentKeywordIndex(PersistentTreap.ofSorted(trigrams, lists));
+    }
+
+    /**
+     * Returns an index that also holds the given task.
+     *
+     * @param sequence The task's sequence number, which must be greater than that of every indexed task.
+     * @param task     The task.
+     * @return The new version of the index.
+     */
+    PersistentKeywordIndex add(long sequence, Task task) {
+        PersistentTreap<Long, Posting> next = postings;
+        for (long trigram : trigramsOf(task.getDescription().toLowerCase())) {
+            Posting list = next.get(trigram);
+            next = next.put(trigram, list == null ? Posting.of(sequence) : list.append(sequence));
+        }
+        return new PersistentKeywordIndex(next);
+    }
+
+    /**
+     * Returns an index without the given task.
+     *
+     * @param sequence The task's sequence number.
+     * @param task     The task.
+     * @return The new version of the index.
+     */
+    PersistentKeywordIndex remove(long sequence, Task task) {
+        PersistentTreap<Long, Posting> next = postings;
+        for (long trigram : trigramsOf(task.getDescription().toLowerCase())) {
+            Posting list = next.get(trigram);
+            if (list == null) {
+                continue;
+            }
+            Posting remaining = list.remove(sequence);
+            next = remaining == null ? next.remove(trigram) : next.put(trigram, remaining);
+        }
+        return new PersistentKeywordIndex(next);
+    }
+
+    /**
+     * Finds the tasks whose lowercased description contains the lowercased keyword.
+     *
+     * @param lowerKeyword    The lowercased keyword, at least {@link KeywordIndex#GRAM_LENGTH} characters long.
+     * @param tasksBySequence The indexed tasks, keyed by their sequence numbers.
+     * @return The matching tasks, in list order.
+     */
+    ArrayList<Task> find(String lowerKeyword, PersistentTreap<Long, Task> tasksBySequence) {
+        assert lowerKeyword.length() >= KeywordIndex.GRAM_LENGTH : "Keyword is too short for the trigram index";
+        ArrayList<Task> matches = new ArrayList<>();
+
+        int gramCount = lowerKeyword.length() - KeywordIndex.GRAM_LENGTH + 1;
+        Posting[] lists = new Posting[gramCount];
+        for (int i = 0; i < gramCount; i++) {
+            lists[i] = postings.get(KeywordIndex.trigramAt(lowerKeyword, i));
+            if (lists[i] == null) {
+                return matches;
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+
+        lists[0].forEach(sequence -> {
+            for (int i = 1; i < lists.length; i++) {
+                if (!lists[i].contains(sequence)) {
+                    return;
+                }
+            }
+            Task task = tasksBySequence.get(sequence);
+            // Trigrams only narrow down longer keywords; confirm the actual substring
+            if (gramCount == 1 || task.getDescription().toLowerCase().contains(lowerKeyword)) {
+                matches.add(task);
+            }
+        });
+        return matches;
+    }
+
+    /**
+     * Returns the distinct trigrams of a lowercased description.
+     */
+    private static long[] trigramsOf(String text) {
+        int gramCount = Math.max(0, text.length() - KeywordIndex.GRAM_LENGTH + 1);
+        long[] trigrams = new long[gramCount];
+        for (int i = 0; i < gramCount; i++) {
+            trigrams[i] = KeywordIndex.trigramAt(text, i);
+        }
+        Arrays.sort(trigrams);
+        int distinct = 0;
+        for (int i = 0; i < gramCount; i++) {
+            if (distinct == 0 || trigrams[distinct - 1] != trigrams[i]) {
+                trigrams[distinct++] = trigrams[i];
+            }
+        }
+        return Arrays.copyOf(trigrams, distinct);
+    }
+
+    /**
+     * The ascending sequence numbers of the tasks containing one trigram, in chunks
+     * keyed by their first sequence number.
+     */
+    private static final class Posting {
+        private final PersistentTreap<Long, long[]> chunks;
+        private final int size;
+
+        private Posting(PersistentTreap<Long, long[]> chunks, int size) {
+            this.chunks = chunks;
+            this.size = size;
+        }
+
+        static Posting of(long sequence) {
+            return new Posting(PersistentTreap.<Long, long[]>empty().put(sequence, new long[] {sequence}), 1);
+        }
+
+        static Posting ofSorted(long[] sequences, int size) {
+            List<Long> keys = new ArrayList<>();
+            List<long[]> values = new ArrayList<>();
+            for (int start = 0; start < size; start += CHUNK_SIZE) {
+                keys.add(sequences[start]);
+                values.add(Arrays.copyOfRange(sequences, start, Math.min(size, start + CHUNK_SIZE)));
+            }
+            return new Posting(PersistentTreap.ofSorted(keys, values), size);
+        }
+
+        /**
+         * Returns a posting list that also holds the given sequence number, which is greater than all held.
+         */
+        Posting append(long sequence) {
+            Long lastKey = chunks.lastKey();
+            long[] last = chunks.get(lastKey);
+            if (last.length < CHUNK_SIZE) {
+                long[] grown = Arrays.copyOf(last, last.length + 1);
+                grown[last.length] = sequence;
+                return new Posting(chunks.put(lastKey, grown), size + 1);
+            }
+            return new Posting(chunks.put(sequence, new long[] {sequence}), size + 1);
+        }
+
+        /**
+         * Returns a posting list without the given sequence number, or null if none would be left.
+         */
+        Posting remove(long sequence) {
+            Long key = chunks.floorKey(sequence);
+            if (key == null) {
+                return this;
+            }
+            long[] chunk = chunks.get(key);
+            int position = Arrays.binarySearch(chunk, sequence);
+            if (position < 0) {
+                return this;
+            }
+            if (size == 1) {
+                return null;
+            }
+            PersistentTreap<Long, long[]> next = chunks.remove(key);
+            if (chunk.length > 1) {
+                long[] shrunk = new long[chunk.length - 1];
+                System.arraycopy(chunk, 0, shrunk, 0, position);
+                System.arraycopy(chunk, position + 1, shrunk, position, shrunk.length - position);
+                next = next.put(shrunk[0], shrunk);
+            }
+            return new Posting(next, size - 1);
+        }
+
+        boolean contains(long sequence) {
+            Long key = chunks.floorKey(sequence);
+            return key != null && Arrays.binarySearch(chunks.get(key), sequence) >= 0;
+        }
+
+        void forEach(LongConsumer action) {
+            chunks.forEach((key, chunk) -> {
+                for (long sequence : chunk) {
+                    action.accept(sequence);
+                }
+            });
+        }
+    }
+
+    /**
+     * The sequence numbers collected for one trigram while an index is built.
+     */
+    private static final class SequenceBuffer {
+        private long[] sequences = new long[2];
+        private int size;
+
+        void add(long sequence) {
+            if (size == sequences.length) {
+                sequences = Arrays.copyOf(sequences, size * 2);
+            }
+            sequences[size++] = sequence;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package pallo.task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.TreeMap;
+
+/**
+ * The date index of {@link TimeIndex}, made immutable for a {@link ConcurrentTaskList}:
+ * adding or removing a task returns a new version of the index in O(log n) time.
+ *
+ * <p>Tasks are keyed on their date and then on the sequence number their list gave
+ * them, which grows in list order, so a range scan returns tasks sorted by date with
+ * ties in list order, as {@link TimeIndex#between} does.
+ */
+final class PersistentTimeIndex {
+    private final PersistentTreap<TimeKey, Task> tasksByStart;
+    private final PersistentTreap<Duration, Integer> eventCountByDuration;
+
+    private PersistentTimeIndex(PersistentTreap<TimeKey, Task> tasksByStart,
+            PersistentTreap<Duration, Integer> eventCountByDuration) {
+        this.tasksByStart = tasksByStart;
+        this.eventCountByDuration = eventCountByDuration;
+    }
+
+    /**
+     * Builds an index over the given tasks. Tasks without a parsed date are ignored.
+     *
+     * @param tasksBySequence The tasks, keyed by their sequence numbers.
+     * @return The index.
+     */
+    static PersistentTimeIndex of(PersistentTreap<Long, Task> tasksBySequence) {
+        TreeMap<TimeKey, Task> tasksByStart = new TreeMap<>();
+        TreeMap<Duration, Integer> eventCountByDuration = new TreeMap<>();
+        tasksBySequence.forEach((sequence, task) -> {
+            LocalDateTime start = TimeIndex.startOf(task);
+            if (start == null) {
+                return;
+            }
+            tasksByStart.put(new TimeKey(start, sequence), task);
+            Duration duration = TimeIndex.durationOf(task, start);
+            if (duration != null) {
+                eventCountByDuration.merge(duration, 1, Integer::sum);
+            }
+        });
+        return new PersistentTimeIndex(ofSorted(tasksByStart), ofSorted(eventCountByDuration));
+    }
+
+    private static <K extends Comparable<? super K>, V> PersistentTreap<K, V> ofSorted(TreeMap<K, V> map) {
+        return PersistentTreap.ofSorted(new ArrayList<>(map.keySet()), new ArrayList<>(map.values()));
+    }
+
+    /**
+     * Returns an index that also holds the given task.
+     *
+     * @param sequence The task's sequence number.
+     * @param task     The task.
+     * @return The new version of the index, or this index if the task has no parsed date.
+     */
+    PersistentTimeIndex add(long sequence, Task task) {
+        LocalDateTime start = TimeIndex.startOf(task);
+        if (start == null) {
+            return this;
+        }
+        PersistentTreap<Duration, Integer> counts = eventCountByDuration;
+        Duration duration = TimeIndex.durationOf(task, start);
+        if (duration != null) {
+            Integer count = counts.get(duration);
+            counts = counts.put(duration, count == null ? 1 : count + 1);
+        }
+        return new PersistentTimeIndex(tasksByStart.put(new TimeKey(start, sequence), task), counts);
+    }
+
+    /**
+     * Returns an index without the given task.
+     *
+     * @param sequence The task's sequence number.
+     * @param task     The task.
+     * @return The new version of the index, or this index if it does not hold the task.
+     */
+    PersistentTimeIndex remove(long sequence, Task task) {
+        LocalDateTime start = TimeIndex.startOf(task);
+        if (start == null) {
+            return this;
+        }
+        TimeKey key = new TimeKey(start, sequence);
+        if (tasksByStart.get(key) != task) {
+            return this;
+        }
+        PersistentTreap<Duration, Integer> counts = eventCountByDuration;
+        Duration duration = TimeIndex.durationOf(task, start);
+        if (duration != null) {
+            int count = counts.get(duration);
+            counts = count == 1 ? counts.remove(duration) : counts.put(duration, count - 1);
+        }
+        return new PersistentTimeIndex(tasksByStart.remove(key), counts);
+    }
+
+    /**
+     * Returns the dated tasks that fall within the given window, inclusive, as
+     * {@link TimeIndex#between} does.
+     *
+     * @param from The start of the window.
+     * @param to   The end of the window.
+     * @return The matching tasks, sorted by due or start date with ties in list order.
+     */
+    ArrayList<Task> between(LocalDateTime from, LocalDateTime to) {
+        ArrayList<Task> matches = new ArrayList<>();
+        if (from.isAfter(to)) {
+            return matches;
+        }
+
+        Duration longestEvent = eventCountByDuration.isEmpty() ? Duration.ZERO : eventCountByDuration.lastKey();
+        TimeKey scanStart = new TimeKey(from.minus(longestEvent), Long.MIN_VALUE);
+        tasksByStart.forEach(scanStart, new TimeKey(to, Long.MAX_VALUE), (key, task) -> {
+            if (!key.start.isBefore(from) || !TimeIndex.endOf(task).isBefore(from)) {
+                matches.add(task);
+            }
+        });
+        return matches;
+    }
+
+    /**
+     * The date a task is keyed on, with its sequence number to keep tasks on the same date in list order.
+     */
+    private static final class TimeKey implements Comparable<TimeKey> {
+        private final LocalDateTime start;
+        private final long sequence;
+
+        TimeKey(LocalDateTime start, long sequence) {
+            this.start = start;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(TimeKey other) {
+            int comparison = start.compareTo(other.start);
+            return comparison != 0 ? comparison : Long.compare(sequence, other.sequence);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof TimeKey && compareTo((TimeKey) other) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * start.hashCode() + Long.hashCode(sequence);
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package pallo.task;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable sorted map that is changed by making a new version of it, used for
+ * the indexes of a {@link ConcurrentTaskList}. A change copies only the path from the
+ * root to the changed entry and shares every other node with the old version, so
+ * puts and removes take O(log n) time and space, and readers of an old version are
+ * never disturbed.
+ *
+ * <p>The map is a treap: a binary search tree on the keys that is also a heap on a
+ * priority mixed from each key's hash code. Since the shape depends only on the keys,
+ * it is as balanced as a random tree whatever order the keys arrive in, and a map can
+ * be built from sorted entries in linear time. Each node counts the entries below it,
+ * so entries can also be found by their position in key order.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+final class PersistentTreap<K extends Comparable<? super K>, V> {
+    private static final PersistentTreap<?, ?> EMPTY = new PersistentTreap<>(null);
+
+    private final Node<K, V> root;
+
+    private PersistentTreap(Node<K, V> root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns the empty map.
+     *
+     * @return The empty map.
+     */
+    @SuppressWarnings("unchecked")
+    static <K extends Comparable<? super K>, V> PersistentTreap<K, V> empty() {
+        return (PersistentTreap<K, V>) EMPTY;
+    }
+
+    /**
+     * Builds a map from entries whose keys are in ascending order, in linear time.
+     *
+     * @param keys   The keys, ascending and distinct.
+     * @param values The value of each key.
+     * @return The map.
+     */
+    static <K extends Comparable<? super K>, V> PersistentTreap<K, V> ofSorted(List<K> keys, List<V> values) {
+        assert keys.size() == values.size() : "Every key should have a value";
+        int size = keys.size();
+        int[] priorities = new int[size];
+        int[] left = new int[size];
+        int[] right = new int[size];
+        int[] stack = new int[size];
+        int depth = 0;
+        // Builds the Cartesian tree of the priorities: each key takes the lower-priority keys
+        // before it as its left subtree, and becomes the right child of the key left on the stack
+        for (int i = 0; i < size; i++) {
+            assert i == 0 || keys.get(i - 1).compareTo(keys.get(i)) < 0 : "Keys should be ascending";
+            priorities[i] = priorityOf(keys.get(i));
+            right[i] = -1;
+            int last = -1;
+            while (depth > 0 && priorities[stack[depth - 1]] < priorities[i]) {
+                last = stack[--depth];
+            }
+            left[i] = last;
+            if (depth > 0) {
+                right[stack[depth - 1]] = i;
+            }
+            stack[depth++] = i;
+        }
+        return new PersistentTreap<>(size == 0 ? null : build(stack[0], keys, values, priorities, left, right));
+    }
+
+    private static <K extends Comparable<? super K>, V> Node<K, V> build(int index, List<K> keys, List<V> values,
+            int[] priorities, int[] left, int[] right) {
+        Node<K, V> leftNode = left[index] < 0 ? null : build(left[index], keys, values, priorities, left, right);
+        Node<K, V> rightNode = right[index] < 0 ? null : build(right[index], keys, values, priorities, left, right);
+        return new Node<>(keys.get(index), values.get(index), priorities[index], leftNode, rightNode);
+    }
+
+    int size() {
+        return sizeOf(root);
+    }
+
+    boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Returns the value of the given key.
+     *
+     * @param key The key.
+     * @return Its value, or null if the map does not contain it.
+     */
+    V get(K key) {
+        Node<K, V> node = root;
+        while (node != null) {
+            int comparison = key.compareTo(node.key);
+            if (comparison == 0) {
+                return node.value;
+            }
+            node = comparison < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    /**
+     * Returns a map in which the given key has the given value.
+     *
+     * @param key   The key.
+     * @param value Its new value.
+     * @return The new version of the map.
+     */
+    PersistentTreap<K, V> put(K key, V value) {
+        return new PersistentTreap<>(put(root, key, value, priorityOf(key)));
+    }
+
+    private static <K extends Comparable<? super K>, V> Node<K, V> put(Node<K, V> node, K key, V value,
+            int priority) {
+        if (node == null) {
+            return new Node<>(key, value, priority, null, null);
+        }
+        int comparison = key.compareTo(node.key);
+        if (comparison == 0) {
+            return new Node<>(key, value, node.priority, node.left, node.right);
+        }
+        if (comparison < 0) {
+            Node<K, V> left = put(node.left, key, value, priority);
+            if (left.priority > node.priority) {
+                // Rotates the new key above this node to keep the heap order
+                return new Node<>(left.key, left.value, left.priority, left.left,
+                        new Node<>(node.key, node.value, node.priority, left.right, node.right));
+            }
+            return new Node<>(node.key, node.value, node.priority, left, node.right);
+        }
+        Node<K, V> right = put(node.right, key, value, priority);
+        if (right.priority > node.priority) {
+            return new Node<>(right.key, right.value, right.priority,
+                    new Node<>(node.key, node.value, node.priority, node.left, right.left), right.right);
+        }
+        return new Node<>(node.key, node.value, node.priority, node.left, right);
+    }
+
+    /**
+     * Returns a map without the given key.
+     *
+     * @param key The key.
+     * @return The new version of the map, or this map if it does not contain the key.
+     */
+    PersistentTreap<K, V> remove(K key) {
+        Node<K, V> newRoot = remove(root, key);
+        return newRoot == root ? this : new PersistentTreap<>(newRoot);
+    }
+
+    private static <K extends Comparable<? super K>, V> Node<K, V> remove(Node<K, V> node, K key) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = key.compareTo(node.key);
+        if (comparison == 0) {
+            return merge(node.left, node.right);
+        }
+        if (comparison < 0) {
+            Node<K, V> left = remove(node.left, key);
+            return left == node.left ? node : new Node<>(node.key, node.value, node.priority, left, node.right);
+        }
+        Node<K, V> right = remove(node.right, key);
+        return right == node.right ? node : new Node<>(node.key, node.value, node.priority, node.left, right);
+    }
+
+    /**
+     * Joins two trees, all of whose keys in the first are less than those in the second.
+     */
+    private static <K extends Comparable<? super K>, V> Node<K, V> merge(Node<K, V> left, Node<K, V> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority >= right.priority) {
+            return new Node<>(left.key, left.value, left.priority, left.left, merge(left.right, right));
+        }
+        return new Node<>(right.key, right.value, right.priority, merge(left, right.left), right.right);
+    }
+
+    /**
+     * Returns how many keys in the map are less than the given one.
+     *
+     * @param key The key.
+     * @return The position the key has, or would have, in key order.
+     */
+    int rank(K key) {
+        int rank = 0;
+        Node<K, V> node = root;
+        while (node != null) {
+            int comparison = key.compareTo(node.key);
+            if (comparison <= 0) {
+                node = node.left;
+            } else {
+                rank += sizeOf(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the key at the given position in key order.
+     *
+     * @param index The zero-based position, which must be less than the size.
+     * @return The key.
+     */
+    K keyAt(int index) {
+        return nodeAt(index).key;
+    }
+
+    /**
+     * Returns the value of the key at the given position in key order.
+     *
+     * @param index The zero-based position, which must be less than the size.
+     * @return The value.
+     */
+    V valueAt(int index) {
+        return nodeAt(index).value;
+    }
+
+    private Node<K, V> nodeAt(int index) {
+        assert index >= 0 && index < size() : "Position should be within the map";
+        Node<K, V> node = root;
+        int remaining = index;
+        while (true) {
+            int leftSize = sizeOf(node.left);
+            if (remaining == leftSize) {
+                return node;
+            }
+            if (remaining < leftSize) {
+                node = node.left;
+            } else {
+                remaining -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Returns the greatest key less than or equal to the given one.
+     *
+     * @param key The key.
+     * @return The key found, or null if there is none.
+     */
+    K floorKey(K key) {
+        K floor = null;
+        Node<K, V> node = root;
+        while (node != null) {
+            int comparison = key.compareTo(node.key);
+            if (comparison == 0) {
+                return node.key;
+            }
+            if (comparison < 0) {
+                node = node.left;
+            } else {
+                floor = node.key;
+                node = node.right;
+            }
+        }
+        return floor;
+    }
+
+    /**
+     * Returns the greatest key in the map.
+     *
+     * @return The key, or null if the map is empty.
+     */
+    K lastKey() {
+        Node<K, V> node = root;
+        if (node == null) {
+            return null;
+        }
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node.key;
+    }
+
+    /**
+     * Passes every entry to the given action, in key order.
+     *
+     * @param action The action.
+     */
+    void forEach(BiConsumer<? super K, ? super V> action) {
+        forEach(root, null, null, action);
+    }
+
+    /**
+     * Passes the entries whose keys fall between the given bounds, inclusive, to the given action, in key order.
+     *
+     * @param from   The lowest key to pass, or null for no lower bound.
+     * @param to     The highest key to pass, or null for no upper bound.
+     * @param action The action.
+     */
+    void forEach(K from, K to, BiConsumer<? super K, ? super V> action) {
+        forEach(root, from, to, action);
+    }
+
+    private static <K extends Comparable<? super K>, V> void forEach(Node<K, V> node, K from, K to,
+            BiConsumer<? super K, ? super V> action) {
+        while (node != null) {
+            boolean isAfterFrom = from == null || from.compareTo(node.key) <= 0;
+            boolean isBeforeTo = to == null || to.compareTo(node.key) >= 0;
+            if (isAfterFrom) {
+                forEach(node.left, from, to, action);
+            }
+            if (isAfterFrom && isBeforeTo) {
+                action.accept(node.key, node.value);
+            }
+            if (!isBeforeTo) {
+                return;
+            }
+            node = node.right;
+        }
+    }
+
+    private static int sizeOf(Node<?, ?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Mixes a key's hash code into a priority, so that nearby keys get unrelated priorities.
+     */
+    private static int priorityOf(Object key) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        return hash ^ (hash >>> 13);
+    }
+
+    private static final class Node<K, V> {
+        private final K key;
+        private final V value;
+        private final int priority;
+        private final int size;
+        private final Node<K, V> left;
+        private final Node<K, V> right;
+
+        Node(K key, V value, int priority, Node<K, V> left, Node<K, V> right) {
+            this.key = key;
+            this.value = value;
+            this.priority = priority;
+            this.size = sizeOf(left) + sizeOf(right) + 1;
+            this.left = left;
+            this.right = right;
+        }
+    }
+}
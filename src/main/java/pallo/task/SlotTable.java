@@ -0,0 +1,77 @@
+package pallo.task;
+
+/**
+ * A fixed table of slots, each holding the last value whose hash led to it, for the
+ * bounded caches of this package such as {@link StringPool}. Its memory stays the same
+ * however many values pass through it, and a value stored later takes over the slot of
+ * one stored before.
+ *
+ * <p>Slots are read and replaced without locks. Values must be immutable, so a racing
+ * reader sees either the old value or the new one whole, and at worst misses a value
+ * another thread just stored.
+ *
+ * @param <T> The type of the values.
+ */
+final class SlotTable<T> {
+    private final Object[] slots;
+    private final int mask;
+
+    /**
+     * Constructs an empty table.
+     *
+     * @param capacity The number of slots, which must be 0 to hold nothing or a power of two.
+     * @param name     What the table is for, e.g. "String pool", to name it in errors.
+     */
+    SlotTable(int capacity, String name) {
+        if (capacity < 0 || Integer.bitCount(capacity) > 1) {
+            throw new IllegalArgumentException(name + " capacity should be 0 or a power of two: " + capacity);
+        }
+        this.slots = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Returns the number of slots, or 0 if the table holds nothing.
+     *
+     * @return The number of slots.
+     */
+    int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Returns the value in the slot of the given hash.
+     *
+     * @param hash The hash of the value looked for.
+     * @return The value in its slot, which may have a different hash, or null if the slot is empty.
+     */
+    @SuppressWarnings("unchecked")
+    T get(int hash) {
+        return slots.length == 0 ? null : (T) slots[slotOf(hash)];
+    }
+
+    /**
+     * Stores a value in the slot of its hash, in place of whatever held it.
+     *
+     * @param hash  The hash of the value.
+     * @param value The value.
+     */
+    void set(int hash, T value) {
+        if (slots.length > 0) {
+            slots[slotOf(hash)] = value;
+        }
+    }
+
+    /**
+     * Empties every slot.
+     */
+    void clear() {
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = null;
+        }
+    }
+
+    private int slotOf(int hash) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,131 @@
+package pallo.task;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shares one copy of task text that recurs, such as the description of a weekly
+ * "standup" or an unparsed date like "next monday", among the tasks that use it.
+ * The loader and the parser pass each such string through {@link #intern(String)}
+ * before it is stored in a task.
+ *
+ * <p>Unlike {@link String#intern()}, the pool is bounded: it is a {@link SlotTable},
+ * each slot remembering the last string that hashed to it, so a string that is not
+ * seen again is soon replaced and can be collected with its task. Strings longer than
+ * the pool's maximum length are passed through, as long text rarely repeats exactly.
+ *
+ * <p>The shared pool has {@value #DEFAULT_CAPACITY} slots unless the
+ * {@code pallo.stringpool} system property gives another power of two, or 0 to turn
+ * pooling off, and pools strings of up to {@value #DEFAULT_MAX_LENGTH} characters unless
+ * {@code pallo.stringpool.maxlength} says otherwise. Its hit rate and an estimate of
+ * the memory saved are shown by the {@code stats} command.
+ */
+public final class StringPool {
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+    public static final int DEFAULT_MAX_LENGTH = 48;
+
+    private static final String PROPERTY_CAPACITY = "pallo.stringpool";
+    private static final String PROPERTY_MAX_LENGTH = "pallo.stringpool.maxlength";
+    private static final StringPool SHARED = new StringPool(Integer.getInteger(PROPERTY_CAPACITY, DEFAULT_CAPACITY),
+            Integer.getInteger(PROPERTY_MAX_LENGTH, DEFAULT_MAX_LENGTH));
+
+    /** Bytes taken by a String object and its array header, before the characters themselves. */
+    private static final int STRING_OVERHEAD_BYTES = 24 + 16;
+    private static final int OBJECT_ALIGNMENT_BYTES = 8;
+
+    private final SlotTable<String> slots;
+    private final int maxLength;
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    /**
+     * Constructs an empty pool.
+     *
+     * @param capacity  The number of slots, which must be 0 to pool nothing or a power of two.
+     * @param maxLength The length of the longest string worth pooling.
+     */
+    public StringPool(int capacity, int maxLength) {
+        this.slots = new SlotTable<>(capacity, "String pool");
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Returns the pool that the loader and the parser share.
+     *
+     * @return The shared pool.
+     */
+    public static StringPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns a pooled string equal to the given one, pooling it if none is.
+     *
+     * @param value The string, which may be null.
+     * @return The pooled copy, or the string itself if it was not pooled before or is not worth pooling.
+     */
+    public String intern(String value) {
+        if (value == null || slots.capacity() == 0 || value.length() > maxLength) {
+            return value;
+        }
+        lookups.increment();
+        int hash = value.hashCode();
+        String pooled = slots.get(hash);
+        if (value.equals(pooled)) {
+            hits.increment();
+            bytesSaved.add(sizeOf(value));
+            return pooled;
+        }
+        slots.set(hash, value);
+        return value;
+    }
+
+    public long getLookupCount() {
+        return lookups.sum();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns an estimate of the memory saved by returning pooled strings instead of
+     * keeping the equal copies that were passed in, assuming one byte per character.
+     *
+     * @return The estimated bytes saved.
+     */
+    public long getBytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    /**
+     * Describes how well the pool is doing.
+     *
+     * @return A one-line report of its hit rate and the memory it saved.
+     */
+    public String report() {
+        if (slots.capacity() == 0) {
+            return "Task text is not pooled. Start Pallo without -D" + PROPERTY_CAPACITY + "=0 to pool it.";
+        }
+        long lookupCount = getLookupCount();
+        long hitCount = getHitCount();
+        return String.format("Pooled task text: %d of %d lookups hit (%.1f%%), saving about %d KB.",
+                hitCount, lookupCount, lookupCount == 0 ? 0.0 : 100.0 * hitCount / lookupCount,
+                getBytesSaved() / 1024);
+    }
+
+    /**
+     * Forgets the pooled strings and the statistics.
+     */
+    public void reset() {
+        slots.clear();
+        lookups.reset();
+        hits.reset();
+        bytesSaved.reset();
+    }
+
+    private static long sizeOf(String value) {
+        int alignedLength = (value.length() + OBJECT_ALIGNMENT_BYTES - 1) / OBJECT_ALIGNMENT_BYTES;
+        return STRING_OVERHEAD_BYTES + alignedLength * OBJECT_ALIGNMENT_BYTES;
+    }
+}
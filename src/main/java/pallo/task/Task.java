@@ -1,13 +1,29 @@
 package pallo.task;
 
+import java.lang.ref.SoftReference;
+
 /**
  * Represents a task in the Pallo task manager.
  * A task has a description and a completion status. This is the base class
  * for all task types (Todo, Deadline, Event).
+ *
+ * <p>A task also has a numeric ID, which is assigned when it is first added to a
+ * TaskList and saved with it, so it keeps identifying the same task across deletes
+ * and restarts. An ID of 0 means none has been assigned yet.
+ *
+ * <p>Listing and saving render every task, although few change in between, so a task
+ * memoizes the strings it last rendered. Each is held by a single soft reference that
+ * also records the status and ID it was rendered with, and is only reused while they
+ * still match, so marking a task or giving it an ID renders it afresh, even if a reader
+ * raced with the change. The memo goes with its task, so a removed task or a collected
+ * view takes its strings with it, and a very large list gives them up under memory pressure.
  */
 public class Task {
     protected String description;
-    protected TaskStatus status;
+    protected volatile TaskStatus status;
+    protected long id;
+    private volatile Rendering display;
+    private volatile Rendering fileForm;
 
     /**
      * Constructs a new Task with the specified description.
@@ -22,6 +38,26 @@ public class Task {
         this.status = TaskStatus.NOT_DONE;
     }
 
+    /**
+     * Constructs a copy of the given task, including its completion status.
+     *
+     * @param other The task to copy.
+     */
+    protected Task(Task other) {
+        this.description = other.description;
+        this.status = other.status;
+        this.id = other.id;
+    }
+
+    /**
+     * Returns a detached copy of this task, which later changes to this task do not affect.
+     *
+     * @return The copy.
+     */
+    public Task copy() {
+        return new Task(this);
+    }
+
     /**
      * Returns the description of this task.
      *
@@ -31,6 +67,15 @@ public class Task {
         return description;
     }
 
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        assert id > 0 : "Task ID should be positive";
+        this.id = id;
+    }
+
     public boolean isDone() {
         return status == TaskStatus.DONE;
     }
@@ -54,8 +99,15 @@ public class Task {
     }
 
     @Override
-    public String toString() {
-        return status.getIcon() + " " + description;
+    public final String toString() {
+        TaskStatus currentStatus = status;
+        long currentId = id;
+        String text = Rendering.get(display, currentStatus, currentId);
+        if (text == null) {
+            text = render(currentStatus);
+            display = new Rendering(text, currentStatus, currentId);
+        }
+        return text;
     }
 
     /**
@@ -63,12 +115,71 @@ public class Task {
      *
      * @return A pipe-delimited string suitable for file storage.
      */
-    public String toFileString() {
+    public final String toFileString() {
+        TaskStatus currentStatus = status;
+        long currentId = id;
+        String text = Rendering.get(fileForm, currentStatus, currentId);
+        if (text == null) {
+            text = renderForFile(currentStatus, currentId);
+            fileForm = new Rendering(text, currentStatus, currentId);
+        }
+        return text;
+    }
+
+    /**
+     * Renders this task for display, as {@link #toString} returns it.
+     *
+     * @param status The status to show, which is read once so the text is consistent.
+     * @return The text shown for this task.
+     */
+    protected String render(TaskStatus status) {
+        return status.getIcon() + " " + description;
+    }
+
+    /**
+     * Renders this task for saving, as {@link #toFileString} returns it.
+     *
+     * @param status The status to save.
+     * @param id     The ID to save, or 0 if none has been assigned.
+     * @return A pipe-delimited string suitable for file storage.
+     */
+    protected String renderForFile(TaskStatus status, long id) {
         int statusValue = (status == TaskStatus.DONE) ? 1 : 0;
-        return getTaskType() + " | " + statusValue + " | " + description;
+        return getIdPrefix(id) + getTaskType() + " | " + statusValue + " | " + description;
+    }
+
+    /**
+     * Returns the ID field that starts a task's file representation, e.g. {@code #12 | }.
+     *
+     * @param id The task's ID.
+     * @return The ID field, or an empty string if no ID has been assigned.
+     */
+    protected static String getIdPrefix(long id) {
+        return id > 0 ? "#" + id + " | " : "";
     }
 
     protected String getTaskType() {
         return "T"; // Default for base Task class, overridden in subclasses
     }
+
+    /**
+     * A rendered string, held softly, with the status and ID it was rendered with.
+     */
+    private static final class Rendering extends SoftReference<String> {
+        private final TaskStatus status;
+        private final long id;
+
+        Rendering(String text, TaskStatus status, long id) {
+            super(text);
+            this.status = status;
+            this.id = id;
+        }
+
+        /**
+         * Returns the memoized string if it is still held and was rendered with the given status and ID.
+         */
+        static String get(Rendering rendering, TaskStatus status, long id) {
+            return rendering != null && rendering.status == status && rendering.id == id ? rendering.get() : null;
+        }
+    }
 }
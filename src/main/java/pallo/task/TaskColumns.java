@@ -0,0 +1,571 @@
+package pallo.task;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The list of tasks behind a columnar TaskList, which holds very large lists in a
+ * fraction of the memory that task objects take.
+ *
+ * <p>Each field of a task is kept in a column of primitives: a type tag, a bit for
+ * the completion status, the ID, and the dates as epoch seconds, so fractions of a
+ * second are dropped. Descriptions and the date strings users typed are stored as
+ * UTF-8 in one shared byte arena, found through an offset column. A generated list
+ * of a million mixed tasks takes about 60 bytes per task this way, against about 235
+ * as task objects in a TaskList.
+ *
+ * <p>Tasks are handed out as flyweight views: ordinary Todos, Deadlines and Events
+ * materialized from their row when read, which write marks and IDs back to the
+ * columns. A row has at most one view at a time, held weakly, so reading a task twice
+ * gives the same object while views nobody holds are collected. The view of a removed
+ * task is detached from the columns and keeps working on its own.
+ *
+ * <p>Rows are kept in list order and shift down on a delete, as in an ArrayList.
+ * Tasks can only be appended, since that is all a TaskList ever does.
+ */
+class TaskColumns extends AbstractList<Task> implements RandomAccess {
+    private static final byte TODO = 0;
+    private static final byte DEADLINE = 1;
+    private static final byte EVENT = 2;
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MIN_GARBAGE_TO_COMPACT = 64 * 1024;
+
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private final BitSet doneRows = new BitSet();
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] starts = new long[INITIAL_CAPACITY]; // Due date of a deadline or start of an event
+    private long[] ends = new long[INITIAL_CAPACITY]; // End of an event
+    private int[] textOffsets = new int[INITIAL_CAPACITY];
+    private ViewReference[] views = new ViewReference[INITIAL_CAPACITY];
+    private int size;
+    private byte[] arena = new byte[INITIAL_CAPACITY * 32];
+    private int arenaLength;
+    private int garbageBytes; // Text of removed tasks, until the arena is compacted
+    private boolean areIdsAscending = true;
+    private final ReferenceQueue<Task> collectedViews = new ReferenceQueue<>();
+
+    /**
+     * Moves the given tasks into a new columnar list. Each task is cleared from the
+     * given list once it is stored, so the objects can be collected while the columns fill.
+     *
+     * @param tasks The tasks to move, which all have IDs. The list is left empty.
+     * @return The columnar list.
+     */
+    static TaskColumns drain(ArrayList<Task> tasks) {
+        TaskColumns columns = new TaskColumns();
+        columns.ensureCapacity(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            columns.add(tasks.get(i));
+            tasks.set(i, null);
+        }
+        tasks.clear();
+        return columns;
+    }
+
+    /**
+     * Returns a copy of this list that shares nothing with it, made by copying the
+     * columns rather than the tasks. Tasks already handed out stay views of this list.
+     *
+     * @return The copy.
+     */
+    TaskColumns copy() {
+        TaskColumns copy = new TaskColumns();
+        int capacity = Math.max(size, INITIAL_CAPACITY);
+        copy.types = Arrays.copyOf(types, capacity);
+        copy.doneRows.or(doneRows);
+        copy.ids = Arrays.copyOf(ids, capacity);
+        copy.starts = Arrays.copyOf(starts, capacity);
+        copy.ends = Arrays.copyOf(ends, capacity);
+        copy.textOffsets = Arrays.copyOf(textOffsets, capacity);
+        copy.views = new ViewReference[capacity];
+        copy.size = size;
+        copy.arena = Arrays.copyOf(arena, Math.max(arenaLength, INITIAL_CAPACITY));
+        copy.arenaLength = arenaLength;
+        copy.garbageBytes = garbageBytes;
+        copy.areIdsAscending = areIdsAscending;
+        return copy;
+    }
+
+    /**
+     * Materializes every task as a new object that is detached from the columns.
+     *
+     * @return The tasks, in list order.
+     */
+    List<Task> copyTasks() {
+        List<Task> copies = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            copies.add(materialize(new Row(row)));
+        }
+        return copies;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Task get(int index) {
+        checkIndex(index);
+        expungeCollectedViews();
+        ViewReference reference = views[index];
+        Task view = reference == null ? null : reference.get();
+        if (view == null) {
+            Row row = new Row(index);
+            view = materialize(row);
+            row.columns = this;
+            views[index] = new ViewReference(view, row, collectedViews);
+        }
+        return view;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        if (index != size) {
+            throw new UnsupportedOperationException("Tasks can only be appended");
+        }
+        assert task.getId() > 0 : "Tasks should have an ID before they are added";
+        ensureCapacity(size + 1);
+        int row = size;
+        textOffsets[row] = arenaLength;
+        appendText(task.getDescription());
+        if (task instanceof Event) {
+            Event event = (Event) task;
+            types[row] = EVENT;
+            starts[row] = toEpochSecond(event.getFrom());
+            ends[row] = toEpochSecond(event.getTo());
+            appendText(event.getFromString());
+            appendText(event.getToString());
+        } else if (task instanceof Deadline) {
+            Deadline deadline = (Deadline) task;
+            types[row] = DEADLINE;
+            starts[row] = toEpochSecond(deadline.getBy());
+            ends[row] = NO_DATE;
+            appendText(deadline.getByString());
+        } else {
+            types[row] = TODO;
+            starts[row] = NO_DATE;
+            ends[row] = NO_DATE;
+        }
+        ids[row] = task.getId();
+        doneRows.set(row, task.isDone());
+        views[row] = null;
+        areIdsAscending &= row == 0 || ids[row - 1] < ids[row];
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task view = get(index);
+        views[index].row.columns = null;
+        garbageBytes += textLength(index);
+
+        int moved = size - index - 1;
+        System.arraycopy(types, index + 1, types, index, moved);
+        System.arraycopy(ids, index + 1, ids, index, moved);
+        System.arraycopy(starts, index + 1, starts, index, moved);
+        System.arraycopy(ends, index + 1, ends, index, moved);
+        System.arraycopy(textOffsets, index + 1, textOffsets, index, moved);
+        System.arraycopy(views, index + 1, views, index, moved);
+        BitSet doneAfter = doneRows.get(index + 1, size);
+        doneRows.clear(index, size);
+        for (int row = doneAfter.nextSetBit(0); row >= 0; row = doneAfter.nextSetBit(row + 1)) {
+            doneRows.set(index + row);
+        }
+        size--;
+        views[size] = null;
+        for (int row = index; row < size; row++) {
+            if (views[row] != null) {
+                views[row].row.index = row;
+            }
+        }
+        modCount++;
+
+        if (garbageBytes >= MIN_GARBAGE_TO_COMPACT && garbageBytes > arenaLength / 2) {
+            compactArena();
+        }
+        return view;
+    }
+
+    /**
+     * Returns the task with the given ID.
+     *
+     * @param id The task ID.
+     * @return The task, or null if no task in the list has that ID.
+     */
+    Task getById(long id) {
+        int row = rowOf(id);
+        return row < 0 ? null : get(row);
+    }
+
+    /**
+     * Returns the current list position of the given task.
+     *
+     * @param task The task to look for.
+     * @return Its zero-based position, or -1 if it is not a task handed out by this list.
+     */
+    int positionOf(Task task) {
+        int row = rowOf(task.getId());
+        return row >= 0 && views[row] != null && views[row].get() == task ? row : -1;
+    }
+
+    /**
+     * Finds the tasks whose lowercased description contains the lowercased keyword,
+     * decoding each description in turn. Only the matches are materialized.
+     *
+     * @param lowerKeyword The lowercased keyword.
+     * @return The matching tasks, in list order.
+     */
+    ArrayList<Task> find(String lowerKeyword) {
+        ArrayList<Task> matches = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            String description = new TextReader(textOffsets[row]).next();
+            if (description.toLowerCase().contains(lowerKeyword)) {
+                matches.add(get(row));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the dated tasks that fall within the given window, inclusive, with the
+     * same matches and order as {@link TimeIndex#between}, by scanning the date columns.
+     *
+     * @param from The start of the window.
+     * @param to   The end of the window.
+     * @return The matching tasks, sorted by due or start date with ties in list order.
+     */
+    ArrayList<Task> between(LocalDateTime from, LocalDateTime to) {
+        ArrayList<Task> matches = new ArrayList<>();
+        if (from.isAfter(to)) {
+            return matches;
+        }
+
+        // Stored dates are whole seconds, so they are at or after from exactly when they are at or after this
+        long fromSecond = toEpochSecond(from) + (from.getNano() > 0 ? 1 : 0);
+        long toSecond = toEpochSecond(to);
+        List<Integer> rows = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            long start = starts[row];
+            if (start == NO_DATE || start > toSecond) {
+                continue;
+            }
+            long end = ends[row] != NO_DATE ? ends[row] : start;
+            if (start >= fromSecond || end >= fromSecond) {
+                rows.add(row);
+            }
+        }
+        rows.sort(Comparator.comparingLong(row -> starts[row]));
+        for (int row : rows) {
+            matches.add(get(row));
+        }
+        return matches;
+    }
+
+    private int rowOf(long id) {
+        if (areIdsAscending) {
+            int row = Arrays.binarySearch(ids, 0, size, id);
+            return row >= 0 ? row : -1;
+        }
+        for (int row = 0; row < size; row++) {
+            if (ids[row] == id) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    private Task materialize(Row row) {
+        int index = row.index;
+        TextReader text = new TextReader(textOffsets[index]);
+        String description = text.next();
+        Task view;
+        switch (types[index]) {
+        case EVENT:
+            view = new EventView(row, description, toDateTime(starts[index]), toDateTime(ends[index]),
+                    text.next(), text.next());
+            break;
+        case DEADLINE:
+            view = new DeadlineView(row, description, toDateTime(starts[index]), text.next());
+            break;
+        default:
+            view = new TodoView(row, description);
+            break;
+        }
+        // The row is not attached yet, so these do not write back
+        if (doneRows.get(index)) {
+            view.markAsDone();
+        }
+        view.setId(ids[index]);
+        return view;
+    }
+
+    /**
+     * Stores the status and ID of a view back into its row.
+     */
+    private void writeBack(int row, Task view) {
+        doneRows.set(row, view.isDone());
+        if (ids[row] != view.getId()) {
+            ids[row] = view.getId();
+            areIdsAscending = false;
+        }
+    }
+
+    private void expungeCollectedViews() {
+        for (Reference<? extends Task> reference = collectedViews.poll(); reference != null;
+                reference = collectedViews.poll()) {
+            Row row = ((ViewReference) reference).row;
+            if (row.columns == this && views[row.index] == reference) {
+                views[row.index] = null;
+            }
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > types.length) {
+            int newCapacity = Math.max(capacity, types.length + (types.length >> 1));
+            types = Arrays.copyOf(types, newCapacity);
+            ids = Arrays.copyOf(ids, newCapacity);
+            starts = Arrays.copyOf(starts, newCapacity);
+            ends = Arrays.copyOf(ends, newCapacity);
+            textOffsets = Arrays.copyOf(textOffsets, newCapacity);
+            views = Arrays.copyOf(views, newCapacity);
+        }
+    }
+
+    /**
+     * Appends a string to the arena as its UTF-8 length plus one, in 7-bit groups,
+     * followed by its bytes. A null string is written as a length of zero.
+     */
+    private void appendText(String text) {
+        byte[] bytes = text == null ? new byte[0] : text.getBytes(StandardCharsets.UTF_8);
+        int header = text == null ? 0 : bytes.length + 1;
+        ensureArenaCapacity(5 + bytes.length);
+        while (header >= 0x80) {
+            arena[arenaLength++] = (byte) (header | 0x80);
+            header >>>= 7;
+        }
+        arena[arenaLength++] = (byte) header;
+        System.arraycopy(bytes, 0, arena, arenaLength, bytes.length);
+        arenaLength += bytes.length;
+    }
+
+    private void ensureArenaCapacity(int extra) {
+        long needed = (long) arenaLength + extra;
+        if (needed <= arena.length) {
+            return;
+        }
+        if (needed > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Task text does not fit in a 2 GiB arena");
+        }
+        long grown = Math.min(Integer.MAX_VALUE - 8, (long) arena.length + (arena.length >> 1));
+        arena = Arrays.copyOf(arena, (int) Math.max(needed, grown));
+    }
+
+    /**
+     * Returns the number of arena bytes taken by the strings of the given row.
+     */
+    private int textLength(int row) {
+        TextReader text = new TextReader(textOffsets[row]);
+        int strings = types[row] == EVENT ? 3 : types[row] == DEADLINE ? 2 : 1;
+        for (int i = 0; i < strings; i++) {
+            text.skip();
+        }
+        return text.position - textOffsets[row];
+    }
+
+    /**
+     * Moves the text of the remaining rows together, dropping that of removed tasks.
+     * Rows are in arena order, since both follow the order tasks were appended in.
+     */
+    private void compactArena() {
+        byte[] compacted = new byte[Math.max(arenaLength - garbageBytes, INITIAL_CAPACITY) * 3 / 2];
+        int length = 0;
+        for (int row = 0; row < size; row++) {
+            int textLength = textLength(row);
+            System.arraycopy(arena, textOffsets[row], compacted, length, textLength);
+            textOffsets[row] = length;
+            length += textLength;
+        }
+        arena = compacted;
+        arenaLength = length;
+        garbageBytes = 0;
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime == null ? NO_DATE : dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime toDateTime(long epochSecond) {
+        return epochSecond == NO_DATE ? null : LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Reads the strings of a row from the arena, one after the other.
+     */
+    private final class TextReader {
+        private int position;
+
+        TextReader(int position) {
+            this.position = position;
+        }
+
+        String next() {
+            int length = readHeader() - 1;
+            if (length < 0) {
+                return null;
+            }
+            String text = new String(arena, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return text;
+        }
+
+        void skip() {
+            int length = readHeader() - 1;
+            position += Math.max(0, length);
+        }
+
+        private int readHeader() {
+            int header = 0;
+            int shift = 0;
+            byte part;
+            do {
+                part = arena[position++];
+                header |= (part & 0x7F) << shift;
+                shift += 7;
+            } while (part < 0);
+            return header;
+        }
+    }
+
+    /**
+     * Where a view's task currently is. Rows move when earlier tasks are removed.
+     */
+    private static final class Row {
+        private TaskColumns columns; // Null while the view is being built and once its task is removed
+        private int index;
+
+        Row(int index) {
+            this.index = index;
+        }
+
+        void writeBack(Task view) {
+            if (columns != null) {
+                columns.writeBack(index, view);
+            }
+        }
+    }
+
+    /**
+     * The weakly held view of a row, which remembers the row to clear once the view is collected.
+     */
+    private static final class ViewReference extends WeakReference<Task> {
+        private final Row row;
+
+        ViewReference(Task view, Row row, ReferenceQueue<Task> queue) {
+            super(view, queue);
+            this.row = row;
+        }
+    }
+
+    private static final class TodoView extends Todo {
+        private final Row row;
+
+        TodoView(Row row, String description) {
+            super(description);
+            this.row = row;
+        }
+
+        @Override
+        public void markAsDone() {
+            super.markAsDone();
+            row.writeBack(this);
+        }
+
+        @Override
+        public void markAsNotDone() {
+            super.markAsNotDone();
+            row.writeBack(this);
+        }
+
+        @Override
+        public void setId(long id) {
+            super.setId(id);
+            row.writeBack(this);
+        }
+    }
+
+    private static final class DeadlineView extends Deadline {
+        private final Row row;
+
+        DeadlineView(Row row, String description, LocalDateTime by, String byString) {
+            super(description, by, byString);
+            this.row = row;
+        }
+
+        @Override
+        public void markAsDone() {
+            super.markAsDone();
+            row.writeBack(this);
+        }
+
+        @Override
+        public void markAsNotDone() {
+            super.markAsNotDone();
+            row.writeBack(this);
+        }
+
+        @Override
+        public void setId(long id) {
+            super.setId(id);
+            row.writeBack(this);
+        }
+    }
+
+    private static final class EventView extends Event {
+        private final Row row;
+
+        EventView(Row row, String description, LocalDateTime from, LocalDateTime to, String fromString,
+                String toString) {
+            super(description, from, to, fromString, toString);
+            this.row = row;
+        }
+
+        @Override
+        public void markAsDone() {
+            super.markAsDone();
+            row.writeBack(this);
+        }
+
+        @Override
+        public void markAsNotDone() {
+            super.markAsNotDone();
+            row.writeBack(this);
+        }
+
+        @Override
+        public void setId(long id) {
+            super.setId(id);
+            row.writeBack(this);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package pallo.task;
+
+/**
+ * A list of tasks that keeps track of its task IDs without needing every task to be decoded,
+ * such as a lazily loaded task file. A TaskList backed by such a list can pick up the
+ * numbering where the list left off without touching its tasks.
+ */
+public interface TaskIdSequence {
+    /**
+     * Returns the largest ID of any task in the list.
+     *
+     * @return The largest task ID, or 0 if no task has one.
+     */
+    long getMaxTaskId();
+
+    /**
+     * Returns whether every task in the list has an ID.
+     *
+     * @return True if no task is missing an ID.
+     */
+    boolean hasAllTaskIds();
+}
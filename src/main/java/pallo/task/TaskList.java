@@ -2,32 +2,116 @@ package pallo.task;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.stream.Collectors;
 
 import pallo.exception.PalloException;
+import pallo.exception.TaskNotFoundException;
+import pallo.metrics.Metrics;
+import pallo.metrics.QueryEvent;
 
 /**
  * Manages a collection of tasks.
- * Provides methods to add, remove, and retrieve tasks from the list.
+ * Provides methods to add, remove, and retrieve tasks from the list, either by their
+ * position or by their ID. Every task gets a unique ID when it joins the list.
+ *
+ * <p>A columnar TaskList, created by {@link #columnar}, keeps its tasks in
+ * {@link TaskColumns} to save memory on very large lists. Its queries scan the columns
+ * instead of building indexes, since those would hold on to every task as an object.
  */
 public class TaskList {
-    private ArrayList<Task> tasks;
+    private List<Task> tasks;
+    private KeywordIndex keywordIndex;
+    private TimeIndex timeIndex;
+    private HashMap<Long, Task> idIndex; // Only used when backed by a list other than TaskSlots
+    private long nextId = 1;
+    private boolean hasAssignedMissingIds;
 
     /**
      * Constructs an empty TaskList.
      */
     public TaskList() {
-        this.tasks = new ArrayList<>();
+        this.tasks = new TaskSlots();
     }
 
     /**
      * Constructs a TaskList with the given tasks.
+     * Tasks without an ID, or whose ID is already taken, are given a new one.
      *
      * @param tasks The initial list of tasks.
      */
     public TaskList(ArrayList<Task> tasks) {
-        this.tasks = new ArrayList<>(tasks);
+        this();
+        assignMissingIds(tasks);
+        this.tasks.addAll(tasks);
+    }
+
+    /**
+     * Creates a TaskList that uses the given list directly instead of copying it.
+     * This keeps lazily decoded lists, such as a memory-mapped task file, lazy:
+     * a task is only decoded when it is first retrieved.
+     *
+     * @param tasks The mutable list to back the TaskList with.
+     * @return A TaskList backed by the given list.
+     */
+    public static TaskList backedBy(List<Task> tasks) {
+        assert tasks != null : "Backing list should not be null";
+        TaskList taskList = new TaskList();
+        taskList.tasks = tasks;
+        if (tasks instanceof TaskIdSequence && ((TaskIdSequence) tasks).hasAllTaskIds()) {
+            taskList.nextId = ((TaskIdSequence) tasks).getMaxTaskId() + 1;
+        } else {
+            taskList.assignMissingIds(tasks);
+        }
+        return taskList;
+    }
+
+    /**
+     * Creates a TaskList that keeps the given tasks in compact columns of primitives
+     * and hands out tasks as views that are materialized when read.
+     * Tasks without an ID, or whose ID is already taken, are given a new one.
+     *
+     * @param tasks The initial tasks, which are moved out of the given list.
+     * @return A columnar TaskList.
+     */
+    public static TaskList columnar(ArrayList<Task> tasks) {
+        TaskList taskList = new TaskList();
+        taskList.assignMissingIds(tasks);
+        taskList.tasks = TaskColumns.drain(tasks);
+        return taskList;
+    }
+
+    /**
+     * Gives every task without an ID, or with an ID already used by an earlier task,
+     * the next unused ID, and moves the next ID past all of them.
+     */
+    private void assignMissingIds(List<Task> tasks) {
+        for (Task task : tasks) {
+            nextId = Math.max(nextId, task.getId() + 1);
+        }
+        HashSet<Long> seenIds = new HashSet<>();
+        for (Task task : tasks) {
+            if (task.getId() == 0 || !seenIds.add(task.getId())) {
+                task.setId(nextId++);
+                seenIds.add(task.getId());
+                hasAssignedMissingIds = true;
+            }
+        }
+    }
+
+    /**
+     * Returns whether any task loaded into this list had to be given a new ID,
+     * e.g. because it came from a file written before tasks had IDs. Such a list
+     * should be saved so that the new IDs stay the same across restarts.
+     *
+     * @return True if IDs were assigned when the list was created.
+     */
+    public boolean hasAssignedMissingIds() {
+        return hasAssignedMissingIds;
     }
 
     /**
@@ -37,7 +121,20 @@ public class TaskList {
      */
     public void addTask(Task task) {
         assert task != null : "Task to add should not be null";
+        if (task.getId() == 0 || findById(task.getId()) != null) {
+            task.setId(nextId);
+        }
+        nextId = Math.max(nextId, task.getId() + 1);
         tasks.add(task);
+        if (idIndex != null) {
+            idIndex.put(task.getId(), task);
+        }
+        if (keywordIndex != null) {
+            keywordIndex.add(task);
+        }
+        if (timeIndex != null) {
+            timeIndex.add(task);
+        }
     }
 
     /**
@@ -52,7 +149,17 @@ public class TaskList {
             throw new PalloException(
                     "OH NO!!! Invalid task number! Please choose a number between 1 and " + tasks.size() + ".");
         }
-        return tasks.remove(index);
+        Task removedTask = tasks.remove(index);
+        if (idIndex != null) {
+            idIndex.remove(removedTask.getId());
+        }
+        if (keywordIndex != null) {
+            keywordIndex.remove(removedTask);
+        }
+        if (timeIndex != null) {
+            timeIndex.remove(removedTask);
+        }
+        return removedTask;
     }
 
     /**
@@ -70,6 +177,65 @@ public class TaskList {
         return tasks.get(index);
     }
 
+    /**
+     * Returns the task with the given ID.
+     *
+     * @param id The ID of the task.
+     * @return The task with that ID.
+     * @throws PalloException If no task in the list has that ID.
+     */
+    public Task getTaskById(long id) throws PalloException {
+        long start = Metrics.startTimer();
+        QueryEvent event = new QueryEvent();
+        event.begin();
+        boolean hasBuiltIndex = idIndex == null && !(tasks instanceof TaskSlots) && !(tasks instanceof TaskColumns);
+        Task task = findById(id);
+        Metrics.TASK_BY_ID.recordSince(start);
+        commitQueryEvent(event, "byId", tasks.size(), task == null ? 0 : 1, hasBuiltIndex);
+        if (task == null) {
+            throw new TaskNotFoundException(id);
+        }
+        return task;
+    }
+
+    /**
+     * Returns the current position of the given task in the list.
+     *
+     * @param task The task to look for.
+     * @return Its zero-based position, or -1 if the task is not in the list.
+     */
+    public int indexOf(Task task) {
+        if (tasks instanceof TaskSlots) {
+            TaskSlots slots = (TaskSlots) tasks;
+            return slots.getById(task.getId()) == task ? slots.positionOf(task.getId()) : -1;
+        }
+        if (tasks instanceof TaskColumns) {
+            return ((TaskColumns) tasks).positionOf(task);
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            if (tasks.get(i) == task) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private Task findById(long id) {
+        if (tasks instanceof TaskSlots) {
+            return ((TaskSlots) tasks).getById(id);
+        }
+        if (tasks instanceof TaskColumns) {
+            return ((TaskColumns) tasks).getById(id);
+        }
+        if (idIndex == null) {
+            idIndex = new HashMap<>();
+            for (Task task : tasks) {
+                idIndex.put(task.getId(), task);
+            }
+        }
+        return idIndex.get(id);
+    }
+
     public int size() {
         return tasks.size();
     }
@@ -87,52 +253,203 @@ public class TaskList {
         return new ArrayList<>(tasks); // Return a copy to prevent external modification
     }
 
+    /**
+     * Returns the tasks in the list without copying them, e.g. to save them. A columnar
+     * list then only materializes each task as it is read. The view must not be used
+     * once the list changes.
+     *
+     * @return A read-only view of the tasks.
+     */
+    public List<Task> viewAllTasks() {
+        return Collections.unmodifiableList(tasks);
+    }
+
+    /**
+     * Returns a copy of the tasks between the given positions.
+     *
+     * @param fromIndex The zero-based position of the first task, inclusive.
+     * @param toIndex   The zero-based position of the last task, exclusive.
+     * @return A new ArrayList containing those tasks.
+     */
+    public ArrayList<Task> getTasks(int fromIndex, int toIndex) {
+        return new ArrayList<>(tasks.subList(fromIndex, toIndex));
+    }
+
+    /**
+     * Captures the tasks in the list and their completion statuses, so that a later
+     * {@link #restore(Snapshot)} can undo any adds, deletes, marks and unmarks.
+     * A columnar list is captured by copying its columns, without materializing its tasks.
+     *
+     * @return A snapshot of the current list.
+     */
+    public Snapshot createSnapshot() {
+        return tasks instanceof TaskColumns ? new Snapshot((TaskColumns) tasks) : new Snapshot(tasks);
+    }
+
+    /**
+     * Restores the list to the state captured in the given snapshot. A columnar list
+     * gets a copy of the captured columns, so tasks it handed out before are no longer its own.
+     *
+     * @param snapshot A snapshot created by this list.
+     */
+    public void restore(Snapshot snapshot) {
+        assert snapshot != null : "Snapshot to restore should not be null";
+        idIndex = null;
+        keywordIndex = null;
+        timeIndex = null;
+        if (snapshot.columns != null) {
+            tasks = snapshot.columns.copy();
+            return;
+        }
+        for (int i = 0; i < snapshot.tasks.length; i++) {
+            if (snapshot.statuses[i] == TaskStatus.DONE) {
+                snapshot.tasks[i].markAsDone();
+            } else {
+                snapshot.tasks[i].markAsNotDone();
+            }
+        }
+        tasks = new TaskSlots();
+        tasks.addAll(Arrays.asList(snapshot.tasks));
+    }
+
     /**
      * Returns tasks with dates falling within the next specified number of days.
-     * Includes Deadline tasks whose due date and Event tasks whose start date
-     * fall between now and now + days. Results are sorted by date ascending.
+     * Includes Deadline tasks due between now and now + days, and Event tasks
+     * that take place at any point in that window. Results are sorted by date ascending.
      *
      * @param days The number of days to look ahead.
      * @return A list of upcoming tasks sorted by date.
      */
     public ArrayList<Task> getUpcomingTasks(int days) {
         LocalDateTime now = LocalDateTime.now();
-        LocalDateTime cutoff = now.plusDays(days);
-
-        return tasks.stream()
-                .filter(task -> {
-                    if (task instanceof Deadline) {
-                        LocalDateTime by = ((Deadline) task).getBy();
-                        return by != null && !by.isBefore(now) && !by.isAfter(cutoff);
-                    } else if (task instanceof Event) {
-                        LocalDateTime from = ((Event) task).getFrom();
-                        return from != null && !from.isBefore(now) && !from.isAfter(cutoff);
-                    }
-                    return false;
-                })
-                .sorted(Comparator.comparing(task -> {
-                    if (task instanceof Deadline) {
-                        return ((Deadline) task).getBy();
-                    } else {
-                        return ((Event) task).getFrom();
-                    }
-                }))
-                .collect(Collectors.toCollection(ArrayList::new));
+        return tasksBetween(now, now.plusDays(days));
+    }
+
+    /**
+     * Returns the tasks that fall within the given window, inclusive.
+     * A Deadline matches if it is due within the window, and an Event matches if
+     * its interval overlaps the window. Results are sorted by due or start date,
+     * with tasks on the same date in list order. Tasks whose dates could not be
+     * parsed never match.
+     *
+     * <p>The answer comes from a sorted date index, which is built on the first
+     * query and kept up to date as tasks are added and removed.
+     *
+     * @param from The start of the window.
+     * @param to   The end of the window.
+     * @return A list of matching tasks sorted by date.
+     */
+    public ArrayList<Task> tasksBetween(LocalDateTime from, LocalDateTime to) {
+        assert from != null && to != null : "Window bounds should not be null";
+        long start = Metrics.startTimer();
+        QueryEvent event = new QueryEvent();
+        event.begin();
+        boolean hasBuiltIndex = timeIndex == null && !(tasks instanceof TaskColumns);
+        ArrayList<Task> matches;
+        if (tasks instanceof TaskColumns) {
+            matches = ((TaskColumns) tasks).between(from, to);
+        } else {
+            if (hasBuiltIndex) {
+                timeIndex = new TimeIndex(tasks);
+            }
+            matches = timeIndex.between(from, to);
+        }
+        Metrics.TASKS_BETWEEN.recordSince(start);
+        commitQueryEvent(event, "between", tasks.size(), matches.size(), hasBuiltIndex);
+        return matches;
     }
 
     /**
      * Finds all tasks whose descriptions contain the given keyword.
-     * The search is case-insensitive.
+     * The search is case-insensitive. Keywords of at least three characters are
+     * answered from a trigram index, which is built on the first such search and
+     * kept up to date as tasks are added and removed.
      *
      * @param keyword The keyword to search for in task descriptions.
      * @return A list of tasks matching the keyword.
      */
     public ArrayList<Task> findTasks(String keyword) {
         assert keyword != null : "Search keyword should not be null";
-        ArrayList<Task> matchingTasks = new ArrayList<>();
+        long start = Metrics.startTimer();
+        QueryEvent event = new QueryEvent();
+        event.begin();
         String lowerKeyword = keyword.toLowerCase();
-        return tasks.stream()
-                .filter(task -> task.getDescription().toLowerCase().contains(lowerKeyword))
-                .collect(Collectors.toCollection(ArrayList::new));
+        ArrayList<Task> matches;
+        boolean hasBuiltIndex = false;
+        if (tasks instanceof TaskColumns) {
+            matches = ((TaskColumns) tasks).find(lowerKeyword);
+        } else if (lowerKeyword.length() >= KeywordIndex.GRAM_LENGTH) {
+            if (keywordIndex == null) {
+                keywordIndex = new KeywordIndex(tasks);
+                hasBuiltIndex = true;
+            }
+            matches = keywordIndex.find(lowerKeyword);
+        } else {
+            matches = tasks.stream()
+                    .filter(task -> task.getDescription().toLowerCase().contains(lowerKeyword))
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+        Metrics.FIND.recordSince(start);
+        commitQueryEvent(event, "find", tasks.size(), matches.size(), hasBuiltIndex);
+        return matches;
+    }
+
+    /**
+     * Reports a finished query to Flight Recorder, if it is recording queries.
+     */
+    static void commitQueryEvent(QueryEvent event, String query, int taskCount, int resultCount,
+            boolean hasBuiltIndex) {
+        if (event.shouldCommit()) {
+            event.describe(query, taskCount, resultCount, hasBuiltIndex);
+            event.commit();
+        }
+    }
+
+    /**
+     * The tasks of a TaskList at one point in time, together with their statuses, or
+     * a copy of the columns of a columnar list.
+     */
+    public static class Snapshot {
+        final Task[] tasks;
+        final TaskStatus[] statuses;
+        final TaskColumns columns; // Set instead of the tasks and statuses for a columnar list
+
+        Snapshot(List<Task> tasks) {
+            this.tasks = tasks.toArray(new Task[0]);
+            this.statuses = new TaskStatus[this.tasks.length];
+            for (int i = 0; i < this.tasks.length; i++) {
+                statuses[i] = this.tasks[i].getStatus();
+            }
+            this.columns = null;
+        }
+
+        Snapshot(TaskColumns columns) {
+            this.tasks = null;
+            this.statuses = null;
+            this.columns = columns.copy();
+        }
+
+        /**
+         * Returns detached copies of the captured tasks as they were when the snapshot
+         * was taken, e.g. to save the list as it stood before an open batch.
+         *
+         * @return The copies, in list order.
+         */
+        public List<Task> copyTasks() {
+            if (columns != null) {
+                return columns.copyTasks();
+            }
+            List<Task> copies = new ArrayList<>(tasks.length);
+            for (int i = 0; i < tasks.length; i++) {
+                Task copy = tasks[i].copy();
+                if (statuses[i] == TaskStatus.DONE) {
+                    copy.markAsDone();
+                } else {
+                    copy.markAsNotDone();
+                }
+                copies.add(copy);
+            }
+            return copies;
+        }
     }
 }
@@ -0,0 +1,211 @@
+package pallo.task;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * The list of tasks behind a TaskList, with cheap deletes and lookups by task ID.
+ *
+ * <p>Tasks sit in slots in list order. Deleting a task only leaves a tombstone in
+ * its slot instead of shifting every later task, and the tombstones are swept out
+ * in one pass once they outnumber the live tasks, so the sweep costs O(1) per
+ * delete amortized. A Fenwick tree over the live slots translates between list
+ * positions and slots in O(log n), so positional numbers keep working. While
+ * there are no tombstones, positions are used as slots directly.
+ *
+ * <p>Each task is also found by its ID through a hash index of slots.
+ * Tasks can only be appended, since that is all a TaskList ever does.
+ */
+class TaskSlots extends AbstractList<Task> implements RandomAccess {
+    private static final int MIN_TOMBSTONES_TO_COMPACT = 16;
+
+    private Task[] slots = new Task[16];
+    private int[] tree = new int[17]; // Fenwick tree of live slots, 1-based
+    private int slotCount;
+    private int size;
+    private final HashMap<Long, Integer> slotsById = new HashMap<>();
+
+    /**
+     * Returns the task with the given ID.
+     *
+     * @param id The task ID.
+     * @return The task, or null if no task in the list has that ID.
+     */
+    Task getById(long id) {
+        Integer slot = slotsById.get(id);
+        return slot == null ? null : slots[slot];
+    }
+
+    /**
+     * Returns the current list position of the task with the given ID.
+     *
+     * @param id The task ID.
+     * @return The zero-based position, or -1 if no task in the list has that ID.
+     */
+    int positionOf(long id) {
+        Integer slot = slotsById.get(id);
+        if (slot == null) {
+            return -1;
+        }
+        return size == slotCount ? slot : prefixSum(slot);
+    }
+
+    @Override
+    public Task get(int index) {
+        checkIndex(index);
+        return slots[slotAt(index)];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        if (index != size) {
+            throw new UnsupportedOperationException("Tasks can only be appended");
+        }
+        assert task.getId() > 0 : "Tasks should have an ID before they are added";
+        if (slotCount == slots.length) {
+            if (slotCount - size >= MIN_TOMBSTONES_TO_COMPACT) {
+                compact();
+            }
+            if (slotCount == slots.length) {
+                slots = Arrays.copyOf(slots, slots.length * 2);
+                tree = Arrays.copyOf(tree, slots.length + 1);
+            }
+        }
+        int slot = slotCount++;
+        slots[slot] = task;
+        // The new node covers the slots (slot + 1 - lowbit, slot + 1], of which only the new one may be in use yet
+        int node = slot + 1;
+        tree[node] = 1 + prefixSum(slot) - prefixSum(node - Integer.lowestOneBit(node));
+        slotsById.put(task.getId(), slot);
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        checkIndex(index);
+        int slot = slotAt(index);
+        Task task = slots[slot];
+        slots[slot] = null;
+        for (int node = slot + 1; node <= slotCount; node += Integer.lowestOneBit(node)) {
+            tree[node]--;
+        }
+        slotsById.remove(task.getId());
+        size--;
+        modCount++;
+
+        int tombstones = slotCount - size;
+        if (tombstones >= MIN_TOMBSTONES_TO_COMPACT && tombstones > size) {
+            compact();
+        }
+        return task;
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] tasks = new Object[size];
+        int count = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (slots[slot] != null) {
+                tasks[count++] = slots[slot];
+            }
+        }
+        return tasks;
+    }
+
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<>() {
+            private int nextSlot = skipTombstones(0);
+
+            @Override
+            public boolean hasNext() {
+                return nextSlot < slotCount;
+            }
+
+            @Override
+            public Task next() {
+                if (nextSlot >= slotCount) {
+                    throw new NoSuchElementException();
+                }
+                Task task = slots[nextSlot];
+                nextSlot = skipTombstones(nextSlot + 1);
+                return task;
+            }
+        };
+    }
+
+    private int skipTombstones(int slot) {
+        while (slot < slotCount && slots[slot] == null) {
+            slot++;
+        }
+        return slot;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Returns the number of live slots before the given slot.
+     */
+    private int prefixSum(int slot) {
+        int sum = 0;
+        for (int node = slot; node > 0; node -= Integer.lowestOneBit(node)) {
+            sum += tree[node];
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the slot of the task at the given list position.
+     */
+    private int slotAt(int index) {
+        if (size == slotCount) {
+            return index;
+        }
+        // Descend the Fenwick tree to the last node whose prefix holds at most index live slots
+        int node = 0;
+        int remaining = index;
+        for (int step = Integer.highestOneBit(slotCount); step > 0; step >>= 1) {
+            int next = node + step;
+            if (next <= slotCount && tree[next] <= remaining) {
+                node = next;
+                remaining -= tree[next];
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Sweeps out the tombstones, moving the live tasks to the front in list order.
+     */
+    private void compact() {
+        int live = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (slots[slot] != null) {
+                slots[live] = slots[slot];
+                slotsById.put(slots[live].getId(), live);
+                live++;
+            }
+        }
+        Arrays.fill(slots, live, slotCount, null);
+        slotCount = live;
+        // With no tombstones left, node i covers exactly lowbit(i) live slots
+        for (int node = 1; node <= slotCount; node++) {
+            tree[node] = Integer.lowestOneBit(node);
+        }
+        Arrays.fill(tree, slotCount + 1, tree.length, 0);
+    }
+}
@@ -0,0 +1,152 @@
+package pallo.task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A sorted index of dated tasks, used to answer date-range queries without a full scan.
+ * Deadlines are keyed on their due date and events on their start date. Tasks sharing
+ * a key are kept in list order, so a range scan returns tasks sorted by date with ties
+ * in list order, just like a stable sort would.
+ *
+ * <p>To also find events that started before the queried window but are still running,
+ * the index widens the scan by the longest indexed event. It counts the events of each
+ * duration, so removing the longest one narrows the scan again.
+ */
+class TimeIndex {
+    private final TreeMap<LocalDateTime, ArrayList<Task>> tasksByStart = new TreeMap<>();
+    private final TreeMap<Duration, Integer> eventCountByDuration = new TreeMap<>();
+
+    /**
+     * Builds an index over the given tasks, in list order.
+     *
+     * @param tasks The tasks to index.
+     */
+    TimeIndex(List<Task> tasks) {
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    /**
+     * Adds a task to the index. Tasks without a parsed date are ignored.
+     * It must come after all indexed tasks in list order.
+     *
+     * @param task The task to add.
+     */
+    void add(Task task) {
+        LocalDateTime start = startOf(task);
+        if (start == null) {
+            return;
+        }
+        tasksByStart.computeIfAbsent(start, key -> new ArrayList<>(1)).add(task);
+
+        Duration duration = durationOf(task, start);
+        if (duration != null) {
+            eventCountByDuration.merge(duration, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task The task to remove.
+     */
+    void remove(Task task) {
+        LocalDateTime start = startOf(task);
+        if (start == null) {
+            return;
+        }
+        ArrayList<Task> bucket = tasksByStart.get(start);
+        if (bucket == null) {
+            return;
+        }
+        boolean isRemoved = false;
+        for (int i = 0; i < bucket.size(); i++) {
+            if (bucket.get(i) == task) {
+                bucket.remove(i);
+                isRemoved = true;
+                break;
+            }
+        }
+        Duration duration = durationOf(task, start);
+        if (isRemoved && duration != null) {
+            eventCountByDuration.computeIfPresent(duration, (key, count) -> count == 1 ? null : count - 1);
+        }
+        if (bucket.isEmpty()) {
+            tasksByStart.remove(start);
+        }
+    }
+
+    /**
+     * Returns the dated tasks that fall within the given window, inclusive.
+     * A deadline matches if it is due within the window, and an event matches if
+     * its start-to-end interval overlaps the window.
+     *
+     * @param from The start of the window.
+     * @param to   The end of the window.
+     * @return The matching tasks, sorted by due or start date.
+     */
+    ArrayList<Task> between(LocalDateTime from, LocalDateTime to) {
+        ArrayList<Task> matches = new ArrayList<>();
+        if (from.isAfter(to)) {
+            return matches;
+        }
+
+        LocalDateTime scanStart = from.minus(getLongestEvent());
+        for (Map.Entry<LocalDateTime, ArrayList<Task>> entry
+                : tasksByStart.subMap(scanStart, true, to, true).entrySet()) {
+            boolean startsInWindow = !entry.getKey().isBefore(from);
+            for (Task task : entry.getValue()) {
+                if (startsInWindow || !endOf(task).isBefore(from)) {
+                    matches.add(task);
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns how far before a window the scan must start to catch events still running in it.
+     *
+     * @return The duration of the longest indexed event, or zero if there is none.
+     */
+    Duration getLongestEvent() {
+        return eventCountByDuration.isEmpty() ? Duration.ZERO : eventCountByDuration.lastKey();
+    }
+
+    /**
+     * Returns how long an indexed task runs, or null if it is a single point in time.
+     */
+    static Duration durationOf(Task task, LocalDateTime start) {
+        LocalDateTime end = endOf(task);
+        return end.isAfter(start) ? Duration.between(start, end) : null;
+    }
+
+    /**
+     * Returns the date a task is keyed on: the due date of a deadline or the start of an event.
+     */
+    static LocalDateTime startOf(Task task) {
+        if (task instanceof Deadline) {
+            return ((Deadline) task).getBy();
+        } else if (task instanceof Event) {
+            return ((Event) task).getFrom();
+        }
+        return null;
+    }
+
+    /**
+     * Returns the last moment a task covers. Deadlines and events without a parsed
+     * end are treated as a single point in time.
+     */
+    static LocalDateTime endOf(Task task) {
+        if (task instanceof Event && ((Event) task).getTo() != null) {
+            return ((Event) task).getTo();
+        }
+        return startOf(task);
+    }
+}
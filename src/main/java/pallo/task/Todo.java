@@ -14,9 +14,18 @@ public class Todo extends Task {
         super(description);
     }
 
+    private Todo(Todo other) {
+        super(other);
+    }
+
+    @Override
+    public Todo copy() {
+        return new Todo(this);
+    }
+
     @Override
-    public String toString() {
-        return "[T]" + super.toString();
+    protected String render(TaskStatus status) {
+        return "[T]" + super.render(status);
     }
 
     @Override
@@ -1,26 +1,47 @@
 package pallo.ui;
 
-import java.util.ArrayList;
+import java.io.BufferedOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
 import java.util.Scanner;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
+import pallo.command.ListRange;
 import pallo.task.Task;
 import pallo.task.TaskList;
 
 /**
  * Handles all user interface interactions for the Pallo application.
  * Responsible for reading user input and displaying messages to the console.
+ *
+ * <p>Output goes through a buffered stream that is flushed once per message, and
+ * task lists are written to it one task at a time, so even a huge list is shown
+ * without first being built into one string.
  */
 public class Ui {
     private static final String HORIZONTAL_LINE = "    ____________________________________________________________";
+    private static final String INDENT = "     ";
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
     private Scanner scanner;
+    private final PrintStream out;
 
     /**
-     * Constructs a new Ui instance with a Scanner for reading input.
+     * Constructs a new Ui instance that reads from standard input and writes to standard output.
      */
     public Ui() {
-        this.scanner = new Scanner(System.in);
+        this(System.in, System.out);
+    }
+
+    /**
+     * Constructs a new Ui instance that reads from and writes to the given streams.
+     *
+     * @param in  The stream to read commands from.
+     * @param out The stream to show messages on.
+     */
+    public Ui(InputStream in, OutputStream out) {
+        this.scanner = new Scanner(in);
+        this.out = new PrintStream(new BufferedOutputStream(out, OUTPUT_BUFFER_SIZE), false);
     }
 
     /**
@@ -43,20 +64,22 @@ public class Ui {
      * Displays the welcome message when the application starts.
      */
     public void showWelcome() {
-        System.out.println(HORIZONTAL_LINE);
-        System.out.println("     Hello! I'm Pallo");
-        System.out.println("     What can I do for you?");
-        System.out.println(HORIZONTAL_LINE);
-        System.out.println();
+        out.println(HORIZONTAL_LINE);
+        out.println("     Hello! I'm Pallo");
+        out.println("     What can I do for you?");
+        out.println(HORIZONTAL_LINE);
+        out.println();
+        out.flush();
     }
 
     /**
      * Displays the goodbye message when the application exits.
      */
     public void showGoodbye() {
-        System.out.println(HORIZONTAL_LINE);
-        System.out.println("     Bye. I will miss you!");
-        System.out.println(HORIZONTAL_LINE);
+        out.println(HORIZONTAL_LINE);
+        out.println("     Bye. I will miss you!");
+        out.println(HORIZONTAL_LINE);
+        out.flush();
     }
 
     /**
@@ -65,10 +88,11 @@ public class Ui {
      * @param message The error message to display.
      */
     public void showError(String message) {
-        System.out.println(HORIZONTAL_LINE);
-        System.out.println("     " + message);
-        System.out.println(HORIZONTAL_LINE);
-        System.out.println();
+        out.println(HORIZONTAL_LINE);
+        out.println("     " + message);
+        out.println(HORIZONTAL_LINE);
+        out.println();
+        out.flush();
     }
 
     /**
@@ -79,17 +103,31 @@ public class Ui {
     }
 
     /**
-     * Displays a message to the user.
+     * Displays a message to the user, indenting each of its lines.
+     * Trailing blank lines are dropped, as {@code String.split} would.
      *
      * @param message The message to display.
      */
     public void showMessage(String message) {
-        System.out.println(HORIZONTAL_LINE);
-        for (String line : message.split("\n")) {
-            System.out.println("     " + line);
+        out.println(HORIZONTAL_LINE);
+        int messageEnd = message.length();
+        while (messageEnd > 0 && message.charAt(messageEnd - 1) == '\n') {
+            messageEnd--;
+        }
+        int lineStart = 0;
+        while (lineStart <= messageEnd && (messageEnd > 0 || message.isEmpty())) {
+            int lineEnd = message.indexOf('\n', lineStart);
+            if (lineEnd == -1 || lineEnd > messageEnd) {
+                lineEnd = messageEnd;
+            }
+            out.print(INDENT);
+            out.append(message, lineStart, lineEnd);
+            out.println();
+            lineStart = lineEnd + 1;
         }
-        System.out.println(HORIZONTAL_LINE);
-        System.out.println();
+        out.println(HORIZONTAL_LINE);
+        out.println();
+        out.flush();
     }
 
     /**
@@ -98,19 +136,42 @@ public class Ui {
      * @param tasks The TaskList to display.
      */
     public void showTaskList(TaskList tasks) {
-        System.out.println(HORIZONTAL_LINE);
-        System.out.println("     Here are the tasks in your list:");
+        showTaskList(tasks, null);
+    }
+
+    /**
+     * Displays the tasks in the given range of the task list, writing each task
+     * straight to the output.
+     *
+     * @param tasks The TaskList to display.
+     * @param range The range of tasks to show, or null for all of them. It must start within the list.
+     */
+    public void showTaskList(TaskList tasks, ListRange range) {
+        out.println(HORIZONTAL_LINE);
         if (tasks.isEmpty()) {
-            System.out.println("     No tasks stored yet.");
+            out.println("     Here are the tasks in your list:");
+            out.println("     No tasks stored yet.");
+        } else if (range == null) {
+            out.println("     Here are the tasks in your list:");
+            showNumberedTasks(tasks.getAllTasks(), 0);
         } else {
-            ArrayList<Task> allTasks = tasks.getAllTasks();
-            String formatted = IntStream.range(0, allTasks.size())
-                    .mapToObj(i -> "     " + (i + 1) + "." + allTasks.get(i))
-                    .collect(Collectors.joining("\n"));
-            System.out.println(formatted);
+            int end = range.getEndIndex(tasks.size());
+            out.println("     Here are tasks " + range.getFrom() + "-" + end + " of " + tasks.size()
+                    + " in your list:");
+            showNumberedTasks(tasks.getTasks(range.getFrom() - 1, end), range.getFrom() - 1);
+        }
+        out.println(HORIZONTAL_LINE);
+        out.println();
+        out.flush();
+    }
+
+    private void showNumberedTasks(List<Task> tasks, int firstIndex) {
+        for (int i = 0; i < tasks.size(); i++) {
+            out.print(INDENT);
+            out.print(firstIndex + i + 1);
+            out.print('.');
+            out.println(tasks.get(i));
         }
-        System.out.println(HORIZONTAL_LINE);
-        System.out.println();
     }
 
     /**
@@ -120,12 +181,13 @@ public class Ui {
      * @param totalTasks The total number of tasks after adding.
      */
     public void showTaskAdded(Task task, int totalTasks) {
-        System.out.println(HORIZONTAL_LINE);
-        System.out.println("     Got it. I've added this task:");
-        System.out.println("       " + task);
-        System.out.println("     Now you have " + totalTasks + " tasks in the list.");
-        System.out.println(HORIZONTAL_LINE);
-        System.out.println();
+        out.println(HORIZONTAL_LINE);
+        out.println("     Got it. I've added this task:");
+        out.println("       " + task);
+        out.println("     Now you have " + totalTasks + " tasks in the list.");
+        out.println(HORIZONTAL_LINE);
+        out.println();
+        out.flush();
     }
 
     /**
@@ -135,12 +197,13 @@ public class Ui {
      * @param remainingTasks The number of tasks remaining after removal.
      */
     public void showTaskRemoved(Task task, int remainingTasks) {
-        System.out.println(HORIZONTAL_LINE);
-        System.out.println("     Noted. I've removed this task:");
-        System.out.println("       " + task);
-        System.out.println("     Now you have " + remainingTasks + " tasks in the list.");
-        System.out.println(HORIZONTAL_LINE);
-        System.out.println();
+        out.println(HORIZONTAL_LINE);
+        out.println("     Noted. I've removed this task:");
+        out.println("       " + task);
+        out.println("     Now you have " + remainingTasks + " tasks in the list.");
+        out.println(HORIZONTAL_LINE);
+        out.println();
+        out.flush();
     }
 
     /**
@@ -150,15 +213,16 @@ public class Ui {
      * @param isDone True if marked as done, false if marked as not done.
      */
     public void showTaskMarked(Task task, boolean isDone) {
-        System.out.println(HORIZONTAL_LINE);
+        out.println(HORIZONTAL_LINE);
         if (isDone) {
-            System.out.println("     Nice! I've marked this task as done:");
+            out.println("     Nice! I've marked this task as done:");
         } else {
-            System.out.println("     OK, I've marked this task as not done yet:");
+            out.println("     OK, I've marked this task as not done yet:");
         }
-        System.out.println("       " + task);
-        System.out.println(HORIZONTAL_LINE);
-        System.out.println();
+        out.println("       " + task);
+        out.println(HORIZONTAL_LINE);
+        out.println();
+        out.flush();
     }
 
     /**
@@ -166,18 +230,16 @@ public class Ui {
      *
      * @param matchingTasks The list of tasks that matched the search.
      */
-    public void showFoundTasks(ArrayList<Task> matchingTasks) {
-        System.out.println(HORIZONTAL_LINE);
-        System.out.println("     Here are the matching tasks in your list:");
+    public void showFoundTasks(List<Task> matchingTasks) {
+        out.println(HORIZONTAL_LINE);
+        out.println("     Here are the matching tasks in your list:");
         if (matchingTasks.isEmpty()) {
-            System.out.println("     No matching tasks found.");
+            out.println("     No matching tasks found.");
         } else {
-            String formatted = IntStream.range(0, matchingTasks.size())
-                    .mapToObj(i -> "     " + (i + 1) + "." + matchingTasks.get(i))
-                    .collect(Collectors.joining("\n"));
-            System.out.println(formatted);
+            showNumberedTasks(matchingTasks, 0);
         }
-        System.out.println(HORIZONTAL_LINE);
-        System.out.println();
+        out.println(HORIZONTAL_LINE);
+        out.println();
+        out.flush();
     }
 }
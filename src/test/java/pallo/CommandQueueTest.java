@@ -0,0 +1,98 @@
+package pallo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CommandQueueTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void submit_manyCommands_runInOrderOnOneBackgroundThread() throws Exception {
+        CommandQueue queue = new CommandQueue("test-commands");
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            int command = i;
+            results.add(queue.submit(() -> {
+                order.add(command);
+                threads.add(Thread.currentThread().getName());
+                return command;
+            }));
+        }
+
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, order.get(i));
+            assertEquals(i, results.get(i).get());
+        }
+        assertEquals(List.of("test-commands"), threads.stream().distinct().toList());
+        assertNotEquals("test-commands", Thread.currentThread().getName());
+        queue.shutdown();
+    }
+
+    @Test
+    public void submit_failingCommand_completesExceptionallyAndKeepsRunning() throws Exception {
+        CommandQueue queue = new CommandQueue("test-commands");
+        CompletableFuture<String> failed = queue.submit(() -> {
+            throw new IllegalStateException("boom");
+        });
+        ExecutionException e = assertThrows(ExecutionException.class, () -> failed.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertEquals("next", queue.submit(() -> "next").get(10, TimeUnit.SECONDS));
+        queue.shutdown();
+    }
+
+    @Test
+    public void submit_palloCommands_seeEarlierCommands() throws Exception {
+        CommandQueue queue = new CommandQueue("test-commands");
+        Pallo pallo = new Pallo(tempDir.resolve("pallo.txt").toString());
+        queue.submit(() -> pallo.getResponse("todo first"));
+        queue.submit(() -> pallo.getResponse("mark 1"));
+        assertEquals("Here are the tasks in your list:\n1.[T][X] first",
+                queue.submit(() -> pallo.getResponse("list")).get(10, TimeUnit.SECONDS));
+        queue.shutdown();
+    }
+
+    @Test
+    public void drain_queuedCommands_runBeforeItReturns() throws Exception {
+        CommandQueue queue = new CommandQueue("test-commands");
+        Pallo pallo = new Pallo(tempDir.resolve("pallo.txt").toString());
+        queue.submit(() -> {
+            sleep(200);
+            return pallo.getResponse("todo slow");
+        });
+        queue.submit(() -> pallo.getResponse("todo queued"));
+
+        assertTrue(queue.drain(10, TimeUnit.SECONDS));
+        assertEquals(List.of("#1 | T | 0 | slow", "#2 | T | 0 | queued"),
+                Files.readAllLines(tempDir.resolve("pallo.txt")));
+        assertThrows(RejectedExecutionException.class, () -> queue.submit(() -> "late"));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package pallo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import pallo.command.CommandType;
+import pallo.metrics.Metrics;
+import pallo.storage.BackgroundSaver;
+import pallo.task.Task;
+
+public class PalloTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void runBatch_allCommandsSucceed_savesOnce() throws IOException {
+        Path file = tempDir.resolve("pallo.txt");
+        Path script = tempDir.resolve("script.txt");
+        Files.write(script, List.of("todo read book", "", "deadline return book /by 2024-12-02", "mark 1"));
+
+        assertTrue(new Pallo(file.toString()).runBatch(script));
+        assertEquals(List.of("#1 | T | 1 | read book", "#2 | D | 0 | return book | 2024-12-02T00:00"),
+                Files.readAllLines(file));
+    }
+
+    @Test
+    public void runBatch_commandFails_rollsBackEverything() throws IOException {
+        Path file = tempDir.resolve("pallo.txt");
+        Files.write(file, List.of("T | 0 | existing"));
+        Path script = tempDir.resolve("script.txt");
+        Files.write(script, List.of("todo new task", "mark 1", "delete 1", "mark 5"));
+
+        Pallo pallo = new Pallo(file.toString());
+        assertFalse(pallo.runBatch(script));
+        assertEquals(List.of("#1 | T | 0 | existing"), Files.readAllLines(file));
+        assertTrue(pallo.getResponse("list").endsWith("\n1.[T][ ] existing"));
+    }
+
+    @Test
+    public void getResponse_beginCommitAndRollback_persistsOnlyOnCommit() throws IOException {
+        Path file = tempDir.resolve("pallo.txt");
+        Pallo pallo = new Pallo(file.toString());
+
+        pallo.getResponse("begin");
+        pallo.getResponse("todo first");
+        pallo.getResponse("todo second");
+        assertFalse(Files.exists(file));
+        pallo.getResponse("commit");
+        assertEquals(List.of("#1 | T | 0 | first", "#2 | T | 0 | second"), Files.readAllLines(file));
+
+        pallo.getResponse("begin");
+        pallo.getResponse("mark 1");
+        pallo.getResponse("delete 2");
+        pallo.getResponse("rollback");
+        assertEquals("Here are the tasks in your list:\n1.[T][ ] first\n2.[T][ ] second", pallo.getResponse("list"));
+
+        pallo.getResponse("begin");
+        pallo.getResponse("todo third");
+        assertTrue(pallo.getResponse("unmark 9").endsWith("None of its changes were saved."));
+        assertEquals(2, Files.readAllLines(file).size());
+        assertTrue(pallo.getResponse("commit").startsWith("OH NO!!!"));
+    }
+
+    @Test
+    public void getResponse_backgroundSaveDuringBatch_neverSavesRolledBackChanges() throws Exception {
+        Path file = tempDir.resolve("pallo.txt");
+        System.setProperty("pallo.saveinterval", "50");
+        Pallo pallo;
+        try {
+            pallo = new Pallo(file.toString());
+        } finally {
+            System.clearProperty("pallo.saveinterval");
+        }
+        BackgroundSaver saver = pallo.getBackgroundSaver();
+
+        pallo.getResponse("todo before");
+        pallo.getResponse("begin");
+        pallo.getResponse("todo inside");
+        pallo.getResponse("mark 1");
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (saver.getSaveCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, saver.getSaveCount());
+        assertEquals(List.of("#1 | T | 0 | before"), Files.readAllLines(file));
+
+        pallo.getResponse("rollback");
+        saver.close();
+        assertEquals("Here are the tasks in your list:\n1.[T][ ] before",
+                new Pallo(file.toString()).getResponse("list"));
+    }
+
+    @Test
+    public void getResponse_taskIdArguments_followTaskAfterDeletes() throws IOException {
+        Path file = tempDir.resolve("pallo.txt");
+        Files.write(file, List.of("T | 0 | first", "T | 0 | second", "T | 0 | third"));
+        Pallo pallo = new Pallo(file.toString());
+        assertEquals(List.of("#1 | T | 0 | first", "#2 | T | 0 | second", "#3 | T | 0 | third"),
+                Files.readAllLines(file));
+
+        pallo.getResponse("delete 1");
+        assertTrue(pallo.getResponse("mark #3").endsWith("[T][X] third"));
+        assertTrue(pallo.getResponse("delete #2").endsWith("Now you have 1 tasks in the list."));
+        assertTrue(pallo.getResponse("unmark #2").startsWith("OH NO!!! There is no task with ID #2."));
+        assertEquals(List.of("#3 | T | 1 | third"), Files.readAllLines(file));
+
+        pallo.getResponse("todo fourth");
+        assertEquals(List.of("#3 | T | 1 | third", "#4 | T | 0 | fourth"), Files.readAllLines(file));
+    }
+
+    @Test
+    public void getResponse_listPageAndRange_showsOnlyThoseTasks() {
+        Pallo pallo = new Pallo(tempDir.resolve("pallo.txt").toString());
+        assertEquals("Here are the tasks in your list:\nNo tasks stored yet.", pallo.getResponse("list 2"));
+        for (int i = 1; i <= 45; i++) {
+            pallo.getResponse("todo task " + i);
+        }
+
+        assertEquals("Here are tasks 41-45 of 45 in your list:\n41.[T][ ] task 41\n42.[T][ ] task 42\n"
+                + "43.[T][ ] task 43\n44.[T][ ] task 44\n45.[T][ ] task 45", pallo.getResponse("list 3"));
+        assertEquals("Here are tasks 10-11 of 45 in your list:\n10.[T][ ] task 10\n11.[T][ ] task 11",
+                pallo.getResponse("list --from 10 --limit 2"));
+        assertEquals("OH NO!!! There are only 45 tasks in the list.", pallo.getResponse("list 4"));
+        assertEquals(46, pallo.getResponse("list").split("\n").length);
+    }
+
+    @Test
+    public void getDialogReply_listCommand_keepsTasksUnderCliHeader() {
+        Pallo pallo = new Pallo(tempDir.resolve("pallo.txt").toString());
+        assertFalse(pallo.getDialogReply("list").isListing());
+        for (int i = 1; i <= 5; i++) {
+            pallo.getDialogReply("todo task " + i);
+        }
+
+        DialogMessage page = pallo.getDialogReply("list --from 2 --limit 3");
+        assertTrue(page.isListing());
+        assertEquals("Here are tasks 2-4 of 5 in your list:", page.getText());
+        assertEquals(2, page.getFirstTaskNumber());
+        assertEquals(List.of("task 2", "task 3", "task 4"),
+                page.getTasks().stream().map(Task::getDescription).collect(Collectors.toList()));
+        long listCount = Metrics.forCommand(CommandType.LIST).getCount();
+        assertEquals("Here are the tasks in your list:", pallo.getDialogReply("list").getText());
+        assertEquals(listCount + 1, Metrics.forCommand(CommandType.LIST).getCount());
+        assertEquals("OH NO!!! There are only 5 tasks in the list.", pallo.getDialogReply("list 2").getText());
+    }
+
+    @Test
+    public void getResponse_statsCommand_reportsTimedCommands() {
+        Pallo pallo = new Pallo(tempDir.resolve("pallo.txt").toString());
+        pallo.getResponse("todo read book");
+        pallo.getResponse("find book");
+
+        String stats = pallo.getResponse("stats");
+        assertTrue(stats.startsWith("Here is where the time went (in ms):"));
+        assertTrue(stats.contains("\ncommand.todo: "));
+        assertTrue(stats.contains("\ncommand.find: "));
+        assertTrue(stats.contains("\ntasks.find: "));
+        assertTrue(stats.contains("\nparse: "));
+        assertTrue(stats.contains("\nstorage.save: "));
+    }
+}
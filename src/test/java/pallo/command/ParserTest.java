@@ -1,6 +1,7 @@
 package pallo.command;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -117,6 +118,15 @@ public class ParserTest {
         assertThrows(PalloException.class, () -> Parser.parseCommand("deadline return book /by "));
     }
 
+    @Test
+    public void parseCommand_dateThatDoesNotExist_throwsPalloException() {
+        PalloException e = assertThrows(PalloException.class,
+                () -> Parser.parseCommand("deadline return book /by 31/4/2023"));
+        assertEquals("OH NO!!! 31/4/2023 is not a real date and time.", e.getMessage());
+        assertThrows(PalloException.class,
+                () -> Parser.createEventCommand("meeting", "2/12/2019 1400", "2/12/2019 2500"));
+    }
+
     @Test
     public void parseCommand_deadlineWithoutArguments_throwsPalloException() {
         assertThrows(PalloException.class, () -> Parser.parseCommand("deadline"));
@@ -160,6 +170,38 @@ public class ParserTest {
         assertThrows(PalloException.class, () -> Parser.parseCommand("event"));
     }
 
+    @Test
+    public void parseCommand_mixedCaseKeywordsAndDelimiters_keepsArgumentCase() throws PalloException {
+        Command todo = Parser.parseCommand("  ToDo   Read BOOK  ");
+        assertEquals(CommandType.TODO, todo.getType());
+        assertEquals("Read BOOK", todo.getArgument());
+
+        String[] deadline = (String[]) Parser.parseCommand("DEADLINE Return Book /BY Mon").getArgument();
+        assertEquals("Return Book", deadline[0]);
+        assertEquals("Mon", deadline[1]);
+
+        String[] event = (String[]) Parser.parseCommand("Event Demo /From 2pm /TO 4pm").getArgument();
+        assertEquals("Demo", event[0]);
+        assertEquals("2pm", event[1]);
+        assertEquals("4pm", event[2]);
+    }
+
+    @Test
+    public void parseCommand_keywordNotFollowedBySpace_throwsPalloException() {
+        assertThrows(PalloException.class, () -> Parser.parseCommand("marks 1"));
+        assertThrows(PalloException.class, () -> Parser.parseCommand("todo\tread book"));
+        assertThrows(PalloException.class, () -> Parser.parseCommand("list\t2"));
+        assertThrows(PalloException.class, () -> Parser.parseCommand("1 todo"));
+    }
+
+    @Test
+    public void parseCommand_batchCommands_returnBatchCommandTypes() throws PalloException {
+        assertEquals(CommandType.BEGIN, Parser.parseCommand("begin").getType());
+        assertEquals(CommandType.COMMIT, Parser.parseCommand("COMMIT").getType());
+        assertEquals(CommandType.ROLLBACK, Parser.parseCommand(" rollback ").getType());
+        assertThrows(PalloException.class, () -> Parser.parseCommand("begin now"));
+    }
+
     @Test
     public void parseTaskNumber_validNumber_returnsInteger() throws PalloException {
         assertEquals(1, Parser.parseTaskNumber("1"));
@@ -185,4 +227,47 @@ public class ParserTest {
         assertThrows(PalloException.class, () -> Parser.parseTaskNumber("   "));
         assertThrows(PalloException.class, () -> Parser.parseTaskNumber(null));
     }
+
+    @Test
+    public void parseTaskId_hashPrefixedNumber_returnsId() throws PalloException {
+        assertTrue(Parser.isTaskId(" #12 "));
+        assertFalse(Parser.isTaskId("12"));
+        assertEquals(12, Parser.parseTaskId(" #12 "));
+        assertEquals(9_000_000_000L, Parser.parseTaskId("#9000000000"));
+    }
+
+    @Test
+    public void parseTaskId_invalidId_throwsPalloException() {
+        assertThrows(PalloException.class, () -> Parser.parseTaskId("12"));
+        assertThrows(PalloException.class, () -> Parser.parseTaskId("#"));
+        assertThrows(PalloException.class, () -> Parser.parseTaskId("#0"));
+        assertThrows(PalloException.class, () -> Parser.parseTaskId("#-3"));
+        assertThrows(PalloException.class, () -> Parser.parseTaskId("#abc"));
+        assertThrows(PalloException.class, () -> Parser.parseTaskId(null));
+    }
+
+    @Test
+    public void parseCommand_listPageOrRange_returnsListRange() throws PalloException {
+        ListRange page = Parser.parseCommand("list 3").getListRangeArgument();
+        assertEquals(2 * ListRange.PAGE_SIZE + 1, page.getFrom());
+        assertEquals(ListRange.PAGE_SIZE, page.getLimit());
+
+        ListRange range = Parser.parseCommand("LIST --limit 5  --FROM 10").getListRangeArgument();
+        assertEquals(10, range.getFrom());
+        assertEquals(14, range.getEndIndex(100));
+        assertEquals(12, range.getEndIndex(12));
+        assertEquals(Integer.MAX_VALUE, Parser.parseCommand("list --from 7").getListRangeArgument().getLimit());
+        assertEquals(1, Parser.parseCommand("list --limit 7").getListRangeArgument().getFrom());
+        assertNull(Parser.parseCommand("list").getListRangeArgument());
+    }
+
+    @Test
+    public void parseCommand_invalidListArguments_throwsPalloException() {
+        assertThrows(PalloException.class, () -> Parser.parseCommand("list 0"));
+        assertThrows(PalloException.class, () -> Parser.parseCommand("list two"));
+        assertThrows(PalloException.class, () -> Parser.parseCommand("list --from"));
+        assertThrows(PalloException.class, () -> Parser.parseCommand("list --from 1 --from 2"));
+        assertThrows(PalloException.class, () -> Parser.parseCommand("list --limit -1"));
+        assertThrows(PalloException.class, () -> Parser.parseCommand("list 1 2"));
+    }
 }
@@ -0,0 +1,72 @@
+package pallo.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import pallo.Pallo;
+
+public class FlightRecorderEventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void palloJfc_commandsRun_recordsPalloEvents() throws Exception {
+        Configuration configuration = Configuration.create(Paths.get("config/jfr/pallo.jfc"));
+        Path recordingFile = tempDir.resolve("pallo.jfr");
+        try (Recording recording = new Recording(configuration)) {
+            recording.start();
+            Pallo pallo = new Pallo(tempDir.resolve("pallo.txt").toString());
+            pallo.getResponse("todo read book");
+            pallo.getResponse("find book");
+            pallo.getResponse("mark 5");
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile).stream()
+                .filter(event -> event.getEventType().getName().startsWith("pallo."))
+                .collect(Collectors.toList());
+
+        List<RecordedEvent> commands = ofType(events, "pallo.Command");
+        assertEquals(List.of("todo", "find", "mark"),
+                commands.stream().map(event -> event.getString("commandType")).collect(Collectors.toList()));
+        assertEquals(9, commands.get(0).getInt("argumentLength"));
+        assertTrue(commands.get(0).getBoolean("isSuccessful"));
+        assertFalse(commands.get(2).getBoolean("isSuccessful"));
+
+        assertEquals(3, ofType(events, "pallo.Parse").size());
+        RecordedEvent query = ofType(events, "pallo.Query").get(0);
+        assertEquals("find", query.getString("query"));
+        assertEquals(1, query.getInt("resultCount"));
+        assertTrue(query.getBoolean("hasBuiltIndex"));
+
+        List<RecordedEvent> storage = ofType(events, "pallo.Storage");
+        assertEquals(List.of("load", "save"),
+                storage.stream().map(event -> event.getString("operation")).collect(Collectors.toList()));
+        assertEquals(1, storage.get(1).getInt("taskCount"));
+        assertTrue(storage.get(1).getLong("bytes") > 0);
+        assertEquals("FSYNC", storage.get(1).getString("durability"));
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .collect(Collectors.toList());
+    }
+}
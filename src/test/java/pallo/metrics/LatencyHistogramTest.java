@@ -0,0 +1,67 @@
+package pallo.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketOf_everyLatency_fallsWithinItsBucket() {
+        int previous = -1;
+        for (long nanos = 0; nanos < 1 << 20; nanos += 1 + nanos / 64) {
+            int bucket = LatencyHistogram.bucketOf(nanos);
+            assertTrue(bucket >= previous);
+            assertTrue(nanos <= LatencyHistogram.highestValueIn(bucket));
+            assertTrue(bucket == 0 || nanos > LatencyHistogram.highestValueIn(bucket - 1));
+            // Each bucket is at most an eighth of its lowest value wide
+            assertTrue(LatencyHistogram.highestValueIn(bucket) - nanos <= nanos / 8);
+            previous = bucket;
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValueIn(LatencyHistogram.bucketOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void getPercentileNanos_uniformLatencies_withinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500.5, histogram.getMeanMicros(), 1e-9);
+        assertEquals(1000.0, histogram.getMaxMicros(), 1e-9);
+        assertEquals(500.0, histogram.getP50Micros(), 500.0 / 8);
+        assertEquals(990.0, histogram.getP99Micros(), 990.0 / 8);
+        assertTrue(histogram.getP99Micros() <= histogram.getMaxMicros());
+        assertEquals(1000, histogram.getPercentileNanos(0), 1000 / 8);
+    }
+
+    @Test
+    public void record_concurrentThreads_countsEverySample() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    histogram.record(j);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(40_000, histogram.getCount());
+        assertEquals(9_999 / 1000.0, histogram.getMaxMicros(), 1e-9);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentileNanos(50));
+    }
+}
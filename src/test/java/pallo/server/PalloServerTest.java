@@ -0,0 +1,134 @@
+package pallo.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import pallo.Pallo;
+
+public class PalloServerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private PalloServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new PalloServer(new Pallo(tempDir.resolve("pallo.txt").toString(), true), 0, 4);
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    public void tasks_addMarkListAndDelete_returnsStructuredTasks() throws Exception {
+        HttpResponse<String> added = send("POST", "/tasks",
+                "{\"type\":\"todo\",\"description\":\"read \\\"book\\\"\"}");
+        assertEquals(201, added.statusCode());
+        assertEquals("{\"id\":1,\"type\":\"todo\",\"description\":\"read \\\"book\\\"\",\"done\":false}", added.body());
+        assertEquals("application/json; charset=utf-8", added.headers().firstValue("Content-Type").orElse(""));
+
+        send("POST", "/tasks", "{\"type\":\"deadline\",\"description\":\"return book\",\"by\":\"2/12/2026 1800\"}");
+        assertEquals("{\"id\":1,\"type\":\"todo\",\"description\":\"read \\\"book\\\"\",\"done\":true}",
+                send("POST", "/tasks/1/mark", "").body());
+        assertEquals("{\"total\":2,\"tasks\":[{\"id\":2,\"type\":\"deadline\",\"description\":\"return book\","
+                + "\"done\":false,\"by\":\"2026-12-02T18:00\"}]}", send("GET", "/tasks?from=2&limit=5", "").body());
+
+        assertEquals(200, send("DELETE", "/tasks/1", "").statusCode());
+        assertEquals(404, send("GET", "/tasks/1", "").statusCode());
+        assertEquals("{\"total\":1,\"tasks\":[{\"id\":2,\"type\":\"deadline\",\"description\":\"return book\","
+                + "\"done\":false,\"by\":\"2026-12-02T18:00\"}]}", send("GET", "/tasks", "").body());
+        assertTrue(Files.readString(tempDir.resolve("pallo.txt")).contains("return book"));
+    }
+
+    @Test
+    public void find_keyword_returnsMatchingTasks() throws Exception {
+        send("POST", "/tasks", "{\"type\":\"todo\",\"description\":\"read book\"}");
+        send("POST", "/tasks", "{\"type\":\"todo\",\"description\":\"buy milk\"}");
+        assertEquals("{\"tasks\":[{\"id\":2,\"type\":\"todo\",\"description\":\"buy milk\",\"done\":false}]}",
+                send("GET", "/find?keyword=milk", "").body());
+    }
+
+    @Test
+    public void tasks_fieldsWithDelimiters_keepEachFieldWhole() throws Exception {
+        HttpResponse<String> deadline = send("POST", "/tasks",
+                "{\"type\":\"deadline\",\"description\":\"read /by chapter\",\"by\":\"2/12/2026 1800\"}");
+        assertEquals(201, deadline.statusCode());
+        assertEquals("{\"id\":1,\"type\":\"deadline\",\"description\":\"read /by chapter\",\"done\":false,"
+                + "\"by\":\"2026-12-02T18:00\"}", deadline.body());
+
+        HttpResponse<String> event = send("POST", "/tasks", "{\"type\":\"event\",\"description\":\"talk /to team\","
+                + "\"from\":\"2/12/2026 1800\",\"to\":\"2/12/2026 1900\"}");
+        assertEquals(201, event.statusCode());
+        assertTrue(event.body().contains("\"description\":\"talk /to team\""));
+        assertEquals(400, send("POST", "/tasks", "{\"type\":\"deadline\",\"description\":\"x\",\"by\":\" \"}")
+                .statusCode());
+    }
+
+    @Test
+    public void tasks_invalidRequests_returnErrors() throws Exception {
+        HttpResponse<String> missing = send("POST", "/tasks/7/mark", "");
+        assertEquals(404, missing.statusCode());
+        assertEquals("{\"error\":\"OH NO!!! There is no task with ID #7.\"}", missing.body());
+        assertEquals(400, send("POST", "/tasks", "{\"type\":\"todo\"").statusCode());
+        assertEquals(400, send("POST", "/tasks", "{\"type\":\"chore\",\"description\":\"x\"}").statusCode());
+        assertEquals(400, send("POST", "/tasks", "{\"type\":\"todo\",\"description\":\"a\\nb\"}").statusCode());
+        HttpResponse<String> badDate = send("POST", "/tasks",
+                "{\"type\":\"deadline\",\"description\":\"x\",\"by\":\"31/4/2023\"}");
+        assertEquals(400, badDate.statusCode());
+        assertEquals("{\"error\":\"OH NO!!! 31/4/2023 is not a real date and time.\"}", badDate.body());
+        assertEquals(400, send("GET", "/tasks?limit=0", "").statusCode());
+        assertEquals(400, send("GET", "/tasks/abc", "").statusCode());
+        assertEquals(405, send("PUT", "/tasks", "").statusCode());
+        assertEquals(404, send("GET", "/tasks/1/done", "").statusCode());
+    }
+
+    @Test
+    public void tasks_concurrentAdds_getDistinctIds() throws Exception {
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            responses.add(client.sendAsync(request("POST", "/tasks",
+                    "{\"type\":\"todo\",\"description\":\"task " + i + "\"}"), HttpResponse.BodyHandlers.ofString()));
+        }
+
+        Set<String> ids = new HashSet<>();
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(201, response.get().statusCode());
+            ids.add(Json.parseObject(response.get().body()).get("id"));
+        }
+        assertEquals(50, ids.size());
+        assertTrue(send("GET", "/tasks?limit=1", "").body().startsWith("{\"total\":50,"));
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        return client.send(request(method, path, body), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest request(String method, String path, String body) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package pallo.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import pallo.task.Task;
+import pallo.task.Todo;
+
+public class BackgroundSaverTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void markDirty_manyChanges_coalescesIntoFewSaves() throws Exception {
+        Path file = tempDir.resolve("pallo.txt");
+        List<Task> tasks = new ArrayList<>();
+        BackgroundSaver saver = newSaver(file, tasks, 500);
+
+        for (int i = 0; i < 1000; i++) {
+            synchronized (tasks) {
+                tasks.add(new Todo("task " + i));
+            }
+            saver.markDirty();
+        }
+        assertFalse(Files.exists(file));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (saver.getSaveCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(1, saver.getSaveCount());
+        assertEquals(1000, Files.readAllLines(file).size());
+        assertTrue(saver.getLastSaveNanos() > 0);
+        assertEquals(saver.getLastSaveNanos(), saver.getAverageSaveNanos());
+        saver.close();
+    }
+
+    @Test
+    public void flush_pendingChanges_savesSnapshotImmediately() throws Exception {
+        Path file = tempDir.resolve("pallo.txt");
+        List<Task> tasks = new ArrayList<>();
+        BackgroundSaver saver = newSaver(file, tasks, 60_000);
+
+        Task task = new Todo("read book");
+        synchronized (tasks) {
+            tasks.add(task);
+        }
+        saver.markDirty();
+        saver.flush();
+        task.markAsDone();
+        assertEquals(List.of("T | 0 | read book"), Files.readAllLines(file));
+
+        saver.markDirty();
+        saver.close();
+        assertEquals(List.of("T | 1 | read book"), Files.readAllLines(file));
+        assertEquals(2, saver.getSaveCount());
+    }
+
+    private static BackgroundSaver newSaver(Path file, List<Task> tasks, long intervalMillis) {
+        Storage storage = new Storage(file.toString());
+        storage.setDurability(Durability.NONE);
+        return new BackgroundSaver(storage, tasks, () -> {
+            List<Task> copies = new ArrayList<>();
+            for (Task task : tasks) {
+                copies.add(task.copy());
+            }
+            return copies;
+        }, intervalMillis);
+    }
+}
@@ -3,9 +3,16 @@ package pallo.storage;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.time.DateTimeException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+import java.util.function.Supplier;
 
 import org.junit.jupiter.api.Test;
 
@@ -179,4 +186,103 @@ public class DateParserTest {
         assertEquals(6, result.getMonthValue());
         assertEquals(2024, result.getYear());
     }
+
+    @Test
+    public void parseDateTime_dayPastEndOfMonth_clampsIsoAndRejectsSlash() {
+        assertEquals(LocalDateTime.of(2024, 2, 29, 0, 0), DateParser.parseDateTime("2024-02-31"));
+        assertEquals(LocalDateTime.of(2023, 4, 30, 9, 15), DateParser.parseDateTime("2023-04-31 09:15"));
+        assertThrows(DateTimeException.class, () -> DateParser.parseDateTime("31/4/2023"));
+    }
+
+    @Test
+    public void parseDateTime_randomInputs_matchesRegexImplementation() {
+        Random random = new Random(2024);
+        String[] templates = {"2024-12-02", "2024-12-02 1800", "2024-12-02 18:30", "2/12/2024 1800", "25/12/2024",
+            "0000-02-29", "2023-02-29 2359", "31/02/2023", "29/2/2024 2400", "9999-12-31 23:59"};
+        String alphabet = "0123456789-/: a\t";
+        for (int i = 0; i < 200_000; i++) {
+            StringBuilder input = new StringBuilder(templates[random.nextInt(templates.length)]);
+            int edits = random.nextInt(4);
+            for (int j = 0; j < edits; j++) {
+                int position = random.nextInt(input.length() + 1);
+                char c = alphabet.charAt(random.nextInt(alphabet.length()));
+                switch (random.nextInt(3)) {
+                case 0:
+                    input.insert(position, c);
+                    break;
+                case 1:
+                    if (position < input.length()) {
+                        input.deleteCharAt(position);
+                    }
+                    break;
+                default:
+                    if (position < input.length()) {
+                        input.setCharAt(position, c);
+                    }
+                    break;
+                }
+            }
+            String text = input.toString();
+            assertEquals(outcomeOf(() -> RegexDateParser.parseDateTime(text)),
+                    outcomeOf(() -> DateParser.parseDateTime(text)), "Input: \"" + text + "\"");
+        }
+    }
+
+    /**
+     * Returns the parsed value, or the type of exception thrown, so both can be compared.
+     */
+    private static Object outcomeOf(Supplier<LocalDateTime> parse) {
+        try {
+            return parse.get();
+        } catch (DateTimeException e) {
+            return e.getClass();
+        }
+    }
+
+    /**
+     * The regex-based parser that the single-pass scanner replaced, kept as a reference.
+     */
+    private static class RegexDateParser {
+        private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+        static LocalDateTime parseDateTime(String dateTimeStr) {
+            if (dateTimeStr == null || dateTimeStr.trim().isEmpty()) {
+                return null;
+            }
+            String trimmed = dateTimeStr.trim();
+            try {
+                if (trimmed.matches("\\d{4}-\\d{2}-\\d{2}")) {
+                    return LocalDate.parse(trimmed, DATE_FORMATTER).atStartOfDay();
+                }
+                if (trimmed.matches("\\d{4}-\\d{2}-\\d{2} \\d{4}")) {
+                    String[] parts = trimmed.split(" ");
+                    LocalDate date = LocalDate.parse(parts[0], DATE_FORMATTER);
+                    LocalTime time = LocalTime.of(Integer.parseInt(parts[1].substring(0, 2)),
+                            Integer.parseInt(parts[1].substring(2, 4)));
+                    return LocalDateTime.of(date, time);
+                }
+                if (trimmed.matches("\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}")) {
+                    String[] parts = trimmed.split(" ");
+                    return LocalDateTime.of(LocalDate.parse(parts[0], DATE_FORMATTER), LocalTime.parse(parts[1]));
+                }
+                if (trimmed.matches("\\d{1,2}/\\d{1,2}/\\d{4} \\d{4}")) {
+                    String[] parts = trimmed.split(" ");
+                    String[] dateParts = parts[0].split("/");
+                    LocalDate date = LocalDate.of(Integer.parseInt(dateParts[2]), Integer.parseInt(dateParts[1]),
+                            Integer.parseInt(dateParts[0]));
+                    LocalTime time = LocalTime.of(Integer.parseInt(parts[1].substring(0, 2)),
+                            Integer.parseInt(parts[1].substring(2, 4)));
+                    return LocalDateTime.of(date, time);
+                }
+                if (trimmed.matches("\\d{1,2}/\\d{1,2}/\\d{4}")) {
+                    String[] dateParts = trimmed.split("/");
+                    return LocalDate.of(Integer.parseInt(dateParts[2]), Integer.parseInt(dateParts[1]),
+                            Integer.parseInt(dateParts[0])).atStartOfDay();
+                }
+            } catch (DateTimeParseException | NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                return null;
+            }
+            return null;
+        }
+    }
 }
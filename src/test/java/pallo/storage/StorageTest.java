@@ -0,0 +1,312 @@
+package pallo.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import pallo.exception.PalloException;
+import pallo.task.Deadline;
+import pallo.task.Event;
+import pallo.task.Task;
+import pallo.task.Todo;
+
+public class StorageTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void load_journalMode_replaysChangesOnTopOfSnapshot() throws PalloException {
+        String file = tempDir.resolve("pallo.txt").toString();
+        Storage storage = new Storage(file, true);
+        ArrayList<Task> tasks = storage.load();
+
+        tasks.add(new Todo("read book"));
+        storage.persist(JournalEntry.add(tasks.get(0)), () -> tasks);
+        tasks.add(new Deadline("return book", "2024-12-31"));
+        storage.persist(JournalEntry.add(tasks.get(1)), () -> tasks);
+        tasks.get(1).markAsDone();
+        storage.persist(JournalEntry.mark(1), () -> tasks);
+        tasks.remove(0);
+        storage.persist(JournalEntry.delete(0), () -> tasks);
+
+        ArrayList<Task> reloaded = new Storage(file, true).load();
+        assertEquals(1, reloaded.size());
+        assertEquals(tasks.get(0).toFileString(), reloaded.get(0).toFileString());
+        assertTrue(reloaded.get(0).isDone());
+    }
+
+    @Test
+    public void persist_journalOverThreshold_compactsIntoSnapshot() throws PalloException {
+        Path file = tempDir.resolve("pallo.txt");
+        Storage storage = new Storage(file.toString(), true);
+        storage.setCompactionThreshold(64);
+        ArrayList<Task> tasks = storage.load();
+
+        for (int i = 0; i < 20; i++) {
+            tasks.add(new Todo("task " + i));
+            storage.persist(JournalEntry.add(tasks.get(i)), () -> tasks);
+        }
+        storage.save(tasks);
+
+        assertTrue(Files.exists(file));
+        assertFalse(Files.exists(tempDir.resolve("pallo.txt.journal.old")));
+        ArrayList<Task> reloaded = new Storage(file.toString(), true).load();
+        assertEquals(20, reloaded.size());
+        assertEquals("T | 0 | task 19", reloaded.get(19).toFileString());
+    }
+
+    @Test
+    public void load_journalModeOff_foldsLeftoverJournal() throws PalloException {
+        Path file = tempDir.resolve("pallo.txt");
+        Storage journaled = new Storage(file.toString(), true);
+        ArrayList<Task> tasks = journaled.load();
+        tasks.add(new Todo("read book"));
+        journaled.persist(JournalEntry.add(tasks.get(0)), () -> tasks);
+
+        ArrayList<Task> reloaded = new Storage(file.toString()).load();
+        assertEquals(1, reloaded.size());
+        assertFalse(Files.exists(tempDir.resolve("pallo.txt.journal")));
+        assertEquals(1, new Storage(file.toString()).load().size());
+    }
+
+    @Test
+    public void save_eachDurabilityLevel_replacesFileWithoutTempLeftover() throws PalloException {
+        Path file = tempDir.resolve("pallo.txt");
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book"));
+
+        for (Durability durability : Durability.values()) {
+            Storage storage = new Storage(file.toString());
+            storage.setDurability(durability);
+            tasks.add(new Todo(durability.name()));
+            storage.save(tasks);
+
+            assertEquals(tasks.size(), new Storage(file.toString()).load().size());
+            assertFalse(Files.exists(tempDir.resolve("pallo.txt.tmp")));
+        }
+    }
+
+    @Test
+    public void load_binaryFormat_matchesTextFormat() throws PalloException {
+        Path binaryFile = tempDir.resolve("pallo.bin");
+        Storage binary = new Storage(binaryFile.toString());
+        binary.setFormat(StorageFormat.BINARY);
+        binary.save(sampleTasks());
+        Path textFile = tempDir.resolve("pallo.txt");
+        new Storage(textFile.toString()).save(sampleTasks());
+
+        ArrayList<Task> fromBinary = new Storage(binaryFile.toString()).load();
+        ArrayList<Task> fromText = new Storage(textFile.toString()).load();
+        assertEquals(fromText.size(), fromBinary.size());
+        for (int i = 0; i < fromText.size(); i++) {
+            assertEquals(fromText.get(i).toFileString(), fromBinary.get(i).toFileString());
+            assertEquals(fromText.get(i).toString(), fromBinary.get(i).toString());
+            assertEquals(fromText.get(i).isDone(), fromBinary.get(i).isDone());
+        }
+    }
+
+    @Test
+    public void convert_textToBinaryAndBack_isLossless() throws Exception {
+        Path text = tempDir.resolve("pallo.txt");
+        new Storage(text.toString()).save(sampleTasks());
+        String original = Files.readString(text);
+
+        TaskFileConverter.convert(text.toString(), tempDir.resolve("pallo.bin").toString(), StorageFormat.BINARY);
+        TaskFileConverter.convert(tempDir.resolve("pallo.bin").toString(),
+                tempDir.resolve("back.txt").toString(), StorageFormat.TEXT);
+
+        assertEquals(original, Files.readString(tempDir.resolve("back.txt")));
+    }
+
+    @Test
+    public void convert_binaryInputWithLeftoverJournal_leavesInputUntouched() throws Exception {
+        Path binary = tempDir.resolve("pallo.bin");
+        Storage journaled = new Storage(binary.toString(), true);
+        journaled.setFormat(StorageFormat.BINARY);
+        ArrayList<Task> tasks = journaled.load();
+        tasks.addAll(sampleTasks());
+        journaled.save(tasks);
+        tasks.add(new Todo("journaled"));
+        journaled.persist(JournalEntry.add(tasks.get(tasks.size() - 1)), () -> tasks);
+        byte[] snapshot = Files.readAllBytes(binary);
+        byte[] journal = Files.readAllBytes(tempDir.resolve("pallo.bin.journal"));
+
+        Path text = tempDir.resolve("converted.txt");
+        assertEquals(tasks.size(), TaskFileConverter.convert(binary.toString(), text.toString(), StorageFormat.TEXT));
+
+        assertArrayEquals(snapshot, Files.readAllBytes(binary));
+        assertArrayEquals(journal, Files.readAllBytes(tempDir.resolve("pallo.bin.journal")));
+        assertTrue(Files.readString(text).endsWith("T | 0 | journaled" + System.lineSeparator()));
+    }
+
+    @Test
+    public void convert_missingInput_throwsPalloExceptionAndWritesNothing() {
+        Path output = tempDir.resolve("out.bin");
+        assertThrows(PalloException.class, () -> TaskFileConverter.convert(tempDir.resolve("missing.txt").toString(),
+                output.toString(), StorageFormat.BINARY));
+        assertFalse(Files.exists(output));
+    }
+
+    private static ArrayList<Task> sampleTasks() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book"));
+        tasks.add(new Deadline("return book", "2/12/2019 1800"));
+        tasks.add(new Deadline("submit report", "next monday"));
+        tasks.add(new Event("project meeting", "2024-12-02 14:00", "2024-12-02 16:00"));
+        tasks.add(new Event("conference", "Mon 2pm", "4pm"));
+        tasks.add(new Event("trip", "2024-12-02", "sometime"));
+        tasks.get(1).markAsDone();
+        tasks.get(4).markAsDone();
+        return tasks;
+    }
+
+    @Test
+    public void loadLazily_textFile_decodesOnAccessAndSkipsCorruptedLines() throws Exception {
+        Path file = tempDir.resolve("pallo.txt");
+        new Storage(file.toString()).save(sampleTasks());
+        Files.writeString(file, "X | 0 | unknown\n\nT | 0\n", StandardOpenOption.APPEND);
+        ArrayList<Task> expected = new Storage(file.toString()).load();
+
+        List<Task> lazy = new Storage(file.toString()).loadLazily();
+        assertEquals(expected.size(), lazy.size());
+        assertEquals(expected.size(), ((MappedTaskList) lazy).countUndecoded());
+
+        assertEquals(expected.get(3).toString(), lazy.get(3).toString());
+        assertEquals(expected.size() - 1, ((MappedTaskList) lazy).countUndecoded());
+        lazy.get(3).markAsDone();
+        assertTrue(lazy.get(3).isDone());
+
+        lazy.remove(0);
+        lazy.add(new Todo("new task"));
+        assertEquals(expected.get(1).toFileString(), lazy.get(0).toFileString());
+        assertEquals("T | 0 | new task", lazy.get(lazy.size() - 1).toFileString());
+    }
+
+    @Test
+    public void load_parallelChunks_matchesSequentialLoad() throws Exception {
+        Path file = tempDir.resolve("pallo.txt");
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 50_000; i++) {
+            content.append(i % 1000 == 7 ? "corrupted line " + i : "T | " + (i % 2) + " | task " + i).append('\n');
+            if (i % 3 == 0) {
+                content.append("D | 0 | deadline ").append(i).append(" | 2024-12-31T18:00\n");
+            }
+        }
+        Files.writeString(file, content);
+
+        ArrayList<Task> sequential = new Storage(file.toString()).load();
+        Storage parallel = new Storage(file.toString());
+        parallel.setParallelLoadThreshold(0);
+        ArrayList<Task> chunked = parallel.load();
+
+        assertEquals(sequential.size(), chunked.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.get(i).toFileString(), chunked.get(i).toFileString());
+        }
+    }
+
+    @Test
+    public void load_idsInEachFormat_keepsIdsAndReadsLegacyRecords() throws Exception {
+        ArrayList<Task> tasks = sampleTasks();
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).setId(100 - i);
+        }
+        Path text = tempDir.resolve("pallo.txt");
+        new Storage(text.toString()).save(tasks);
+        Files.writeString(text, "T | 0 | legacy\n#0 | T | 0 | zero\n# x | T | 0 | bad\n", StandardOpenOption.APPEND);
+        Path binary = tempDir.resolve("pallo.bin");
+        TaskFileConverter.convert(text.toString(), binary.toString(), StorageFormat.BINARY);
+
+        List<Task> eager = new Storage(text.toString()).load();
+        List<Task> lazy = new Storage(text.toString()).loadLazily();
+        List<Task> fromBinary = new Storage(binary.toString()).load();
+        assertEquals(tasks.size() + 1, eager.size());
+        assertEquals(0, eager.get(tasks.size()).getId());
+        assertEquals(100, ((MappedTaskList) lazy).getMaxTaskId());
+        assertFalse(((MappedTaskList) lazy).hasAllTaskIds());
+        for (int i = 0; i < eager.size(); i++) {
+            assertEquals(eager.get(i).getId(), lazy.get(i).getId());
+            assertEquals(eager.get(i).getId(), fromBinary.get(i).getId());
+            assertEquals(eager.get(i).toFileString(), fromBinary.get(i).toFileString());
+        }
+        assertEquals("#99 | D | 1 | return book | 2019-12-02T18:00", eager.get(1).toFileString());
+    }
+
+    @Test
+    public void persist_incrementalSaves_writesSameFileInPlace() throws Exception {
+        Path file = tempDir.resolve("pallo.txt");
+        ArrayList<Task> tasks = sampleTasks();
+        for (int i = 0; i < 20; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+        new Storage(file.toString()).save(tasks);
+        Object fileKey = Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+
+        Storage storage = new Storage(file.toString());
+        storage.setIncrementalSaves(true);
+        ArrayList<Task> loaded = storage.load();
+        loaded.get(2).markAsDone();
+        storage.persist(JournalEntry.mark(2), () -> loaded);
+        loaded.get(1).markAsNotDone();
+        storage.persist(JournalEntry.unmark(1), () -> loaded);
+        loaded.add(new Deadline("pay rent", "2024-12-31"));
+        storage.persist(JournalEntry.add(loaded.get(loaded.size() - 1)), () -> loaded);
+        loaded.remove(20);
+        storage.persist(JournalEntry.delete(20), () -> loaded);
+        loaded.add(new Todo("water plants"));
+        storage.persist(JournalEntry.add(loaded.get(loaded.size() - 1)), () -> loaded);
+
+        Path expected = tempDir.resolve("expected.txt");
+        new Storage(expected.toString()).save(loaded);
+        assertEquals(Files.readString(expected), Files.readString(file));
+        assertEquals(fileKey, Files.readAttributes(file, BasicFileAttributes.class).fileKey());
+    }
+
+    @Test
+    public void persist_incrementalSavesAfterOutsideEdit_savesWholeFile() throws Exception {
+        Path file = tempDir.resolve("pallo.txt");
+        new Storage(file.toString()).save(sampleTasks());
+        Storage storage = new Storage(file.toString());
+        storage.setIncrementalSaves(true);
+        ArrayList<Task> loaded = storage.load();
+        Files.writeString(file, "T | 0 | written elsewhere\n", StandardOpenOption.APPEND);
+
+        loaded.get(0).markAsDone();
+        storage.persist(JournalEntry.mark(0), () -> loaded);
+        loaded.remove(0);
+        storage.persist(JournalEntry.delete(0), () -> loaded);
+
+        Path expected = tempDir.resolve("expected.txt");
+        new Storage(expected.toString()).save(loaded);
+        assertEquals(Files.readString(expected), Files.readString(file));
+    }
+
+    @Test
+    public void load_recurringText_sharesOneCopyOfEachString() throws Exception {
+        Path file = tempDir.resolve("pallo.txt");
+        Files.writeString(file, String.join(System.lineSeparator(),
+                "T | 0 | water the office plants",
+                "D | 1 | water the office plants | after the retro",
+                "E | 0 | retro | after the retro | later",
+                "T | 0 | water the office plants", ""));
+
+        List<Task> tasks = new Storage(file.toString()).load();
+        assertSame(tasks.get(0).getDescription(), tasks.get(1).getDescription());
+        assertSame(tasks.get(0).getDescription(), tasks.get(3).getDescription());
+        assertTrue(tasks.get(2).toString().contains("(from: after the retro to: later)"));
+    }
+}
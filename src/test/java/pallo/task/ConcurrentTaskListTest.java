@@ -0,0 +1,249 @@
+package pallo.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import pallo.exception.PalloException;
+
+public class ConcurrentTaskListTest {
+    private static final int THREADS = 4;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void addAndRemove_concurrentClients_loseNoTasksAndRemoveEachOnce() throws Exception {
+        ConcurrentTaskList tasks = new ConcurrentTaskList();
+        Set<Task> removed = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        List<Callable<List<Task>>> clients = new ArrayList<>();
+        for (int client = 0; client < THREADS; client++) {
+            int id = client;
+            clients.add(() -> {
+                List<Task> added = new ArrayList<>();
+                for (int i = 0; i < 2000; i++) {
+                    Task task = new Todo("client " + id + " task " + i);
+                    tasks.addTask(task);
+                    added.add(task);
+                    if (i % 3 == 0) {
+                        // Remove someone's task by position; it must come out exactly once
+                        try {
+                            Task victim = tasks.removeTask(ThreadLocalRandom.current().nextInt(tasks.size()));
+                            assertTrue(removed.add(victim));
+                        } catch (PalloException e) {
+                            // The list shrank between size() and removeTask(); nothing was removed
+                        }
+                    }
+                }
+                return added;
+            });
+        }
+
+        Set<Task> expected = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Future<List<Task>> result : executor.invokeAll(clients)) {
+            expected.addAll(result.get());
+        }
+        expected.removeAll(removed);
+
+        Set<Task> actual = Collections.newSetFromMap(new IdentityHashMap<>());
+        actual.addAll(tasks.getAllTasks());
+        assertEquals(tasks.size(), actual.size());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void addThenRemove_racingPairs_matchOneSequentialOrder() throws Exception {
+        for (int round = 0; round < 2000; round++) {
+            ConcurrentTaskList tasks = new ConcurrentTaskList();
+            Task existing = new Todo("existing");
+            tasks.addTask(existing);
+            Task added = new Todo("added");
+            CyclicBarrier start = new CyclicBarrier(2);
+
+            Future<?> adder = executor.submit(() -> {
+                start.await();
+                tasks.addTask(added);
+                return null;
+            });
+            Future<Task> remover = executor.submit(() -> {
+                start.await();
+                return tasks.removeTask(tasks.size() - 1);
+            });
+            adder.get();
+            Task removedTask = remover.get();
+
+            // Either the removal ran first and took the existing task, or it ran second and took the added one
+            if (removedTask == existing) {
+                assertEquals(List.of(added), tasks.getAllTasks());
+            } else {
+                assertSame(added, removedTask);
+                assertEquals(List.of(existing), tasks.getAllTasks());
+            }
+        }
+    }
+
+    @Test
+    public void removeTask_byIdentityAfterConcurrentDelete_neverHitsAnotherTask() throws Exception {
+        ConcurrentTaskList tasks = new ConcurrentTaskList();
+        List<Task> all = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Task task = new Todo("task " + i);
+            all.add(task);
+            tasks.addTask(task);
+        }
+
+        List<Callable<Integer>> clients = new ArrayList<>();
+        for (int client = 0; client < THREADS; client++) {
+            clients.add(() -> {
+                int removedCount = 0;
+                for (Task task : all) {
+                    if (tasks.removeTask(task)) {
+                        removedCount++;
+                    }
+                }
+                return removedCount;
+            });
+        }
+        int total = 0;
+        for (Future<Integer> result : executor.invokeAll(clients)) {
+            total += result.get();
+        }
+        assertEquals(all.size(), total);
+        assertTrue(tasks.isEmpty());
+        assertFalse(tasks.removeTask(all.get(0)));
+    }
+
+    @Test
+    public void markAndQuery_concurrentWithWrites_seeConsistentVersions() throws Exception {
+        ConcurrentTaskList tasks = new ConcurrentTaskList();
+        for (int i = 0; i < 500; i++) {
+            tasks.addTask(new Todo("book " + i));
+        }
+
+        Future<?> writer = executor.submit(() -> {
+            for (int i = 0; i < 500; i++) {
+                tasks.addTask(new Todo("book extra " + i));
+                tasks.getTask(i).markAsDone();
+                tasks.removeTask(tasks.size() - 1);
+            }
+            return null;
+        });
+        Future<?> reader = executor.submit(() -> {
+            while (!writer.isDone()) {
+                List<Task> found = tasks.findTasks("book");
+                assertTrue(found.size() == 500 || found.size() == 501, "Found " + found.size());
+                assertEquals(found.size(), new HashSet<>(found).size());
+            }
+            return null;
+        });
+        writer.get();
+        reader.get();
+
+        assertEquals(500, tasks.size());
+        for (Task task : tasks.getAllTasks()) {
+            assertTrue(task.isDone());
+        }
+    }
+
+    @Test
+    public void queries_interleavedWithWrites_matchTaskList() throws PalloException {
+        Random random = new Random(11);
+        LocalDateTime day = LocalDateTime.of(2024, 12, 2, 0, 0);
+        String[] words = {"read book", "return book", "standup", "review PR", "groceries"};
+        TaskList reference = new TaskList();
+        ConcurrentTaskList tasks = new ConcurrentTaskList();
+        for (int step = 0; step < 2000; step++) {
+            int choice = random.nextInt(5);
+            if (choice == 0 && !reference.isEmpty()) {
+                int index = random.nextInt(reference.size());
+                assertEquals(reference.removeTask(index).toFileString(), tasks.removeTask(index).toFileString());
+            } else if (choice == 1 && !reference.isEmpty()) {
+                int index = random.nextInt(reference.size());
+                reference.getTask(index).markAsDone();
+                tasks.getTask(index).markAsDone();
+            } else {
+                String description = words[random.nextInt(words.length)] + " " + step;
+                LocalDateTime start = day.plusHours(random.nextInt(500) - 250);
+                if (choice == 2) {
+                    reference.addTask(new Deadline(description, start));
+                    tasks.addTask(new Deadline(description, start));
+                } else if (choice == 3) {
+                    LocalDateTime end = start.plusHours(random.nextInt(100));
+                    reference.addTask(new Event(description, start, end));
+                    tasks.addTask(new Event(description, start, end));
+                } else {
+                    reference.addTask(new Todo(description));
+                    tasks.addTask(new Todo(description));
+                }
+            }
+
+            // Queries after every write must see it without rebuilding from scratch
+            if (step % 20 == 0) {
+                assertEquals(fileStrings(reference.getAllTasks()), fileStrings(tasks.getAllTasks()));
+                assertEquals(fileStrings(reference.findTasks("book")), fileStrings(tasks.findTasks("book")));
+                assertEquals(fileStrings(reference.findTasks("1")), fileStrings(tasks.findTasks("1")));
+                assertEquals(fileStrings(reference.tasksBetween(day, day.plusDays(3))),
+                        fileStrings(tasks.tasksBetween(day, day.plusDays(3))));
+            }
+        }
+
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.getTask(i);
+            assertSame(task, tasks.getTaskById(task.getId()));
+            assertEquals(i, tasks.indexOf(task));
+            assertSame(task, tasks.viewAllTasks().get(i));
+        }
+        assertEquals(fileStrings(reference.getTasks(3, 9)), fileStrings(tasks.getTasks(3, 9)));
+    }
+
+    @Test
+    public void addTask_taskWithId_assignsLaterIdsPastIt() {
+        ConcurrentTaskList tasks = new ConcurrentTaskList();
+        Task imported = new Todo("imported");
+        imported.setId(42);
+        tasks.addTask(imported);
+        Task taken = new Todo("taken");
+        taken.setId(42);
+        tasks.addTask(taken);
+        Task added = new Todo("added");
+        tasks.addTask(added);
+
+        assertEquals(42, imported.getId());
+        assertEquals(43, taken.getId());
+        assertEquals(44, added.getId());
+    }
+
+    private static List<String> fileStrings(List<Task> tasks) {
+        return tasks.stream().map(Task::toFileString).collect(Collectors.toList());
+    }
+}
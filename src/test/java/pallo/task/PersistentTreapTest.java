@@ -0,0 +1,94 @@
+package pallo.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+public class PersistentTreapTest {
+
+    @Test
+    public void putAndRemove_randomKeys_matchTreeMap() {
+        Random random = new Random(13);
+        TreeMap<Long, String> reference = new TreeMap<>();
+        PersistentTreap<Long, String> treap = PersistentTreap.empty();
+        for (int step = 0; step < 5000; step++) {
+            long key = random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                reference.remove(key);
+                treap = treap.remove(key);
+            } else {
+                reference.put(key, "value " + step);
+                treap = treap.put(key, "value " + step);
+            }
+            if (step % 250 == 0) {
+                assertMatches(reference, treap);
+            }
+        }
+        assertMatches(reference, treap);
+    }
+
+    @Test
+    public void put_oldVersion_isUnchanged() {
+        PersistentTreap<Long, String> before = PersistentTreap.<Long, String>empty().put(1L, "one").put(3L, "three");
+        PersistentTreap<Long, String> after = before.put(2L, "two").remove(3L);
+
+        assertEquals(List.of(1L, 3L), keysOf(before));
+        assertEquals("three", before.get(3L));
+        assertEquals(List.of(1L, 2L), keysOf(after));
+        assertNull(after.get(3L));
+        assertSame(after, after.remove(7L));
+    }
+
+    @Test
+    public void ofSorted_sortedEntries_matchesRepeatedPuts() {
+        List<Long> keys = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        TreeMap<Long, String> reference = new TreeMap<>();
+        for (long key = 0; key < 1000; key += 3) {
+            keys.add(key);
+            values.add("value " + key);
+            reference.put(key, "value " + key);
+        }
+        PersistentTreap<Long, String> treap = PersistentTreap.ofSorted(keys, values);
+        assertMatches(reference, treap);
+
+        reference.remove(300L);
+        reference.put(1000L, "appended");
+        assertMatches(reference, treap.remove(300L).put(1000L, "appended"));
+    }
+
+    private static void assertMatches(TreeMap<Long, String> reference, PersistentTreap<Long, String> treap) {
+        assertEquals(reference.size(), treap.size());
+        assertEquals(new ArrayList<>(reference.keySet()), keysOf(treap));
+        assertEquals(reference.isEmpty() ? null : reference.lastKey(), treap.lastKey());
+        int index = 0;
+        for (Map.Entry<Long, String> entry : reference.entrySet()) {
+            assertEquals(entry.getValue(), treap.get(entry.getKey()));
+            assertEquals(entry.getKey(), treap.keyAt(index));
+            assertEquals(entry.getValue(), treap.valueAt(index));
+            assertEquals(index, treap.rank(entry.getKey()));
+            index++;
+        }
+        for (long key = -1; key < 510; key += 7) {
+            assertEquals(reference.floorKey(key), treap.floorKey(key));
+            assertEquals(reference.headMap(key).size(), treap.rank(key));
+            List<Long> range = new ArrayList<>();
+            treap.forEach(key, key + 40, (found, value) -> range.add(found));
+            assertEquals(new ArrayList<>(reference.subMap(key, true, key + 40, true).keySet()), range);
+        }
+    }
+
+    private static List<Long> keysOf(PersistentTreap<Long, String> treap) {
+        List<Long> keys = new ArrayList<>();
+        treap.forEach((key, value) -> keys.add(key));
+        return keys;
+    }
+}
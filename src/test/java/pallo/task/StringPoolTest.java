@@ -0,0 +1,49 @@
+package pallo.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class StringPoolTest {
+
+    @Test
+    public void intern_equalStrings_returnsFirstCopyAndCountsHits() {
+        StringPool pool = new StringPool(16, 48);
+        String first = new String("standup");
+        String second = new String("standup");
+
+        assertSame(first, pool.intern(first));
+        assertSame(first, pool.intern(second));
+        assertSame(first, pool.intern("standup"));
+        assertEquals(3, pool.getLookupCount());
+        assertEquals(2, pool.getHitCount());
+        // A String, its array header and "standup" padded to 8 bytes
+        assertEquals(2 * (24 + 16 + 8), pool.getBytesSaved());
+        assertTrue(pool.report().startsWith("Pooled task text: 2 of 3 lookups hit (66.7%)"));
+
+        pool.reset();
+        assertEquals(0, pool.getLookupCount());
+        assertSame(second, pool.intern(second));
+    }
+
+    @Test
+    public void intern_longNullOrPoolOff_passesStringsThrough() {
+        StringPool pool = new StringPool(16, 4);
+        String longText = new String("review PR");
+        assertSame(longText, pool.intern(longText));
+        assertSame(longText, pool.intern(longText));
+        assertNull(pool.intern(null));
+        assertEquals(0, pool.getLookupCount());
+
+        StringPool off = new StringPool(0, 48);
+        String text = new String("gym");
+        off.intern("gym");
+        assertSame(text, off.intern(text));
+        assertTrue(off.report().startsWith("Task text is not pooled."));
+        assertThrows(IllegalArgumentException.class, () -> new StringPool(12, 48));
+    }
+}
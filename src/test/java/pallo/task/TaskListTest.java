@@ -0,0 +1,266 @@
+package pallo.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import pallo.exception.PalloException;
+
+public class TaskListTest {
+    private static final String[] WORDS = {"read", "Book", "return", "standup", "review PR", "groceries",
+        "\u00c4PFEL", "meeting", "bookkeeping", "rebook"};
+
+    @Test
+    public void findTasks_indexedSearch_matchesLinearScan() throws PalloException {
+        Random random = new Random(42);
+        TaskList tasks = new TaskList();
+        List<Task> reference = new ArrayList<>();
+        String[] keywords = {"book", "BOOK", "ook", "re", "k", "review pr", "\u00e4pf", "kk", "missing", "read book"};
+
+        for (int step = 0; step < 2000; step++) {
+            if (random.nextInt(4) == 0 && !reference.isEmpty()) {
+                int index = random.nextInt(reference.size());
+                assertSame(reference.remove(index), tasks.removeTask(index));
+            } else {
+                Task task = new Todo(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]);
+                tasks.addTask(task);
+                reference.add(task);
+            }
+            if (step % 50 == 0) {
+                for (String keyword : keywords) {
+                    assertEquals(scan(reference, keyword), tasks.findTasks(keyword), keyword);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void tasksBetween_mixedTasks_returnsOverlappingTasksSortedByDate() throws PalloException {
+        LocalDateTime day = LocalDateTime.of(2024, 12, 2, 0, 0);
+        Task lateDeadline = new Deadline("late", day.plusDays(3));
+        Task earlyDeadline = new Deadline("early", day.plusDays(1));
+        Task pastDeadline = new Deadline("past", day.minusDays(1));
+        Task ongoingEvent = new Event("ongoing", day.minusDays(5), day.plusHours(2));
+        Task finishedEvent = new Event("finished", day.minusDays(2), day.minusDays(1));
+        Task sameDayEvent = new Event("same day", day.plusDays(1), day.plusDays(1).plusHours(1));
+        Task undated = new Deadline("someday", "next week");
+        TaskList tasks = new TaskList();
+        for (Task task : List.of(lateDeadline, earlyDeadline, pastDeadline, ongoingEvent, finishedEvent,
+                sameDayEvent, undated, new Todo("no date"))) {
+            tasks.addTask(task);
+        }
+
+        assertEquals(List.of(ongoingEvent, earlyDeadline, sameDayEvent, lateDeadline),
+                tasks.tasksBetween(day, day.plusDays(7)));
+
+        tasks.removeTask(1);
+        Task addedEvent = new Event("added", day.plusDays(2), day.plusDays(2));
+        tasks.addTask(addedEvent);
+        assertEquals(List.of(ongoingEvent, sameDayEvent, addedEvent, lateDeadline),
+                tasks.tasksBetween(day, day.plusDays(7)));
+        assertEquals(List.of(), tasks.tasksBetween(day.plusDays(7), day));
+    }
+
+    @Test
+    public void timeIndex_removeLongestEvent_narrowsScanToLongestRemaining() {
+        LocalDateTime day = LocalDateTime.of(2024, 12, 2, 0, 0);
+        Task conference = new Event("conference", day, day.plusDays(30));
+        Task meeting = new Event("meeting", day, day.plusHours(2));
+        Task otherMeeting = new Event("other meeting", day.plusDays(1), day.plusDays(1).plusHours(2));
+        TimeIndex index = new TimeIndex(List.of(conference, meeting, otherMeeting, new Deadline("due", day)));
+        assertEquals(Duration.ofDays(30), index.getLongestEvent());
+
+        index.remove(conference);
+        assertEquals(Duration.ofHours(2), index.getLongestEvent());
+        index.remove(meeting);
+        assertEquals(Duration.ofHours(2), index.getLongestEvent());
+        index.remove(otherMeeting);
+        assertEquals(Duration.ZERO, index.getLongestEvent());
+        assertEquals(List.of(), index.between(day.plusDays(2), day.plusDays(3)));
+    }
+
+    @Test
+    public void restore_afterChanges_undoesAddsDeletesAndMarks() throws PalloException {
+        Task first = new Todo("read book");
+        Task second = new Deadline("return book", "2024-12-02");
+        second.markAsDone();
+        TaskList tasks = new TaskList(new ArrayList<>(List.of(first, second)));
+        assertEquals(List.of(first), tasks.findTasks("read"));
+
+        TaskList.Snapshot snapshot = tasks.createSnapshot();
+        tasks.getTask(0).markAsDone();
+        tasks.getTask(1).markAsNotDone();
+        tasks.removeTask(0);
+        tasks.addTask(new Todo("read more"));
+        tasks.restore(snapshot);
+
+        assertEquals(List.of(first, second), tasks.getAllTasks());
+        assertEquals(TaskStatus.NOT_DONE, first.getStatus());
+        assertEquals(TaskStatus.DONE, second.getStatus());
+        assertEquals(List.of(first), tasks.findTasks("read"));
+    }
+
+    @Test
+    public void getTaskById_randomAddsAndDeletes_matchesPositions() throws PalloException {
+        Random random = new Random(14);
+        TaskList tasks = new TaskList();
+        List<Task> expected = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            if (expected.isEmpty() || random.nextInt(5) < 2) {
+                Task task = new Todo("task " + i);
+                tasks.addTask(task);
+                expected.add(task);
+            } else {
+                int index = random.nextInt(expected.size());
+                assertSame(expected.remove(index), tasks.removeTask(index));
+            }
+        }
+
+        assertEquals(expected, tasks.getAllTasks());
+        assertEquals(expected.size(), tasks.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Task task = expected.get(i);
+            assertSame(task, tasks.getTask(i));
+            assertSame(task, tasks.getTaskById(task.getId()));
+            assertEquals(i, tasks.indexOf(task));
+        }
+        assertThrows(PalloException.class, () -> tasks.getTaskById(20_001));
+    }
+
+    @Test
+    public void addTask_duplicateOrMissingIds_assignsFreshIds() throws PalloException {
+        Task first = new Todo("first");
+        first.setId(7);
+        Task clash = new Todo("clash");
+        clash.setId(7);
+        TaskList tasks = new TaskList(new ArrayList<>(List.of(first, clash, new Todo("missing"))));
+
+        assertTrue(tasks.hasAssignedMissingIds());
+        assertEquals(List.of(7L, 8L, 9L), tasks.getAllTasks().stream().map(Task::getId).collect(Collectors.toList()));
+        Task added = new Todo("added");
+        tasks.addTask(added);
+        assertEquals(10, added.getId());
+        assertSame(clash, tasks.getTaskById(8));
+    }
+
+    @Test
+    public void columnar_randomChanges_matchesObjectList() throws PalloException {
+        Random random = new Random(7);
+        LocalDateTime day = LocalDateTime.of(2024, 12, 2, 0, 0);
+        TaskList objects = new TaskList();
+        TaskList columns = TaskList.columnar(new ArrayList<>());
+        for (int step = 0; step < 3000; step++) {
+            int choice = random.nextInt(6);
+            if (choice == 0 && !objects.isEmpty()) {
+                int index = random.nextInt(objects.size());
+                assertEquals(objects.removeTask(index).toFileString(), columns.removeTask(index).toFileString());
+            } else if (choice == 1 && !objects.isEmpty()) {
+                int index = random.nextInt(objects.size());
+                objects.getTask(index).markAsDone();
+                columns.getTask(index).markAsDone();
+            } else {
+                String description = WORDS[random.nextInt(WORDS.length)] + " " + step;
+                LocalDateTime start = day.plusMinutes(random.nextInt(20_000) - 10_000);
+                Task[] pair;
+                if (choice == 2) {
+                    pair = new Task[] {new Deadline(description, start), new Deadline(description, start)};
+                } else if (choice == 3) {
+                    LocalDateTime end = start.plusMinutes(random.nextInt(3000));
+                    pair = new Task[] {new Event(description, start, end), new Event(description, start, end)};
+                } else if (choice == 4) {
+                    pair = new Task[] {new Event(description, "2/12/2024 1800", "later"),
+                        new Event(description, "2/12/2024 1800", "later")};
+                } else {
+                    pair = new Task[] {new Todo(description), new Todo(description)};
+                }
+                objects.addTask(pair[0]);
+                columns.addTask(pair[1]);
+            }
+
+            if (step % 100 == 0) {
+                assertEquals(fileStrings(objects.getAllTasks()), fileStrings(columns.getAllTasks()));
+                assertEquals(fileStrings(objects.findTasks("book")), fileStrings(columns.findTasks("book")));
+                assertEquals(fileStrings(objects.findTasks("k")), fileStrings(columns.findTasks("k")));
+                LocalDateTime from = day.minusDays(2).plusSeconds(1);
+                assertEquals(fileStrings(objects.tasksBetween(from, day)),
+                        fileStrings(columns.tasksBetween(from, day)));
+            }
+        }
+
+        for (int i = 0; i < columns.size(); i++) {
+            Task task = columns.getTask(i);
+            assertSame(task, columns.getTaskById(task.getId()));
+            assertEquals(i, columns.indexOf(task));
+            assertEquals(objects.getTask(i).toString(), task.toString());
+        }
+    }
+
+    @Test
+    public void columnar_viewsOfTasks_writeBackAndDetachOnRemove() throws PalloException {
+        Task deadline = new Deadline("return book", "2/12/2019 1800");
+        TaskList tasks = TaskList.columnar(new ArrayList<>(List.of(new Todo("read book"), deadline)));
+        assertEquals(-1, tasks.indexOf(deadline));
+
+        Task view = tasks.getTask(1);
+        assertSame(view, tasks.getTask(1));
+        assertEquals("2/12/2019 1800", ((Deadline) view).getByString());
+        view.markAsDone();
+        // Copies are materialized from the columns, not from the view
+        Task stored = tasks.createSnapshot().copyTasks().get(1);
+        assertNotSame(view, stored);
+        assertTrue(stored.isDone());
+        assertEquals(deadline.getId(), stored.getId());
+
+        Task removed = tasks.removeTask(0);
+        assertEquals(0, tasks.indexOf(view));
+        removed.markAsDone();
+        assertFalse(tasks.getTask(0).getDescription().equals(removed.getDescription()));
+        assertNotSame(removed, tasks.getTask(0));
+        assertEquals("#1 | T | 1 | read book", removed.toFileString());
+    }
+
+    @Test
+    public void columnar_restoreAfterChanges_undoesAddsDeletesAndMarks() throws PalloException {
+        Task second = new Deadline("return book", "2/12/2019 1800");
+        second.markAsDone();
+        TaskList tasks = TaskList.columnar(new ArrayList<>(List.of(new Todo("read book"), second,
+                new Event("meeting", "2/12/2019 1400", "later"))));
+        List<String> before = fileStrings(tasks.getAllTasks());
+
+        TaskList.Snapshot snapshot = tasks.createSnapshot();
+        tasks.getTask(0).markAsDone();
+        tasks.getTask(1).markAsNotDone();
+        tasks.removeTask(2);
+        tasks.addTask(new Todo("read more"));
+        assertEquals(before, fileStrings(snapshot.copyTasks()));
+
+        tasks.restore(snapshot);
+        assertEquals(before, fileStrings(tasks.getAllTasks()));
+        assertEquals(List.of(tasks.getTask(0), tasks.getTask(1)), tasks.findTasks("book"));
+        tasks.getTask(0).markAsDone();
+        assertEquals(before, fileStrings(snapshot.copyTasks()));
+    }
+
+    private static List<String> fileStrings(List<Task> tasks) {
+        return tasks.stream().map(Task::toFileString).collect(Collectors.toList());
+    }
+
+    private static List<Task> scan(List<Task> tasks, String keyword) {
+        String lowerKeyword = keyword.toLowerCase();
+        return tasks.stream()
+                .filter(task -> task.getDescription().toLowerCase().contains(lowerKeyword))
+                .collect(Collectors.toList());
+    }
+}
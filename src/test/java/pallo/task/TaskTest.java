@@ -0,0 +1,57 @@
+package pallo.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+public class TaskTest {
+
+    @Test
+    public void toString_unchangedTask_reusesRenderedString() {
+        Deadline deadline = new Deadline("return book", LocalDateTime.of(2019, 12, 2, 18, 0));
+        String display = deadline.toString();
+        String fileForm = deadline.toFileString();
+
+        assertEquals("[D][ ] return book (by: Dec 02 2019 18:00)", display);
+        assertEquals("D | 0 | return book | 2019-12-02T18:00", fileForm);
+        assertSame(display, deadline.toString());
+        assertSame(fileForm, deadline.toFileString());
+    }
+
+    @Test
+    public void toString_afterMarkAndUnmark_rendersCurrentStatus() {
+        Event event = new Event("meeting", "2/12/2019 1400", "2/12/2019 1600");
+        assertEquals("[E][ ] meeting (from: Dec 02 2019 14:00 to: Dec 02 2019 16:00)", event.toString());
+        assertEquals("E | 0 | meeting | 2019-12-02T14:00 | 2019-12-02T16:00", event.toFileString());
+
+        event.markAsDone();
+        assertEquals("[E][X] meeting (from: Dec 02 2019 14:00 to: Dec 02 2019 16:00)", event.toString());
+        assertEquals("E | 1 | meeting | 2019-12-02T14:00 | 2019-12-02T16:00", event.toFileString());
+
+        event.markAsNotDone();
+        assertEquals("[E][ ] meeting (from: Dec 02 2019 14:00 to: Dec 02 2019 16:00)", event.toString());
+        assertEquals("E | 0 | meeting | 2019-12-02T14:00 | 2019-12-02T16:00", event.toFileString());
+    }
+
+    @Test
+    public void toFileString_afterSetId_includesId() {
+        Todo todo = new Todo("read book");
+        assertEquals("T | 0 | read book", todo.toFileString());
+        todo.setId(7);
+        assertEquals("#7 | T | 0 | read book", todo.toFileString());
+        assertEquals("[T][ ] read book", todo.toString());
+    }
+
+    @Test
+    public void copy_markedOriginal_keepsCopyRendering() {
+        Todo todo = new Todo("read book");
+        Todo copy = todo.copy();
+        assertEquals("[T][ ] read book", todo.toString());
+        todo.markAsDone();
+        assertEquals("[T][X] read book", todo.toString());
+        assertEquals("[T][ ] read book", copy.toString());
+    }
+}
@@ -0,0 +1,42 @@
+package pallo.ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+
+import org.junit.jupiter.api.Test;
+
+import pallo.command.ListRange;
+import pallo.task.TaskList;
+import pallo.task.Todo;
+
+public class UiTest {
+    private static final String LINE = "    ____________________________________________________________";
+
+    @Test
+    public void showTaskList_range_writesOnlyTasksInRange() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Ui ui = new Ui(new ByteArrayInputStream(new byte[0]), output);
+        TaskList tasks = new TaskList();
+        for (int i = 1; i <= 5; i++) {
+            tasks.addTask(new Todo("task " + i));
+        }
+
+        ui.showTaskList(tasks, new ListRange(4, 10));
+        assertEquals(String.join(System.lineSeparator(), LINE, "     Here are tasks 4-5 of 5 in your list:",
+                "     4.[T][ ] task 4", "     5.[T][ ] task 5", LINE, "", ""),
+                output.toString(Charset.defaultCharset()));
+    }
+
+    @Test
+    public void showMessage_multipleLines_indentsEachLine() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Ui ui = new Ui(new ByteArrayInputStream(new byte[0]), output);
+
+        ui.showMessage("first\n\nlast\n");
+        assertEquals(String.join(System.lineSeparator(), LINE, "     first", "     ", "     last", LINE, "", ""),
+                output.toString(Charset.defaultCharset()));
+    }
+}